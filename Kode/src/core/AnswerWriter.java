@@ -0,0 +1,568 @@
+package core;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLDataException;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.SQLSyntaxErrorException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class AnswerWriter {
+
+    private static final String INSERT_QUERY =
+        "INSERT INTO question_answers (session_id, question_id, user_answer, is_correct) VALUES (?, ?, ?, ?)";
+    // dipakai setelah migrasi v6 menambah kolom response_time_ms
+    private static final String INSERT_TIMED_QUERY =
+        "INSERT INTO question_answers (session_id, question_id, user_answer, is_correct, response_time_ms) " +
+        "VALUES (?, ?, ?, ?, ?)";
+    // spill file di-replay per potongan; setelah tiap commit sisa baris ditulis ulang secara atomik
+    private static final int REPLAY_CHUNK_SIZE = 500;
+
+    private final Database database;
+    private final BlockingQueue<PendingAnswer> queue;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final File spillFile;
+    private final File deadLetterFile;
+    private final Object spillLock = new Object();
+    private final Thread writerThread;
+    private volatile boolean running = true;
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+    private final AtomicLong replayed = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+    private final AtomicLong backpressureEvents = new AtomicLong();
+    private final AtomicInteger highWaterMark = new AtomicInteger();
+
+    public AnswerWriter(Database database, int capacity, int batchSize, long flushIntervalMillis,
+                        String spillPath, String deadLetterPath) {
+        this.database = database;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.spillFile = new File(spillPath);
+        this.deadLetterFile = new File(deadLetterPath);
+
+        this.writerThread = new Thread(this::runLoop, "DB-AnswerWriter");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    public void submit(int sessionId, int questionId, String userAnswer, boolean isCorrect, long responseMillis) {
+        PendingAnswer answer = new PendingAnswer(sessionId, questionId, userAnswer, isCorrect,
+            clampMillis(responseMillis), null);
+        submitted.incrementAndGet();
+
+        if (!running || !queue.offer(answer)) {
+            backpressureEvents.incrementAndGet();
+            List<PendingAnswer> overflow = new ArrayList<>(1);
+            overflow.add(answer);
+            spill(overflow);
+            return;
+        }
+
+        int depth = queue.size();
+        highWaterMark.accumulateAndGet(depth, Math::max);
+        if (depth == batchSize) {
+            queue.offer(PendingAnswer.marker(null));
+        }
+    }
+
+    public CompletableFuture<Void> flush() {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        if (!running) {
+            done.complete(null);
+            return done;
+        }
+        try {
+            queue.put(PendingAnswer.marker(done));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            done.completeExceptionally(e);
+        }
+        return done;
+    }
+
+    public void close() {
+        if (!running) {
+            return;
+        }
+        CompletableFuture<Void> drained = flush();
+        running = false;
+        try {
+            drained.get(5, TimeUnit.SECONDS);
+            writerThread.join(1000);
+        } catch (Exception e) {
+            System.err.println("Jawaban tertunda tidak sempat disimpan: " + e.getMessage());
+        }
+
+        List<PendingAnswer> leftover = new ArrayList<>();
+        queue.drainTo(leftover);
+        leftover.removeIf(PendingAnswer::isMarker);
+        if (!leftover.isEmpty()) {
+            spill(leftover);
+        }
+    }
+
+    private void runLoop() {
+        List<PendingAnswer> batch = new ArrayList<>(batchSize);
+        List<CompletableFuture<Void>> waiters = new ArrayList<>();
+        long lastFlush = System.currentTimeMillis();
+
+        while (running || !queue.isEmpty()) {
+            boolean due = false;
+            try {
+                long wait = Math.max(1, flushIntervalMillis - (System.currentTimeMillis() - lastFlush));
+                PendingAnswer next = queue.poll(wait, TimeUnit.MILLISECONDS);
+                if (next != null) {
+                    batch.add(next);
+                    queue.drainTo(batch, batchSize * 2);
+                }
+            } catch (InterruptedException e) {
+                due = true;
+            }
+
+            Iterator<PendingAnswer> it = batch.iterator();
+            while (it.hasNext()) {
+                PendingAnswer item = it.next();
+                if (item.isMarker()) {
+                    due = true;
+                    if (item.done != null) {
+                        waiters.add(item.done);
+                    }
+                    it.remove();
+                }
+            }
+
+            long now = System.currentTimeMillis();
+            if (due || batch.size() >= batchSize || now - lastFlush >= flushIntervalMillis) {
+                writeBatch(batch);
+                batch.clear();
+                lastFlush = now;
+                for (CompletableFuture<Void> waiter : waiters) {
+                    waiter.complete(null);
+                }
+                waiters.clear();
+            }
+        }
+
+        writeBatch(batch);
+        for (CompletableFuture<Void> waiter : waiters) {
+            waiter.complete(null);
+        }
+    }
+
+    private void writeBatch(List<PendingAnswer> batch) {
+        if (spillFile.exists() && spillFile.length() > 0) {
+            replaySpill();
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        DbMetrics.Sample sample = DbMetrics.getInstance().start("insertAnswerBatch");
+        try {
+            insert(batch);
+            sample.rows(batch.size());
+            written.addAndGet(batch.size());
+            batches.incrementAndGet();
+            database.getQuestionStats().requestRollup();
+        } catch (SQLException e) {
+            sample.fail();
+            failedBatches.incrementAndGet();
+            if (isTransient(e)) {
+                System.err.println("Gagal menyimpan " + batch.size() + " jawaban, dialihkan ke spill file: " + e.getMessage());
+                spill(batch);
+            } else {
+                // satu baris rusak (misalnya soal sudah dihapus) tidak boleh menahan seluruh batch
+                System.err.println("Batch " + batch.size() + " jawaban ditolak database, disimpan satu per satu: " + e.getMessage());
+                List<PendingAnswer> retry = insertEach(batch);
+                if (!retry.isEmpty()) {
+                    spill(retry);
+                }
+            }
+        } finally {
+            sample.stop();
+        }
+    }
+
+    // error koneksi/timeout/lock dicoba lagi nanti; pelanggaran constraint, data tidak valid dan
+    // error SQL tidak akan pernah berhasil, jadi barisnya dipindah ke dead-letter
+    static boolean isTransient(SQLException e) {
+        for (SQLException next = e; next != null; next = next.getNextException()) {
+            for (Throwable cause = next; cause != null; cause = cause.getCause()) {
+                if (cause instanceof SQLException && isPermanent((SQLException) cause)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean isPermanent(SQLException e) {
+        if (e instanceof SQLIntegrityConstraintViolationException || e instanceof SQLDataException ||
+            e instanceof SQLSyntaxErrorException) {
+            return true;
+        }
+        String state = e.getSQLState();
+        return state != null && (state.startsWith("22") || state.startsWith("23") || state.startsWith("42"));
+    }
+
+    // mengembalikan baris yang belum tersimpan karena error sementara
+    private List<PendingAnswer> insertEach(List<PendingAnswer> answers) {
+        List<PendingAnswer> rejected = new ArrayList<>();
+        int next = 0;
+        int inserted = 0;
+        try (Connection conn = database.getConnection()) {
+            boolean timed = database.isSchemaCurrent();
+            try (PreparedStatement stmt = conn.prepareStatement(timed ? INSERT_TIMED_QUERY : INSERT_QUERY)) {
+                for (; next < answers.size(); next++) {
+                    PendingAnswer answer = answers.get(next);
+                    bind(stmt, answer, timed);
+                    try {
+                        stmt.executeUpdate();
+                        inserted++;
+                    } catch (SQLException e) {
+                        if (isTransient(e)) {
+                            throw e;
+                        }
+                        System.err.println("Jawaban sesi " + answer.sessionId + " soal " + answer.questionId +
+                                           " ditolak database, dipindah ke " + deadLetterFile.getPath() + ": " + e.getMessage());
+                        rejected.add(answer);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Gagal menyimpan jawaban satu per satu: " + e.getMessage());
+        }
+        written.addAndGet(inserted);
+        if (inserted > 0) {
+            database.getQuestionStats().requestRollup();
+        }
+        if (!rejected.isEmpty()) {
+            deadLetter(rejected);
+        }
+        return new ArrayList<>(answers.subList(next, answers.size()));
+    }
+
+    private void insert(List<PendingAnswer> answers) throws SQLException {
+        try (Connection conn = database.getConnection()) {
+            conn.setAutoCommit(false);
+            boolean timed = database.isSchemaCurrent();
+            try (PreparedStatement stmt = conn.prepareStatement(timed ? INSERT_TIMED_QUERY : INSERT_QUERY)) {
+                for (PendingAnswer answer : answers) {
+                    bind(stmt, answer, timed);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackError) {
+                    e.addSuppressed(rollbackError);
+                }
+                throw e;
+            }
+        }
+    }
+
+    private static void bind(PreparedStatement stmt, PendingAnswer answer, boolean timed) throws SQLException {
+        stmt.setInt(1, answer.sessionId);
+        stmt.setInt(2, answer.questionId);
+        stmt.setString(3, answer.userAnswer);
+        stmt.setBoolean(4, answer.isCorrect);
+        if (timed) {
+            if (answer.responseMillis >= 0) {
+                stmt.setInt(5, answer.responseMillis);
+            } else {
+                stmt.setNull(5, Types.INTEGER);
+            }
+        }
+    }
+
+    private void spill(List<PendingAnswer> answers) {
+        synchronized (spillLock) {
+            try {
+                append(spillFile, answers);
+                spilled.addAndGet(answers.size());
+            } catch (IOException e) {
+                System.err.println("Gagal menulis spill file jawaban: " + spillFile.getPath());
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void deadLetter(List<PendingAnswer> answers) {
+        synchronized (spillLock) {
+            try {
+                append(deadLetterFile, answers);
+                deadLettered.addAndGet(answers.size());
+            } catch (IOException e) {
+                System.err.println("Gagal menulis dead-letter jawaban: " + deadLetterFile.getPath());
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private static void append(File file, List<PendingAnswer> answers) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file, true))) {
+            for (PendingAnswer answer : answers) {
+                writer.write(format(answer));
+                writer.newLine();
+            }
+        }
+    }
+
+    private static String format(PendingAnswer answer) {
+        return answer.sessionId + "," + answer.questionId + "," + answer.userAnswer + "," +
+               (answer.isCorrect ? 1 : 0) + "," + answer.responseMillis;
+    }
+
+    // Replay per potongan REPLAY_CHUNK_SIZE baris. Sisa baris ditulis ke file sementara sebelum
+    // commit dan langsung menggantikan spill file (rename atomik) setelah commit, jadi crash hanya
+    // bisa mengulang paling banyak satu potongan. Baris yang ditolak permanen masuk dead-letter.
+    private void replaySpill() {
+        synchronized (spillLock) {
+            List<PendingAnswer> pending = new ArrayList<>();
+            try (BufferedReader reader = new BufferedReader(new FileReader(spillFile))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] parts = line.split(",");
+                    // spill file lama belum punya kolom waktu jawab
+                    if (parts.length != 4 && parts.length != 5) {
+                        continue;
+                    }
+                    try {
+                        pending.add(new PendingAnswer(
+                            Integer.parseInt(parts[0]),
+                            Integer.parseInt(parts[1]),
+                            parts[2],
+                            parts[3].equals("1"),
+                            parts.length == 5 ? Integer.parseInt(parts[4]) : -1,
+                            null
+                        ));
+                    } catch (NumberFormatException e) {
+                        System.err.println("Baris spill file tidak valid dilewati: " + line);
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Spill file jawaban tidak bisa dibaca: " + e.getMessage());
+                return;
+            }
+
+            if (pending.isEmpty()) {
+                // hanya berisi baris rusak
+                if (!spillFile.delete()) {
+                    System.err.println("Spill file jawaban tidak bisa dihapus: " + spillFile.getPath());
+                }
+                return;
+            }
+
+            int done = 0;
+            int replayedRows = 0;
+            while (done < pending.size()) {
+                List<PendingAnswer> chunk = pending.subList(done, Math.min(done + REPLAY_CHUNK_SIZE, pending.size()));
+                List<PendingAnswer> remaining = pending.subList(done + chunk.size(), pending.size());
+                File next = new File(spillFile.getPath() + ".tmp");
+                try {
+                    writeAll(next, remaining);
+                } catch (IOException e) {
+                    System.err.println("Spill file sementara tidak bisa ditulis, replay ditunda: " + e.getMessage());
+                    break;
+                }
+
+                List<PendingAnswer> retry;
+                try {
+                    insert(chunk);
+                    written.addAndGet(chunk.size());
+                    replayedRows += chunk.size();
+                    retry = new ArrayList<>();
+                } catch (SQLException e) {
+                    if (isTransient(e)) {
+                        System.err.println("Replay spill file ditunda, database belum tersedia: " + e.getMessage());
+                        next.delete();
+                        break;
+                    }
+                    System.err.println("Potongan spill file ditolak database, disimpan satu per satu: " + e.getMessage());
+                    retry = insertEach(chunk);
+                    replayedRows += chunk.size() - retry.size();
+                }
+                if (!replaceSpillFile(next)) {
+                    break;
+                }
+                if (!retry.isEmpty()) {
+                    // error sementara di tengah potongan; sisanya dicoba lagi pada flush berikutnya
+                    try {
+                        append(spillFile, retry);
+                    } catch (IOException e) {
+                        System.err.println("Gagal mengembalikan jawaban ke spill file: " + e.getMessage());
+                    }
+                    break;
+                }
+                done += chunk.size();
+            }
+
+            if (replayedRows > 0) {
+                replayed.addAndGet(replayedRows);
+                database.getQuestionStats().requestRollup();
+                System.out.println(replayedRows + " jawaban dari spill file berhasil disimpan");
+            }
+        }
+    }
+
+    private static void writeAll(File file, List<PendingAnswer> answers) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file, false))) {
+            for (PendingAnswer answer : answers) {
+                writer.write(format(answer));
+                writer.newLine();
+            }
+        }
+    }
+
+    private boolean replaceSpillFile(File next) {
+        try {
+            try {
+                Files.move(next.toPath(), spillFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(next.toPath(), spillFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            return true;
+        } catch (IOException e) {
+            System.err.println("Spill file jawaban tidak bisa diperbarui: " + spillFile.getPath());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    // waktu jawab disimpan sebagai INT milidetik, -1 kalau tidak diketahui
+    static int clampMillis(long responseMillis) {
+        return responseMillis < 0 ? -1 : (int) Math.min(responseMillis, Integer.MAX_VALUE);
+    }
+
+    public Stats getStats() {
+        return new Stats(
+            queue.size(),
+            highWaterMark.get(),
+            submitted.get(),
+            written.get(),
+            batches.get(),
+            failedBatches.get(),
+            spilled.get(),
+            replayed.get(),
+            deadLettered.get(),
+            backpressureEvents.get()
+        );
+    }
+
+    private static class PendingAnswer {
+        private final int sessionId;
+        private final int questionId;
+        private final String userAnswer;
+        private final boolean isCorrect;
+        private final int responseMillis;
+        private final CompletableFuture<Void> done;
+        private final boolean marker;
+
+        PendingAnswer(int sessionId, int questionId, String userAnswer, boolean isCorrect,
+                      int responseMillis, CompletableFuture<Void> done) {
+            this(sessionId, questionId, userAnswer, isCorrect, responseMillis, done, false);
+        }
+
+        private PendingAnswer(int sessionId, int questionId, String userAnswer, boolean isCorrect,
+                              int responseMillis, CompletableFuture<Void> done, boolean marker) {
+            this.sessionId = sessionId;
+            this.questionId = questionId;
+            this.userAnswer = userAnswer;
+            this.isCorrect = isCorrect;
+            this.responseMillis = responseMillis;
+            this.done = done;
+            this.marker = marker;
+        }
+
+        static PendingAnswer marker(CompletableFuture<Void> done) {
+            return new PendingAnswer(0, 0, null, false, -1, done, true);
+        }
+
+        boolean isMarker() {
+            return marker;
+        }
+    }
+
+    public static class Stats {
+        private final int queueDepth;
+        private final int highWaterMark;
+        private final long submitted;
+        private final long written;
+        private final long batches;
+        private final long failedBatches;
+        private final long spilled;
+        private final long replayed;
+        private final long deadLettered;
+        private final long backpressureEvents;
+
+        public Stats(int queueDepth, int highWaterMark, long submitted, long written, long batches,
+                     long failedBatches, long spilled, long replayed, long deadLettered,
+                     long backpressureEvents) {
+            this.queueDepth = queueDepth;
+            this.highWaterMark = highWaterMark;
+            this.submitted = submitted;
+            this.written = written;
+            this.batches = batches;
+            this.failedBatches = failedBatches;
+            this.spilled = spilled;
+            this.replayed = replayed;
+            this.deadLettered = deadLettered;
+            this.backpressureEvents = backpressureEvents;
+        }
+
+        public int getQueueDepth() { return queueDepth; }
+        public int getHighWaterMark() { return highWaterMark; }
+        public long getSubmitted() { return submitted; }
+        public long getWritten() { return written; }
+        public long getBatches() { return batches; }
+        public long getFailedBatches() { return failedBatches; }
+        public long getSpilled() { return spilled; }
+        public long getReplayed() { return replayed; }
+        public long getDeadLettered() { return deadLettered; }
+        public long getBackpressureEvents() { return backpressureEvents; }
+
+        @Override
+        public String toString() {
+            return String.format(
+                "AnswerWriter[queue=%d, highWater=%d, submitted=%d, written=%d, batches=%d, " +
+                "failedBatches=%d, spilled=%d, replayed=%d, deadLettered=%d, backpressure=%d]",
+                queueDepth, highWaterMark, submitted, written, batches,
+                failedBatches, spilled, replayed, deadLettered, backpressureEvents);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.function.BiConsumer;
+
+// File data hanya ditambah di belakang (id, panjang, isi). Versi terbaru tiap id
+// dicatat di file index yang di-mmap: header + satu offset long per id.
+class AppendLog {
+
+    private static final int MAGIC = 0x52514C31;
+    private static final int HEADER_SIZE = 16;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int MIN_INDEX_SLOTS = 1024;
+
+    private final File dataFile;
+    private final FileChannel data;
+    private final FileChannel indexChannel;
+    private MappedByteBuffer index;
+    private int slots;
+    private int maxId;
+    private long dataLength;
+
+    AppendLog(File dataFile, File indexFile) throws IOException {
+        this.dataFile = dataFile;
+        this.data = FileChannel.open(dataFile.toPath(),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        boolean freshIndex = !indexFile.exists() || indexFile.length() < HEADER_SIZE;
+        this.indexChannel = FileChannel.open(indexFile.toPath(),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        int existingSlots = (int) Math.max(0, (indexChannel.size() - HEADER_SIZE) / 8);
+        mapIndex(Math.max(MIN_INDEX_SLOTS, existingSlots));
+
+        if (freshIndex || index.getInt(0) != MAGIC || index.getLong(8) > data.size()) {
+            clearIndex();
+            recover(0);
+        } else {
+            maxId = index.getInt(4);
+            dataLength = index.getLong(8);
+            if (dataLength < data.size()) {
+                // index tertinggal dari data (crash sebelum header ditulis), lanjutkan scan
+                recover(dataLength);
+            }
+        }
+    }
+
+    private void mapIndex(int slotCount) throws IOException {
+        index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) slotCount * 8);
+        slots = slotCount;
+    }
+
+    private void clearIndex() {
+        for (int i = 0; i < HEADER_SIZE + slots * 8; i += 8) {
+            index.putLong(i, 0L);
+        }
+        maxId = 0;
+        dataLength = 0;
+        writeHeader();
+    }
+
+    private void writeHeader() {
+        index.putInt(0, MAGIC);
+        index.putInt(4, maxId);
+        index.putLong(8, dataLength);
+    }
+
+    private void recover(long from) throws IOException {
+        long size = data.size();
+        long position = from;
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        while (position + RECORD_HEADER_SIZE <= size) {
+            header.clear();
+            data.read(header, position);
+            int id = header.getInt(0);
+            int length = header.getInt(4);
+            if (id <= 0 || length < 0 || position + RECORD_HEADER_SIZE + length > size) {
+                break;
+            }
+            setOffset(id, position);
+            position += RECORD_HEADER_SIZE + length;
+        }
+        if (position < size) {
+            // sisa record yang terpotong dibuang
+            System.err.println("Record rusak di " + dataFile.getName() + " dipotong pada offset " + position);
+            data.truncate(position);
+        }
+        dataLength = position;
+        writeHeader();
+    }
+
+    private void setOffset(int id, long offset) throws IOException {
+        if (id > slots) {
+            int grown = slots;
+            while (grown < id) {
+                grown *= 2;
+            }
+            mapIndex(grown);
+        }
+        // offset disimpan +1 supaya 0 berarti kosong
+        index.putLong(HEADER_SIZE + (id - 1) * 8, offset + 1);
+        if (id > maxId) {
+            maxId = id;
+        }
+    }
+
+    private long getOffset(int id) {
+        if (id <= 0 || id > slots) {
+            return -1;
+        }
+        return index.getLong(HEADER_SIZE + (id - 1) * 8) - 1;
+    }
+
+    synchronized int append(byte[] payload) throws IOException {
+        int id = maxId + 1;
+        put(id, payload);
+        return id;
+    }
+
+    synchronized void put(int id, byte[] payload) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_SIZE + payload.length);
+        buffer.putInt(id).putInt(payload.length).put(payload).flip();
+        long offset = dataLength;
+        while (buffer.hasRemaining()) {
+            data.write(buffer, offset + buffer.position());
+        }
+        dataLength = offset + RECORD_HEADER_SIZE + payload.length;
+        setOffset(id, offset);
+        writeHeader();
+    }
+
+    synchronized byte[] read(int id) throws IOException {
+        long offset = getOffset(id);
+        if (offset < 0) {
+            return null;
+        }
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        data.read(header, offset);
+        ByteBuffer payload = ByteBuffer.allocate(header.getInt(4));
+        long position = offset + RECORD_HEADER_SIZE;
+        while (payload.hasRemaining()) {
+            int read = data.read(payload, position + payload.position());
+            if (read < 0) {
+                throw new IOException("Record " + id + " di " + dataFile.getName() + " tidak lengkap");
+            }
+        }
+        return payload.array();
+    }
+
+    synchronized void forEach(BiConsumer<Integer, byte[]> consumer) throws IOException {
+        for (int id = 1; id <= maxId; id++) {
+            byte[] payload = read(id);
+            if (payload != null) {
+                consumer.accept(id, payload);
+            }
+        }
+    }
+
+    synchronized int maxId() {
+        return maxId;
+    }
+
+    synchronized boolean isEmpty() {
+        return maxId == 0;
+    }
+
+    synchronized void force() throws IOException {
+        data.force(false);
+        index.force();
+    }
+
+    synchronized void close() throws IOException {
+        force();
+        data.close();
+        indexChannel.close();
+    }
+}
@@ -0,0 +1,135 @@
+package core;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import javax.swing.SwingUtilities;
+
+public class AsyncDatabase {
+    private static AsyncDatabase instance;
+
+    // menjalankan callback di EDT, langsung kalau pemanggil sudah di EDT
+    public static final Executor EDT = task -> {
+        if (SwingUtilities.isEventDispatchThread()) {
+            task.run();
+        } else {
+            SwingUtilities.invokeLater(task);
+        }
+    };
+
+    private static final int FALLBACK_POOL_SIZE = 8;
+
+    private final ExecutorService executor;
+
+    private AsyncDatabase() {
+        this.executor = createExecutor();
+    }
+
+    public static AsyncDatabase getInstance() {
+        if (instance == null) {
+            synchronized (AsyncDatabase.class) {
+                if (instance == null) {
+                    instance = new AsyncDatabase();
+                }
+            }
+        }
+        return instance;
+    }
+
+    private static ExecutorService createExecutor() {
+        // virtual thread tersedia mulai Java 21, build tetap kompatibel dengan Java 17
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            AtomicInteger counter = new AtomicInteger();
+            return Executors.newFixedThreadPool(FALLBACK_POOL_SIZE, r -> {
+                Thread t = new Thread(r, "DB-Async-" + counter.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    public <T> CompletableFuture<T> supply(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, executor);
+    }
+
+    public CompletableFuture<Void> run(Runnable task) {
+        return CompletableFuture.runAsync(task, executor);
+    }
+
+    public CompletableFuture<DataStore> store() {
+        return supply(DataStore::getInstance);
+    }
+
+    public CompletableFuture<List<Database.Category>> getAllCategories() {
+        return supply(() -> DataStore.getInstance().getAllCategories());
+    }
+
+    public CompletableFuture<Database.Category> getCategoryById(int categoryId) {
+        return supply(() -> DataStore.getInstance().getCategoryById(categoryId));
+    }
+
+    public CompletableFuture<List<Database.Question>> getRandomQuestions(int categoryId, int limit) {
+        return supply(() -> DataStore.getInstance().getRandomQuestions(categoryId, limit));
+    }
+
+    public CompletableFuture<List<Database.Question>> getRandomQuestions(String categoryName, String difficulty, int limit) {
+        return supply(() -> DataStore.getInstance().getRandomQuestions(categoryName, difficulty, limit));
+    }
+
+    public CompletableFuture<Integer> countQuestions(int categoryId) {
+        return supply(() -> DataStore.getInstance().countQuestions(categoryId));
+    }
+
+    public CompletableFuture<Integer> createPlayer(String username) {
+        return supply(() -> DataStore.getInstance().createPlayer(username));
+    }
+
+    public CompletableFuture<Integer> createSession(String playerName, String categoryName, String difficulty) {
+        return supply(() -> DataStore.getInstance().createSession(playerName, categoryName, difficulty));
+    }
+
+    public CompletableFuture<Boolean> finishSession(int sessionId, int totalScore, int questionsAnswered,
+                                                    int correctAnswers, int wrongAnswers, int timeTaken,
+                                                    int skipUsed, int fiftyFiftyUsed, int speedBonus) {
+        return store().thenCompose(store -> store.finishSession(sessionId, totalScore, questionsAnswered,
+            correctAnswers, wrongAnswers, timeTaken, skipUsed, fiftyFiftyUsed, speedBonus));
+    }
+
+    public CompletableFuture<List<Database.LeaderboardEntry>> getTopLeaderboard(int limit, String categoryName, String difficulty) {
+        return supply(() -> DataStore.getInstance().getTopLeaderboard(limit, categoryName, difficulty));
+    }
+
+    public CompletableFuture<Database.LeaderboardPage> getLeaderboardPage(String categoryName, String difficulty,
+                                                                          Database.LeaderboardCursor after, int pageSize) {
+        return supply(() -> DataStore.getInstance().getLeaderboardPage(categoryName, difficulty, after, pageSize));
+    }
+
+    public CompletableFuture<Boolean> rebuildLeaderboard() {
+        return supply(() -> DataStore.getInstance().rebuildLeaderboard());
+    }
+
+    public static <T> CompletableFuture<T> onEdt(CompletableFuture<T> future, BiConsumer<? super T, ? super Throwable> callback) {
+        return future.whenCompleteAsync((result, error) -> callback.accept(result, unwrap(error)), EDT);
+    }
+
+    public static Throwable unwrap(Throwable error) {
+        while (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,103 @@
+package core;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+// CLOSED  : semua permintaan diteruskan, kegagalan beruntun dihitung
+// OPEN    : permintaan langsung ditolak sampai openMillis lewat
+// HALF_OPEN: satu permintaan percobaan boleh lewat, hasilnya menentukan CLOSED/OPEN lagi
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final List<Runnable> recoveryListeners = new CopyOnWriteArrayList<>();
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures = 0;
+    private long openedAt;
+    private boolean probeInFlight = false;
+
+    public CircuitBreaker(String name, int failureThreshold, long openMillis) {
+        this.name = name;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+    }
+
+    public synchronized boolean allowRequest() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.nanoTime() - openedAt < openNanos) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                probeInFlight = true;
+                return true;
+            default:
+                if (probeInFlight) {
+                    return false;
+                }
+                probeInFlight = true;
+                return true;
+        }
+    }
+
+    public void recordSuccess() {
+        boolean recovered;
+        synchronized (this) {
+            recovered = state != State.CLOSED;
+            state = State.CLOSED;
+            consecutiveFailures = 0;
+            probeInFlight = false;
+        }
+        if (recovered) {
+            System.out.println(name + " tersedia kembali");
+            for (Runnable listener : recoveryListeners) {
+                listener.run();
+            }
+        }
+    }
+
+    public synchronized void recordFailure() {
+        probeInFlight = false;
+        if (state == State.HALF_OPEN) {
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+            return;
+        }
+        consecutiveFailures++;
+        if (state == State.CLOSED && consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+            System.err.println(name + " tidak tersedia setelah " + consecutiveFailures +
+                               " kegagalan, permintaan ditolak selama " +
+                               TimeUnit.NANOSECONDS.toMillis(openNanos) + " ms");
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    // sama dengan allowRequest tapi tanpa mengubah state
+    public synchronized boolean isAvailable() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                return System.nanoTime() - openedAt >= openNanos;
+            default:
+                return !probeInFlight;
+        }
+    }
+
+    // dipanggil di thread yang mencatat keberhasilan pertama setelah OPEN/HALF_OPEN
+    public void onRecovery(Runnable listener) {
+        recoveryListeners.add(listener);
+    }
+}
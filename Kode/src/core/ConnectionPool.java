@@ -0,0 +1,564 @@
+package core;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ConnectionPool {
+
+    private static final long VALIDATION_BYPASS_MILLIS = 500;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int maxSize;
+    private final int minIdle;
+    private final long borrowTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final int statementCacheSize;
+
+    private final LinkedBlockingDeque<PooledConnection> idleConnections = new LinkedBlockingDeque<>();
+    private final Semaphore permits;
+    private final ScheduledExecutorService maintenance;
+    private volatile boolean closed = false;
+
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final AtomicInteger activeConnections = new AtomicInteger();
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong borrowWaitNanos = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong destroyedCount = new AtomicLong();
+    private final AtomicLong validationFailures = new AtomicLong();
+    private final AtomicLong evictedCount = new AtomicLong();
+    private final AtomicLong statementHits = new AtomicLong();
+    private final AtomicLong statementMisses = new AtomicLong();
+    private final AtomicLong statementEvictions = new AtomicLong();
+
+    public ConnectionPool(String url, String user, String password, int maxSize, int minIdle,
+                          long borrowTimeoutMillis, long idleTimeoutMillis, long maintenanceIntervalMillis,
+                          int statementCacheSize) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.minIdle = Math.min(minIdle, maxSize);
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.maintenance = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "DB-Pool-Maintenance");
+            t.setDaemon(true);
+            return t;
+        });
+        maintenance.scheduleWithFixedDelay(this::runMaintenance,
+            maintenanceIntervalMillis, maintenanceIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void warmUp() throws SQLException {
+        while (!closed && totalConnections.get() < minIdle) {
+            idleConnections.offerLast(createConnection());
+        }
+    }
+
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool sudah ditutup");
+        }
+
+        long waitStart = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeoutCount.incrementAndGet();
+                throw new SQLException("Timeout menunggu koneksi database (" + maxSize + " koneksi sedang dipakai)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        borrowWaitNanos.addAndGet(System.nanoTime() - waitStart);
+
+        try {
+            PooledConnection pooled;
+            while ((pooled = idleConnections.pollFirst()) != null) {
+                if (isUsable(pooled)) {
+                    break;
+                }
+                validationFailures.incrementAndGet();
+                destroy(pooled);
+            }
+            if (pooled == null) {
+                pooled = createConnection();
+            }
+            activeConnections.incrementAndGet();
+            borrowCount.incrementAndGet();
+            return pooled.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        if (pooled.broken) {
+            return false;
+        }
+        if (System.currentTimeMillis() - pooled.lastReturnedAt < VALIDATION_BYPASS_MILLIS) {
+            return true;
+        }
+        try {
+            return pooled.physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledConnection createConnection() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, user, password);
+        totalConnections.incrementAndGet();
+        createdCount.incrementAndGet();
+        return new PooledConnection(physical);
+    }
+
+    private void release(PooledConnection pooled) {
+        pooled.reclaimStatements();
+        if (!pooled.broken) {
+            try {
+                if (!pooled.physical.getAutoCommit()) {
+                    pooled.physical.rollback();
+                    pooled.physical.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                pooled.broken = true;
+            }
+        }
+
+        pooled.lastReturnedAt = System.currentTimeMillis();
+        activeConnections.decrementAndGet();
+
+        if (closed || pooled.broken) {
+            destroy(pooled);
+        } else {
+            idleConnections.offerFirst(pooled);
+        }
+        permits.release();
+    }
+
+    private void destroy(PooledConnection pooled) {
+        totalConnections.decrementAndGet();
+        destroyedCount.incrementAndGet();
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            // koneksi sudah mati, tidak perlu ditangani
+        }
+    }
+
+    private void runMaintenance() {
+        if (closed) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        List<PooledConnection> checked = new ArrayList<>();
+        Iterator<PooledConnection> it = idleConnections.descendingIterator();
+        while (it.hasNext()) {
+            PooledConnection pooled = it.next();
+            boolean expired = now - pooled.lastReturnedAt > idleTimeoutMillis
+                && totalConnections.get() > minIdle;
+            if (expired) {
+                if (idleConnections.remove(pooled)) {
+                    evictedCount.incrementAndGet();
+                    destroy(pooled);
+                }
+            } else {
+                checked.add(pooled);
+            }
+        }
+
+        for (PooledConnection pooled : checked) {
+            if (!idleConnections.remove(pooled)) {
+                continue;
+            }
+            boolean healthy;
+            try {
+                healthy = pooled.physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+            } catch (SQLException e) {
+                healthy = false;
+            }
+            if (healthy) {
+                idleConnections.offerLast(pooled);
+            } else {
+                validationFailures.incrementAndGet();
+                destroy(pooled);
+            }
+        }
+
+        try {
+            while (!closed && totalConnections.get() < minIdle && permits.availablePermits() > 0) {
+                idleConnections.offerLast(createConnection());
+            }
+        } catch (SQLException e) {
+            System.err.println("Pool gagal menambah koneksi: " + e.getMessage());
+        }
+    }
+
+    public void close() {
+        closed = true;
+        maintenance.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idleConnections.pollFirst()) != null) {
+            destroy(pooled);
+        }
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public PoolStats getStats() {
+        return new PoolStats(
+            totalConnections.get(),
+            activeConnections.get(),
+            idleConnections.size(),
+            permits.getQueueLength(),
+            maxSize,
+            borrowCount.get(),
+            timeoutCount.get(),
+            createdCount.get(),
+            destroyedCount.get(),
+            evictedCount.get(),
+            validationFailures.get(),
+            borrowWaitNanos.get(),
+            statementHits.get(),
+            statementMisses.get(),
+            statementEvictions.get()
+        );
+    }
+
+    private class PooledConnection {
+        private final Connection physical;
+        private volatile boolean broken = false;
+        private volatile long lastReturnedAt = System.currentTimeMillis();
+        // LRU per koneksi, dikunci lewat PooledConnection ini
+        private final LinkedHashMap<String, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        PreparedStatement prepare(String sql, Integer autoGeneratedKeys, Connection handle) throws SQLException {
+            String key = autoGeneratedKeys == null ? sql : autoGeneratedKeys + "#" + sql;
+            synchronized (this) {
+                CachedStatement cached = statements.get(key);
+                if (cached != null && !cached.inUse) {
+                    statementHits.incrementAndGet();
+                    cached.inUse = true;
+                    return cached.newHandle(handle);
+                }
+            }
+
+            statementMisses.incrementAndGet();
+            PreparedStatement created = autoGeneratedKeys == null
+                ? physical.prepareStatement(sql)
+                : physical.prepareStatement(sql, autoGeneratedKeys);
+
+            synchronized (this) {
+                if (statements.containsKey(key)) {
+                    // statement yang sama sedang dipakai, yang ini tidak di-cache
+                    return created;
+                }
+                CachedStatement cached = new CachedStatement(this, key, created);
+                cached.inUse = true;
+                statements.put(key, cached);
+                evictOverflow();
+                return cached.newHandle(handle);
+            }
+        }
+
+        private void evictOverflow() {
+            Iterator<CachedStatement> it = statements.values().iterator();
+            while (statements.size() > statementCacheSize && it.hasNext()) {
+                CachedStatement eldest = it.next();
+                if (eldest.inUse) {
+                    continue;
+                }
+                it.remove();
+                statementEvictions.incrementAndGet();
+                eldest.closePhysical();
+            }
+        }
+
+        // statement yang lupa ditutup sebelum koneksi dikembalikan tidak boleh dipakai ulang
+        synchronized void reclaimStatements() {
+            Iterator<CachedStatement> it = statements.values().iterator();
+            while (it.hasNext()) {
+                CachedStatement cached = it.next();
+                if (cached.inUse) {
+                    it.remove();
+                    cached.closePhysical();
+                }
+            }
+        }
+
+        synchronized void discard(CachedStatement cached) {
+            statements.remove(cached.key);
+            cached.closePhysical();
+        }
+
+        Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                new Handle(this)
+            );
+        }
+    }
+
+    private class Handle implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean released = false;
+
+        Handle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "close":
+                    if (!released) {
+                        released = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return released || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + "]";
+                default:
+                    break;
+            }
+
+            if (released) {
+                throw new SQLException("Koneksi sudah dikembalikan ke pool");
+            }
+            if (name.equals("prepareStatement") && statementCacheSize > 0) {
+                if (args.length == 1) {
+                    return pooled.prepare((String) args[0], null, (Connection) proxy);
+                }
+                if (args.length == 2 && method.getParameterTypes()[1] == int.class) {
+                    return pooled.prepare((String) args[0], (Integer) args[1], (Connection) proxy);
+                }
+            }
+            try {
+                return method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SQLException && isFatal((SQLException) cause)) {
+                    pooled.broken = true;
+                }
+                throw cause;
+            }
+        }
+
+    }
+
+    private static boolean isFatal(SQLException e) {
+        String state = e.getSQLState();
+        return state != null && (state.startsWith("08") || state.equals("57P01"));
+    }
+
+    private class CachedStatement {
+        private final PooledConnection owner;
+        private final String key;
+        private final PreparedStatement physical;
+        private boolean inUse = false;
+
+        CachedStatement(PooledConnection owner, String key, PreparedStatement physical) {
+            this.owner = owner;
+            this.key = key;
+            this.physical = physical;
+        }
+
+        PreparedStatement newHandle(Connection connection) {
+            return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[] { PreparedStatement.class },
+                new StatementHandle(this, connection)
+            );
+        }
+
+        // close() dari pemanggil: statement dibersihkan lalu dikembalikan ke cache
+        void release() {
+            try {
+                ResultSet open = physical.getResultSet();
+                if (open != null) {
+                    open.close();
+                }
+                physical.clearParameters();
+                physical.clearBatch();
+                synchronized (owner) {
+                    inUse = false;
+                }
+            } catch (SQLException e) {
+                owner.discard(this);
+            }
+        }
+
+        void closePhysical() {
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                // statement ikut mati bersama koneksinya
+            }
+        }
+    }
+
+    private class StatementHandle implements InvocationHandler {
+        private final CachedStatement cached;
+        private final Connection connection;
+        private boolean closed = false;
+
+        StatementHandle(CachedStatement cached, Connection connection) {
+            this.cached = cached;
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        cached.release();
+                    }
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "getConnection":
+                    return connection;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + cached.key + "]";
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("Statement sudah ditutup");
+            }
+            try {
+                return method.invoke(cached.physical, args);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SQLException && isFatal((SQLException) cause)) {
+                    cached.owner.broken = true;
+                }
+                throw cause;
+            }
+        }
+    }
+
+    public static class PoolStats {
+        private final int totalConnections;
+        private final int activeConnections;
+        private final int idleConnections;
+        private final int waitingThreads;
+        private final int maxSize;
+        private final long borrowCount;
+        private final long timeoutCount;
+        private final long createdCount;
+        private final long destroyedCount;
+        private final long evictedCount;
+        private final long validationFailures;
+        private final long totalWaitNanos;
+        private final long statementHits;
+        private final long statementMisses;
+        private final long statementEvictions;
+
+        public PoolStats(int totalConnections, int activeConnections, int idleConnections,
+                         int waitingThreads, int maxSize, long borrowCount, long timeoutCount,
+                         long createdCount, long destroyedCount, long evictedCount,
+                         long validationFailures, long totalWaitNanos, long statementHits,
+                         long statementMisses, long statementEvictions) {
+            this.totalConnections = totalConnections;
+            this.activeConnections = activeConnections;
+            this.idleConnections = idleConnections;
+            this.waitingThreads = waitingThreads;
+            this.maxSize = maxSize;
+            this.borrowCount = borrowCount;
+            this.timeoutCount = timeoutCount;
+            this.createdCount = createdCount;
+            this.destroyedCount = destroyedCount;
+            this.evictedCount = evictedCount;
+            this.validationFailures = validationFailures;
+            this.totalWaitNanos = totalWaitNanos;
+            this.statementHits = statementHits;
+            this.statementMisses = statementMisses;
+            this.statementEvictions = statementEvictions;
+        }
+
+        public int getTotalConnections() { return totalConnections; }
+        public int getActiveConnections() { return activeConnections; }
+        public int getIdleConnections() { return idleConnections; }
+        public int getWaitingThreads() { return waitingThreads; }
+        public int getMaxSize() { return maxSize; }
+        public long getBorrowCount() { return borrowCount; }
+        public long getTimeoutCount() { return timeoutCount; }
+        public long getCreatedCount() { return createdCount; }
+        public long getDestroyedCount() { return destroyedCount; }
+        public long getEvictedCount() { return evictedCount; }
+        public long getValidationFailures() { return validationFailures; }
+        public double getAverageWaitMillis() {
+            return borrowCount == 0 ? 0.0 : (totalWaitNanos / 1_000_000.0) / borrowCount;
+        }
+        public long getStatementHits() { return statementHits; }
+        public long getStatementMisses() { return statementMisses; }
+        public long getStatementEvictions() { return statementEvictions; }
+        public double getStatementHitRatio() {
+            long total = statementHits + statementMisses;
+            return total == 0 ? 0.0 : (double) statementHits / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                "Pool[total=%d, active=%d, idle=%d, waiting=%d, max=%d, borrows=%d, timeouts=%d, " +
+                "created=%d, destroyed=%d, evicted=%d, validationFailures=%d, avgWait=%.2fms, " +
+                "stmtHits=%d, stmtMisses=%d, stmtEvictions=%d]",
+                totalConnections, activeConnections, idleConnections, waitingThreads, maxSize,
+                borrowCount, timeoutCount, createdCount, destroyedCount, evictedCount,
+                validationFailures, getAverageWaitMillis(), statementHits, statementMisses,
+                statementEvictions);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package core;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import util.AppConfig;
+
+public interface DataStore {
+
+    List<Database.Category> getAllCategories();
+
+    Database.Category getCategoryById(int categoryId);
+
+    List<Database.Question> getRandomQuestions(int categoryId, int limit);
+
+    List<Database.Question> getRandomQuestions(String categoryName, String difficulty, int limit);
+
+    int countQuestions(int categoryId);
+
+    int createPlayer(String username);
+
+    int createSession(String playerName, String categoryName, String difficulty);
+
+    // responseMillis < 0 berarti waktu jawab tidak diketahui
+    void queueQuestionAnswer(int sessionId, int questionId, String userAnswer, boolean isCorrect,
+                             long responseMillis);
+
+    CompletableFuture<Void> flushQuestionAnswers();
+
+    CompletableFuture<Boolean> finishSession(int sessionId, int totalScore, int questionsAnswered,
+                                             int correctAnswers, int wrongAnswers, int timeTaken,
+                                             int skipUsed, int fiftyFiftyUsed, int speedBonus);
+
+    List<Database.LeaderboardEntry> getTopLeaderboard(int limit, String categoryName, String difficulty);
+
+    Database.LeaderboardPage getLeaderboardPage(String categoryName, String difficulty,
+                                                Database.LeaderboardCursor after, int pageSize);
+
+    boolean rebuildLeaderboard();
+
+    void closeConnection();
+
+    static DataStore getInstance() {
+        DataStore store = AppConfig.BACKEND_LOCAL.equals(AppConfig.getInstance().getStorageBackend())
+            ? LocalStore.getInstance()
+            : ResilientStore.getInstance();
+        ShutdownHook.register(store);
+        return store;
+    }
+
+    // Satu shutdown hook untuk store terluar, supaya urutan tutup ResilientStore (database
+    // dikuras dulu, baru jurnal) juga berlaku saat aplikasi keluar, bukan hanya di GameSimulator.
+    final class ShutdownHook {
+        private static final AtomicBoolean registered = new AtomicBoolean(false);
+
+        private ShutdownHook() {
+        }
+
+        static void register(DataStore store) {
+            if (registered.compareAndSet(false, true)) {
+                Runtime.getRuntime().addShutdownHook(new Thread(store::closeConnection, "DataStore-Shutdown"));
+            }
+        }
+    }
+}
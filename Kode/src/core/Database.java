@@ -3,27 +3,91 @@ package core;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import util.AppConfig;
+import util.Constants;
 
-public class Database {
+public class Database implements DataStore {
     private static Database instance;
-    private Connection connection;
+    private final ConnectionPool pool;
+    private final ReplicaRouter replica;
+    private final QuestionBank questionBank;
+    private final AnswerWriter answerWriter;
+    private final LeaderboardEngine leaderboardEngine;
+    private final QuestionStats questionStats;
+    private final DbMetrics metrics = DbMetrics.getInstance();
+    private final CircuitBreaker breaker;
+    private final AtomicBoolean initializing = new AtomicBoolean(false);
+    private volatile boolean initialized = false;
+    private volatile boolean normalizedSchema = false;
+    private final ConcurrentHashMap<Integer, SessionInfo> activeSessions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Integer> playerIds = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Integer> categoryIds = new ConcurrentHashMap<>();
+    private final ExecutorService sessionExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "DB-SessionWriter");
+        t.setDaemon(true);
+        return t;
+    });
     
-    private static final String DB_URL = "jdbc:mysql://localhost:3306/rapidq_db";
+    private static final String DB_URL =
+        "jdbc:mysql://localhost:3306/rapidq_db?rewriteBatchedStatements=true&useServerPrepStmts=true&connectTimeout=3000";
     private static final String DB_USER = "anon";
     private static final String DB_PASSWORD = "anon";
     
+    private static final int POOL_MAX_SIZE = 8;
+    private static final int POOL_MIN_IDLE = 2;
+    private static final long POOL_BORROW_TIMEOUT_MS = 5000;
+    private static final long POOL_IDLE_TIMEOUT_MS = 5 * 60 * 1000;
+    private static final long POOL_MAINTENANCE_INTERVAL_MS = 30 * 1000;
+    private static final int STATEMENT_CACHE_SIZE = 32;
+    
+    private static final int ANSWER_QUEUE_CAPACITY = 2000;
+    private static final int ANSWER_BATCH_SIZE = 50;
+    private static final long ANSWER_FLUSH_INTERVAL_MS = 2000;
+    private static final long SESSION_DRAIN_TIMEOUT_SECONDS = 10;
+    
+    private static final int LEADERBOARD_CACHE_SIZE = 100;
+    
+    private static final int BREAKER_FAILURE_THRESHOLD = 3;
+    private static final long BREAKER_OPEN_MS = 15 * 1000;
+    
+    private static final int REPLICA_POOL_MAX_SIZE = 4;
+    private static final long REPLICA_MAX_LAG_SECONDS = 5;
+    private static final long REPLICA_CHECK_INTERVAL_MS = 5000;
+    
     private Database() {
         try {
             Class.forName("com.mysql.cj.jdbc.Driver");
-            this.connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-            System.out.println("Database connected successfully!");
         } catch (ClassNotFoundException e) {
             System.err.println("MySQL JDBC Driver not found! Pastikan library sudah ditambahkan");
             e.printStackTrace();
-        } catch (SQLException e) {
-            System.err.println("Failed to connect to database!");
-            e.printStackTrace();
         }
+        
+        AppConfig config = AppConfig.getInstance();
+        this.pool = new ConnectionPool(config.get("db.url", DB_URL), config.get("db.user", DB_USER),
+            config.get("db.password", DB_PASSWORD),
+            POOL_MAX_SIZE, POOL_MIN_IDLE, POOL_BORROW_TIMEOUT_MS,
+            POOL_IDLE_TIMEOUT_MS, POOL_MAINTENANCE_INTERVAL_MS, STATEMENT_CACHE_SIZE);
+        this.replica = createReplicaRouter(config);
+        this.questionBank = new QuestionBank(this);
+        this.answerWriter = new AnswerWriter(this, ANSWER_QUEUE_CAPACITY, ANSWER_BATCH_SIZE,
+            ANSWER_FLUSH_INTERVAL_MS, Constants.ANSWER_SPILL_PATH, Constants.ANSWER_DEAD_LETTER_PATH);
+        this.leaderboardEngine = new LeaderboardEngine(this, LEADERBOARD_CACHE_SIZE);
+        this.questionStats = new QuestionStats(this);
+        this.breaker = new CircuitBreaker("Database",
+            config.getInt("db.breaker.failures", BREAKER_FAILURE_THRESHOLD),
+            config.getLong("db.breaker.open.ms", BREAKER_OPEN_MS));
+        breaker.onRecovery(this::scheduleInitialize);
+        scheduleInitialize();
+        
+        metrics.startReporter();
     }
     
     public static Database getInstance() {
@@ -37,33 +101,192 @@ public class Database {
         return instance;
     }
     
-    public Connection getConnection() {
+    // Koneksi awal, migrasi dan cache id dijalankan di thread sendiri supaya pemanggil
+    // pertama tidak tertahan connect timeout saat server mati. Diulang saat database pulih.
+    private void scheduleInitialize() {
+        if (initialized || !initializing.compareAndSet(false, true)) {
+            return;
+        }
+        Thread t = new Thread(this::initialize, "DB-Init");
+        t.setDaemon(true);
+        t.start();
+    }
+    
+    private void initialize() {
         try {
-            if (connection == null || connection.isClosed()) {
-                connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+            pool.warmUp();
+            initialized = true;
+            breaker.recordSuccess();
+            System.out.println("Database connected successfully!");
+            migrateSchema();
+            warmIdCaches();
+            questionStats.requestRollup();
+        } catch (SQLException e) {
+            breaker.recordFailure();
+            System.err.println("Failed to connect to database! " + e.getMessage());
+        } finally {
+            initializing.set(false);
+        }
+    }
+    
+    public boolean isAvailable() {
+        return breaker.isAvailable();
+    }
+    
+    // db.replica.url kosong: semua query tetap ke primary
+    private static ReplicaRouter createReplicaRouter(AppConfig config) {
+        String url = config.get("db.replica.url", null);
+        if (url == null || url.isEmpty()) {
+            return null;
+        }
+        ConnectionPool replicaPool = new ConnectionPool(url,
+            config.get("db.replica.user", config.get("db.user", DB_USER)),
+            config.get("db.replica.password", config.get("db.password", DB_PASSWORD)),
+            config.getInt("db.replica.pool.size", REPLICA_POOL_MAX_SIZE), 1, POOL_BORROW_TIMEOUT_MS,
+            POOL_IDLE_TIMEOUT_MS, POOL_MAINTENANCE_INTERVAL_MS, STATEMENT_CACHE_SIZE);
+        CircuitBreaker replicaBreaker = new CircuitBreaker("Database replika",
+            config.getInt("db.breaker.failures", BREAKER_FAILURE_THRESHOLD),
+            config.getLong("db.breaker.open.ms", BREAKER_OPEN_MS));
+        return new ReplicaRouter(replicaPool, replicaBreaker,
+            config.getLong("db.replica.max.lag.seconds", REPLICA_MAX_LAG_SECONDS) * 1000,
+            REPLICA_CHECK_INTERVAL_MS, config.getBoolean("db.replica.allow.standalone", false));
+    }
+    
+    // true kalau migrasi sudah sampai SchemaMigrator.LATEST_VERSION
+    boolean isSchemaCurrent() {
+        return normalizedSchema;
+    }
+    
+    public CircuitBreaker.State getBreakerState() {
+        return breaker.getState();
+    }
+    
+    public void onRecovery(Runnable listener) {
+        breaker.onRecovery(listener);
+    }
+    
+    private void warmIdCaches() {
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery("SELECT category_id, category_name FROM categories")) {
+                while (rs.next()) {
+                    categoryIds.put(rs.getString("category_name"), rs.getInt("category_id"));
+                }
+            }
+            try (ResultSet rs = stmt.executeQuery("SELECT player_id, username FROM players")) {
+                while (rs.next()) {
+                    playerIds.put(rs.getString("username"), rs.getInt("player_id"));
+                }
             }
         } catch (SQLException e) {
             e.printStackTrace();
         }
-        return connection;
+    }
+    
+    private void migrateSchema() {
+        try {
+            normalizedSchema = new SchemaMigrator(this).migrate() >= SchemaMigrator.LATEST_VERSION;
+        } catch (SQLException e) {
+            // query lama (LIKE pada game_mode) tetap dipakai sampai migrasi berhasil
+            System.err.println("Migrasi skema gagal: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+    
+    // waktu tunggu pool dicatat terpisah supaya antrean koneksi terlihat di metrik
+    // circuit breaker terbuka: gagal seketika tanpa menunggu pool atau connect timeout
+    public Connection getConnection() throws SQLException {
+        if (!breaker.allowRequest()) {
+            throw new SQLTransientConnectionException("Database sedang tidak tersedia");
+        }
+        DbMetrics.Sample sample = metrics.start("pool.acquire");
+        try {
+            Connection conn = pool.getConnection();
+            breaker.recordSuccess();
+            if (!initialized) {
+                scheduleInitialize();
+            }
+            return conn;
+        } catch (SQLException e) {
+            sample.fail();
+            breaker.recordFailure();
+            throw e;
+        } finally {
+            sample.stop();
+        }
+    }
+    
+    // Kategori, soal dan leaderboard dibaca dari replika bila ada dan cukup segar,
+    // selain itu (atau bila replika gagal) jatuh ke primary. Tulis selalu lewat getConnection().
+    public Connection getReadConnection() throws SQLException {
+        return readConnection(false);
+    }
+    
+    Connection getLeaderboardConnection() throws SQLException {
+        return readConnection(true);
+    }
+    
+    private Connection readConnection(boolean leaderboard) throws SQLException {
+        if (replica != null) {
+            Connection conn = replica.acquire(leaderboard);
+            if (conn != null) {
+                return conn;
+            }
+        }
+        return getConnection();
+    }
+    
+    private void markLeaderboardWrite() {
+        if (replica != null) {
+            replica.markLeaderboardWrite();
+        }
+    }
+    
+    public ConnectionPool.PoolStats getPoolStats() {
+        return pool.getStats();
+    }
+    
+    // null kalau replika tidak dikonfigurasi
+    public ReplicaRouter getReplicaRouter() {
+        return replica;
+    }
+    
+    public AnswerWriter.Stats getAnswerWriterStats() {
+        return answerWriter.getStats();
+    }
+    
+    public DbMetrics getMetrics() {
+        return metrics;
+    }
+    
+    public QuestionStats getQuestionStats() {
+        return questionStats;
     }
         
     public List<Category> getAllCategories() {
         List<Category> categories = new ArrayList<>();
         String query = "SELECT * FROM categories ORDER BY category_name";
         
-        try (Statement stmt = connection.createStatement();
+        DbMetrics.Sample sample = metrics.start("getAllCategories");
+        try (Connection conn = getReadConnection();
+             Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
             
             while (rs.next()) {
-                categories.add(new Category(
+                Category category = new Category(
                     rs.getInt("category_id"),
                     rs.getString("category_name"),
                     rs.getString("description")
-                ));
+                );
+                categories.add(category);
+                sample.rows(categories.size());
+                categoryIds.put(category.getCategoryName(), category.getCategoryId());
             }
         } catch (SQLException e) {
+            sample.fail();
             e.printStackTrace();
+        } finally {
+            sample.stop();
         }
         
         return categories;
@@ -72,64 +295,64 @@ public class Database {
     public Category getCategoryById(int categoryId) {
         String query = "SELECT * FROM categories WHERE category_id = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        DbMetrics.Sample sample = metrics.start("getCategoryById");
+        try (Connection conn = getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setInt(1, categoryId);
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                return new Category(
-                    rs.getInt("category_id"),
-                    rs.getString("category_name"),
-                    rs.getString("description")
-                );
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    sample.rows(1);
+                    return new Category(
+                        rs.getInt("category_id"),
+                        rs.getString("category_name"),
+                        rs.getString("description")
+                    );
+                }
             }
         } catch (SQLException e) {
+            sample.fail();
             e.printStackTrace();
+        } finally {
+            sample.stop();
         }
         
         return null;
     }
         
     public List<Question> getRandomQuestions(int categoryId, int limit) {
-        List<Question> questions = new ArrayList<>();
-        String query = "SELECT * FROM questions WHERE category_id = ? ORDER BY RAND() LIMIT ?";
-        
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setInt(1, categoryId);
-            stmt.setInt(2, limit);
-            ResultSet rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                questions.add(new Question(
-                    rs.getInt("question_id"),
-                    rs.getInt("category_id"),
-                    rs.getString("question_text"),
-                    rs.getString("option_a"),
-                    rs.getString("option_b"),
-                    rs.getString("option_c"),
-                    rs.getString("option_d"),
-                    rs.getString("correct_answer").charAt(0)
-                ));
-            }
+        DbMetrics.Sample sample = metrics.start("getRandomQuestions.byId");
+        try {
+            List<Question> questions = questionBank.draw(categoryId, limit);
+            sample.rows(questions.size());
+            return questions;
         } catch (SQLException e) {
+            sample.fail();
             e.printStackTrace();
+        } finally {
+            sample.stop();
         }
         
-        return questions;
+        return new ArrayList<>();
     }
     
     public int countQuestions(int categoryId) {
         String query = "SELECT COUNT(*) as total FROM questions WHERE category_id = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        DbMetrics.Sample sample = metrics.start("countQuestions");
+        try (Connection conn = getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setInt(1, categoryId);
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                return rs.getInt("total");
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    sample.rows(1);
+                    return rs.getInt("total");
+                }
             }
         } catch (SQLException e) {
+            sample.fail();
             e.printStackTrace();
+        } finally {
+            sample.stop();
         }
         
         return 0;
@@ -138,20 +361,27 @@ public class Database {
     public int createSession(int playerId, int categoryId, String gameMode) {
         String query = "INSERT INTO quiz_sessions (player_id, category_id, game_mode) VALUES (?, ?, ?)";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+        DbMetrics.Sample sample = metrics.start("createSession.byId");
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
             stmt.setInt(1, playerId);
             stmt.setInt(2, categoryId);
             stmt.setString(3, gameMode);
             
             int affectedRows = stmt.executeUpdate();
+            sample.rows(affectedRows);
             if (affectedRows > 0) {
-                ResultSet rs = stmt.getGeneratedKeys();
-                if (rs.next()) {
-                    return rs.getInt(1);
+                try (ResultSet rs = stmt.getGeneratedKeys()) {
+                    if (rs.next()) {
+                        return rs.getInt(1);
+                    }
                 }
             }
         } catch (SQLException e) {
+            sample.fail();
             e.printStackTrace();
+        } finally {
+            sample.stop();
         }
         
         return -1;
@@ -166,7 +396,9 @@ public class Database {
                       "lifeline_fifty_fifty_used = ?, session_end = NOW() " +
                       "WHERE session_id = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        DbMetrics.Sample sample = metrics.start("updateSession");
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setInt(1, totalScore);
             stmt.setInt(2, questionsAnswered);
             stmt.setInt(3, correctAnswers);
@@ -176,9 +408,14 @@ public class Database {
             stmt.setInt(7, fiftyFiftyUsed);
             stmt.setInt(8, sessionId);
             
-            return stmt.executeUpdate() > 0;
+            int affectedRows = stmt.executeUpdate();
+            sample.rows(affectedRows);
+            return affectedRows > 0;
         } catch (SQLException e) {
+            sample.fail();
             e.printStackTrace();
+        } finally {
+            sample.stop();
         }
         
         return false;
@@ -189,7 +426,9 @@ public class Database {
         String query = "INSERT INTO leaderboard (player_id, session_id, score, questions_answered, accuracy_percentage, speed_bonus) " +
                       "VALUES (?, ?, ?, ?, ?, ?)";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        DbMetrics.Sample sample = metrics.start("addLeaderboard");
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setInt(1, playerId);
             stmt.setInt(2, sessionId);
             stmt.setInt(3, score);
@@ -197,9 +436,15 @@ public class Database {
             stmt.setDouble(5, accuracy);
             stmt.setInt(6, speedBonus);
             
-            return stmt.executeUpdate() > 0;
+            int affectedRows = stmt.executeUpdate();
+            sample.rows(affectedRows);
+            markLeaderboardWrite();
+            return affectedRows > 0;
         } catch (SQLException e) {
+            sample.fail();
             e.printStackTrace();
+        } finally {
+            sample.stop();
         }
         
         return false;
@@ -210,6 +455,53 @@ public class Database {
     }
     
     public List<LeaderboardEntry> getTopLeaderboard(int limit, String categoryName, String difficulty) {
+        if (limit <= leaderboardEngine.getCapacity() && ensureLeaderboardLoaded()) {
+            return leaderboardEngine.top(limit, categoryName, difficulty);
+        }
+        return queryTopLeaderboard(limit, categoryName, difficulty);
+    }
+    
+    private boolean ensureLeaderboardLoaded() {
+        if (!leaderboardEngine.isLoaded()) {
+            rebuildLeaderboard();
+        } else if (leaderboardEngine.isStale()) {
+            syncLeaderboard();
+        }
+        return leaderboardEngine.isLoaded();
+    }
+    
+    public boolean rebuildLeaderboard() {
+        DbMetrics.Sample sample = metrics.start("rebuildLeaderboard");
+        try {
+            leaderboardEngine.rebuild();
+            return true;
+        } catch (SQLException e) {
+            sample.fail();
+            e.printStackTrace();
+        } finally {
+            sample.stop();
+        }
+        return false;
+    }
+    
+    // gagal sync tidak fatal, papan di memori tetap dipakai sampai sync berikutnya
+    private void syncLeaderboard() {
+        DbMetrics.Sample sample = metrics.start("syncLeaderboard");
+        try {
+            sample.rows(leaderboardEngine.sync());
+        } catch (SQLException e) {
+            sample.fail();
+            System.err.println("Gagal menarik skor leaderboard terbaru: " + e.getMessage());
+        } finally {
+            sample.stop();
+        }
+    }
+    
+    private List<LeaderboardEntry> queryTopLeaderboard(int limit, String categoryName, String difficulty) {
+        if (normalizedSchema) {
+            return queryTopLeaderboardIndexed(limit, categoryName, difficulty);
+        }
+        
         List<LeaderboardEntry> leaderboard = new ArrayList<>();
         StringBuilder queryBuilder = new StringBuilder();
         queryBuilder.append("SELECT l.*, p.username FROM leaderboard l ");
@@ -234,7 +526,9 @@ public class Database {
         queryBuilder.append("ORDER BY l.score DESC, l.accuracy_percentage DESC, l.achieved_at ASC ");
         queryBuilder.append("LIMIT ?");
         
-        try (PreparedStatement stmt = connection.prepareStatement(queryBuilder.toString())) {
+        DbMetrics.Sample sample = metrics.start("queryTopLeaderboard");
+        try (Connection conn = getLeaderboardConnection();
+             PreparedStatement stmt = conn.prepareStatement(queryBuilder.toString())) {
             int paramIndex = 1;
             
             if (categoryName != null && !categoryName.equals("Semua Kategori")) {
@@ -245,93 +539,296 @@ public class Database {
             }
             stmt.setInt(paramIndex, limit);
             
-            ResultSet rs = stmt.executeQuery();
+            try (ResultSet rs = stmt.executeQuery()) {
+                int rank = 1;
+                while (rs.next()) {
+                    leaderboard.add(new LeaderboardEntry(
+                        rank++,
+                        rs.getString("username"),
+                        rs.getInt("score"),
+                        rs.getInt("questions_answered"),
+                        rs.getDouble("accuracy_percentage"),
+                        rs.getTimestamp("achieved_at")
+                    ));
+                }
+                sample.rows(leaderboard.size());
+            }
+        } catch (SQLException e) {
+            sample.fail();
+            e.printStackTrace();
+        } finally {
+            sample.stop();
+        }
+        
+        return leaderboard;
+    }
+    
+    // Filter memakai kolom leaderboard.category_id / difficulty sehingga setiap kombinasi
+    // filter dilayani index idx_lb_*_rank tanpa join ke quiz_sessions dan categories.
+    private List<LeaderboardEntry> queryTopLeaderboardIndexed(int limit, String categoryName, String difficulty) {
+        List<LeaderboardEntry> leaderboard = new ArrayList<>();
+        boolean byCategory = categoryName != null && !categoryName.equals("Semua Kategori");
+        boolean byDifficulty = difficulty != null && !difficulty.equals("Semua Level");
+        
+        int categoryId = byCategory ? getCategoryIdByName(categoryName) : -1;
+        String level = byDifficulty ? LeaderboardEngine.normalizeDifficulty(difficulty) : null;
+        if ((byCategory && categoryId == -1) || (byDifficulty && level == null)) {
+            return leaderboard;
+        }
+        
+        StringBuilder queryBuilder = new StringBuilder();
+        queryBuilder.append("SELECT l.score, l.questions_answered, l.accuracy_percentage, l.achieved_at, p.username ");
+        queryBuilder.append("FROM leaderboard l JOIN players p ON l.player_id = p.player_id ");
+        if (byCategory && byDifficulty) {
+            queryBuilder.append("WHERE l.category_id = ? AND l.difficulty = ? ");
+        } else if (byCategory) {
+            queryBuilder.append("WHERE l.category_id = ? ");
+        } else if (byDifficulty) {
+            queryBuilder.append("WHERE l.difficulty = ? ");
+        }
+        queryBuilder.append("ORDER BY l.score DESC, l.accuracy_percentage DESC, l.achieved_at ASC, l.leaderboard_id ASC ");
+        queryBuilder.append("LIMIT ?");
+        
+        DbMetrics.Sample sample = metrics.start("queryTopLeaderboardIndexed");
+        try (Connection conn = getLeaderboardConnection();
+             PreparedStatement stmt = conn.prepareStatement(queryBuilder.toString())) {
+            int paramIndex = 1;
+            if (byCategory) {
+                stmt.setInt(paramIndex++, categoryId);
+            }
+            if (byDifficulty) {
+                stmt.setString(paramIndex++, level);
+            }
+            stmt.setInt(paramIndex, limit);
             
-            int rank = 1;
-            while (rs.next()) {
-                leaderboard.add(new LeaderboardEntry(
-                    rank++,
-                    rs.getString("username"),
-                    rs.getInt("score"),
-                    rs.getInt("questions_answered"),
-                    rs.getDouble("accuracy_percentage"),
-                    rs.getTimestamp("achieved_at")
-                ));
+            try (ResultSet rs = stmt.executeQuery()) {
+                int rank = 1;
+                while (rs.next()) {
+                    leaderboard.add(new LeaderboardEntry(
+                        rank++,
+                        rs.getString("username"),
+                        rs.getInt("score"),
+                        rs.getInt("questions_answered"),
+                        rs.getDouble("accuracy_percentage"),
+                        rs.getTimestamp("achieved_at")
+                    ));
+                }
+                sample.rows(leaderboard.size());
             }
         } catch (SQLException e) {
+            sample.fail();
             e.printStackTrace();
+        } finally {
+            sample.stop();
         }
         
         return leaderboard;
     }
     
+    // Ranking sampai kapasitas LeaderboardEngine dilayani dari memori; setelah itu (atau kalau
+    // papan belum bisa dimuat) lewat keyset SQL yang dimulai tepat setelah cursor.
+    public LeaderboardPage getLeaderboardPage(String categoryName, String difficulty,
+                                              LeaderboardCursor after, int pageSize) {
+        int capacity = leaderboardEngine.getCapacity();
+        if ((after != null && after.getNextRank() > capacity) || !ensureLeaderboardLoaded()) {
+            return queryLeaderboardPage(categoryName, difficulty, after, pageSize);
+        }
+        LeaderboardPage page = leaderboardEngine.page(categoryName, difficulty, after, pageSize);
+        List<LeaderboardEntry> entries = page.getEntries();
+        // papan yang belum penuh berarti semua baris sudah ada di memori
+        if (page.hasMore() || entries.isEmpty() || entries.get(entries.size() - 1).getRank() < capacity) {
+            return page;
+        }
+        LeaderboardCursor boundary = LeaderboardCursor.after(entries.get(entries.size() - 1));
+        if (entries.size() == pageSize) {
+            return new LeaderboardPage(entries, boundary);
+        }
+        // papan berhenti di kapasitas di tengah halaman, sisanya dari database
+        LeaderboardPage rest = queryLeaderboardPage(categoryName, difficulty, boundary, pageSize - entries.size());
+        List<LeaderboardEntry> combined = new ArrayList<>(entries);
+        combined.addAll(rest.getEntries());
+        return new LeaderboardPage(combined, rest.getNext());
+    }
+    
+    // Keyset pagination: halaman berikutnya dimulai tepat setelah cursor, bukan OFFSET,
+    // jadi biaya tiap halaman sama berapapun dalamnya ranking yang dibuka.
+    private LeaderboardPage queryLeaderboardPage(String categoryName, String difficulty,
+                                                 LeaderboardCursor after, int pageSize) {
+        List<LeaderboardEntry> entries = new ArrayList<>();
+        boolean byCategory = categoryName != null && !categoryName.equals("Semua Kategori");
+        boolean byDifficulty = difficulty != null && !difficulty.equals("Semua Level");
+        boolean normalized = normalizedSchema;
+        
+        int categoryId = -1;
+        String level = null;
+        if (normalized) {
+            categoryId = byCategory ? getCategoryIdByName(categoryName) : -1;
+            level = byDifficulty ? LeaderboardEngine.normalizeDifficulty(difficulty) : null;
+            if ((byCategory && categoryId == -1) || (byDifficulty && level == null)) {
+                return new LeaderboardPage(entries, null);
+            }
+        }
+        
+        StringBuilder queryBuilder = new StringBuilder();
+        queryBuilder.append("SELECT l.leaderboard_id, l.score, l.questions_answered, l.accuracy_percentage, ");
+        queryBuilder.append("l.achieved_at, p.username FROM leaderboard l ");
+        queryBuilder.append("JOIN players p ON l.player_id = p.player_id ");
+        
+        List<String> conditions = new ArrayList<>();
+        if (normalized) {
+            if (byCategory) conditions.add("l.category_id = ?");
+            if (byDifficulty) conditions.add("l.difficulty = ?");
+        } else {
+            if (byCategory || byDifficulty) {
+                queryBuilder.append("JOIN quiz_sessions qs ON l.session_id = qs.session_id ");
+            }
+            if (byCategory) {
+                queryBuilder.append("JOIN categories c ON qs.category_id = c.category_id ");
+                conditions.add("c.category_name = ?");
+            }
+            if (byDifficulty) conditions.add("qs.game_mode LIKE ?");
+        }
+        if (after != null) {
+            // score <= ? di depan supaya optimizer memakai range scan pada index ranking
+            conditions.add("l.score <= ? AND (l.score < ? OR (l.score = ? AND (l.accuracy_percentage < ? OR " +
+                           "(l.accuracy_percentage = ? AND (l.achieved_at > ? OR " +
+                           "(l.achieved_at = ? AND l.leaderboard_id > ?))))))");
+        }
+        if (!conditions.isEmpty()) {
+            queryBuilder.append("WHERE ");
+            queryBuilder.append(String.join(" AND ", conditions));
+            queryBuilder.append(" ");
+        }
+        queryBuilder.append("ORDER BY l.score DESC, l.accuracy_percentage DESC, l.achieved_at ASC, l.leaderboard_id ASC ");
+        queryBuilder.append("LIMIT ?");
+        
+        DbMetrics.Sample sample = metrics.start("getLeaderboardPage");
+        try (Connection conn = getLeaderboardConnection();
+             PreparedStatement stmt = conn.prepareStatement(queryBuilder.toString())) {
+            int paramIndex = 1;
+            if (byCategory) {
+                if (normalized) stmt.setInt(paramIndex++, categoryId);
+                else stmt.setString(paramIndex++, categoryName);
+            }
+            if (byDifficulty) {
+                if (normalized) stmt.setString(paramIndex++, level);
+                else stmt.setString(paramIndex++, "%" + difficulty + "%");
+            }
+            if (after != null) {
+                stmt.setInt(paramIndex++, after.getScore());
+                stmt.setInt(paramIndex++, after.getScore());
+                stmt.setInt(paramIndex++, after.getScore());
+                stmt.setDouble(paramIndex++, after.getAccuracy());
+                stmt.setDouble(paramIndex++, after.getAccuracy());
+                stmt.setTimestamp(paramIndex++, after.getAchievedAt());
+                stmt.setTimestamp(paramIndex++, after.getAchievedAt());
+                stmt.setInt(paramIndex++, after.getEntryId());
+            }
+            // satu baris ekstra untuk tahu apakah masih ada halaman berikutnya
+            stmt.setInt(paramIndex, pageSize + 1);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                int rank = after != null ? after.getNextRank() : 1;
+                while (rs.next()) {
+                    entries.add(new LeaderboardEntry(
+                        rank++,
+                        rs.getInt("leaderboard_id"),
+                        rs.getString("username"),
+                        rs.getInt("score"),
+                        rs.getInt("questions_answered"),
+                        rs.getDouble("accuracy_percentage"),
+                        rs.getTimestamp("achieved_at")
+                    ));
+                }
+                sample.rows(entries.size());
+            }
+        } catch (SQLException e) {
+            sample.fail();
+            // bukan halaman kosong: pemanggil menyimpan cursor dan mencoba lagi
+            throw new CompletionException(e);
+        } finally {
+            sample.stop();
+        }
+        
+        return LeaderboardEngine.toPage(entries, pageSize);
+    }
+    
     public int createPlayer(String username) {
         String query = "INSERT INTO players (username) VALUES (?)";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+        DbMetrics.Sample sample = metrics.start("createPlayer");
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
             stmt.setString(1, username);
             
             int affectedRows = stmt.executeUpdate();
+            sample.rows(affectedRows);
             if (affectedRows > 0) {
-                ResultSet rs = stmt.getGeneratedKeys();
-                if (rs.next()) {
-                    return rs.getInt(1);
+                try (ResultSet rs = stmt.getGeneratedKeys()) {
+                    if (rs.next()) {
+                        int playerId = rs.getInt(1);
+                        playerIds.put(username, playerId);
+                        return playerId;
+                    }
                 }
             }
         } catch (SQLException e) {
+            sample.fail();
             e.printStackTrace();
+        } finally {
+            sample.stop();
         }
         
         return -1;
     }
     
-    public void closeConnection() {
-        if (connection != null) {
-            try {
-                connection.close();
-                System.out.println("Database connection closed.");
-            } catch (SQLException e) {
-                e.printStackTrace();
+    public synchronized void closeConnection() {
+        // finishSession yang masih antre harus selesai sebelum pool ditutup, kalau tidak hasil
+        // permainan terakhir hilang (thread DB-SessionWriter daemon)
+        sessionExecutor.shutdown();
+        try {
+            if (!sessionExecutor.awaitTermination(SESSION_DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                System.err.println("Penyimpanan sesi belum selesai setelah " + SESSION_DRAIN_TIMEOUT_SECONDS +
+                                   " detik, database tetap ditutup");
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        answerWriter.close();
+        questionStats.close();
+        if (!pool.isClosed()) {
+            pool.close();
+            System.out.println("Database connection closed.");
         }
+        if (replica != null) {
+            replica.close();
+        }
+        metrics.stopReporter();
     }
     
     public List<Question> getRandomQuestions(String categoryName, String difficulty, int limit) {
-        List<Question> questions = new ArrayList<>();
         String dbDifficulty = convertDifficultyToDb(difficulty);
         
-        String query = "SELECT q.* FROM questions q " +
-                      "JOIN categories c ON q.category_id = c.category_id " +
-                      "WHERE c.category_name = ? AND q.difficulty_level = ? " +
-                      "ORDER BY RAND() LIMIT ?";
-        
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setString(1, categoryName);
-            stmt.setString(2, dbDifficulty);
-            stmt.setInt(3, limit);
-            ResultSet rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                questions.add(new Question(
-                    rs.getInt("question_id"),
-                    rs.getInt("category_id"),
-                    rs.getString("question_text"),
-                    rs.getString("option_a"),
-                    rs.getString("option_b"),
-                    rs.getString("option_c"),
-                    rs.getString("option_d"),
-                    rs.getString("correct_answer"),
-                    rs.getString("difficulty_level")
-                ));
-            }
+        DbMetrics.Sample sample = metrics.start("getRandomQuestions.byName");
+        try {
+            List<Question> questions = questionBank.draw(categoryName, dbDifficulty, limit);
+            sample.rows(questions.size());
+            return questions;
         } catch (SQLException e) {
+            sample.fail();
             e.printStackTrace();
+        } finally {
+            sample.stop();
         }
         
-        return questions;
+        return new ArrayList<>();
     }
     
-    private String convertDifficultyToDb(String difficulty) {
+    public QuestionBank getQuestionBank() {
+        return questionBank;
+    }
+    
+    static String convertDifficultyToDb(String difficulty) {
         if (difficulty == null) return "MEDIUM";
         switch (difficulty.toUpperCase()) {
             case "MUDAH": return "EASY";
@@ -348,52 +845,109 @@ public class Database {
         int categoryId = getCategoryIdByName(categoryName);
         if (categoryId == -1) return -1;
         
-        String query = "INSERT INTO quiz_sessions (player_id, category_id, game_mode) VALUES (?, ?, ?)";
+        boolean normalized = normalizedSchema;
+        String query = normalized
+            ? "INSERT INTO quiz_sessions (player_id, category_id, game_mode, difficulty) VALUES (?, ?, ?, ?)"
+            : "INSERT INTO quiz_sessions (player_id, category_id, game_mode) VALUES (?, ?, ?)";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+        DbMetrics.Sample sample = metrics.start("createSession");
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
             stmt.setInt(1, playerId);
             stmt.setInt(2, categoryId);
             stmt.setString(3, "Speed Quiz 60s - " + difficulty);
+            if (normalized) {
+                stmt.setString(4, LeaderboardEngine.normalizeDifficulty(difficulty));
+            }
             
             int affectedRows = stmt.executeUpdate();
+            sample.rows(affectedRows);
             if (affectedRows > 0) {
-                ResultSet rs = stmt.getGeneratedKeys();
-                if (rs.next()) {
-                    return rs.getInt(1);
+                try (ResultSet rs = stmt.getGeneratedKeys()) {
+                    if (rs.next()) {
+                        int sessionId = rs.getInt(1);
+                        activeSessions.put(sessionId, new SessionInfo(playerName, categoryName, difficulty));
+                        return sessionId;
+                    }
                 }
             }
         } catch (SQLException e) {
+            sample.fail();
             e.printStackTrace();
+        } finally {
+            sample.stop();
         }
         
         return -1;
     }
     
     private int getOrCreatePlayer(String username) {
-        String checkQuery = "SELECT player_id FROM players WHERE username = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(checkQuery)) {
+        Integer cached = playerIds.get(username);
+        if (cached != null) {
+            return cached;
+        }
+        
+        // Upsert: LAST_INSERT_ID(player_id) membuat id baris yang sudah ada ikut
+        // dikembalikan lewat generated keys, jadi tidak perlu SELECT terpisah.
+        String upsertQuery = "INSERT INTO players (username) VALUES (?) " +
+                            "ON DUPLICATE KEY UPDATE player_id = LAST_INSERT_ID(player_id)";
+        DbMetrics.Sample sample = metrics.start("getOrCreatePlayer");
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(upsertQuery, Statement.RETURN_GENERATED_KEYS)) {
             stmt.setString(1, username);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return rs.getInt("player_id");
+            sample.rows(stmt.executeUpdate());
+            int playerId = -1;
+            try (ResultSet rs = stmt.getGeneratedKeys()) {
+                if (rs.next()) {
+                    playerId = rs.getInt(1);
+                }
+            }
+            if (playerId <= 0) {
+                try (Statement idStmt = conn.createStatement();
+                     ResultSet rs = idStmt.executeQuery("SELECT LAST_INSERT_ID()")) {
+                    if (rs.next()) {
+                        playerId = rs.getInt(1);
+                    }
+                }
+            }
+            if (playerId > 0) {
+                playerIds.put(username, playerId);
+                return playerId;
             }
         } catch (SQLException e) {
+            sample.fail();
             e.printStackTrace();
+        } finally {
+            sample.stop();
         }
         
-        return createPlayer(username);
+        return -1;
     }
     
     private int getCategoryIdByName(String categoryName) {
+        Integer cached = categoryIds.get(categoryName);
+        if (cached != null) {
+            return cached;
+        }
+        
         String query = "SELECT category_id FROM categories WHERE category_name = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        DbMetrics.Sample sample = metrics.start("getCategoryIdByName");
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setString(1, categoryName);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return rs.getInt("category_id");
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    sample.rows(1);
+                    int categoryId = rs.getInt("category_id");
+                    categoryIds.put(categoryName, categoryId);
+                    return categoryId;
+                }
             }
         } catch (SQLException e) {
+            sample.fail();
             e.printStackTrace();
+        } finally {
+            sample.stop();
         }
         return -1;
     }
@@ -404,16 +958,23 @@ public class Database {
                       "total_questions_answered = ?, session_end = NOW() " +
                       "WHERE session_id = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        DbMetrics.Sample sample = metrics.start("updateSessionScore");
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setInt(1, score);
             stmt.setInt(2, correctAnswers);
             stmt.setInt(3, incorrectAnswers);
             stmt.setInt(4, correctAnswers + incorrectAnswers);
             stmt.setInt(5, sessionId);
             
-            return stmt.executeUpdate() > 0;
+            int affectedRows = stmt.executeUpdate();
+            sample.rows(affectedRows);
+            return affectedRows > 0;
         } catch (SQLException e) {
+            sample.fail();
             e.printStackTrace();
+        } finally {
+            sample.stop();
         }
         
         return false;
@@ -423,24 +984,262 @@ public class Database {
         String query = "INSERT INTO question_answers (session_id, question_id, user_answer, is_correct) " +
                       "VALUES (?, ?, ?, ?)";
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        DbMetrics.Sample sample = metrics.start("saveQuestionAnswer");
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setInt(1, sessionId);
             stmt.setInt(2, questionId);
             stmt.setString(3, userAnswer);
             stmt.setBoolean(4, isCorrect);
-            stmt.executeUpdate();
+            sample.rows(stmt.executeUpdate());
         } catch (SQLException e) {
+            sample.fail();
             e.printStackTrace();
+        } finally {
+            sample.stop();
         }
     }
     
+    public void queueQuestionAnswer(int sessionId, int questionId, String userAnswer, boolean isCorrect,
+                                    long responseMillis) {
+        answerWriter.submit(sessionId, questionId, userAnswer, isCorrect, responseMillis);
+    }
+    
+    public CompletableFuture<Void> flushQuestionAnswers() {
+        return answerWriter.flush();
+    }
+    
     public boolean addLeaderboard(String playerName, int sessionId, int score, int questionsAnswered, double accuracy, int speedBonus) {
         int playerId = getOrCreatePlayer(playerName);
         if (playerId == -1) return false;
         if (sessionId <= 0) return false;
         return addLeaderboard(playerId, sessionId, score, questionsAnswered, accuracy, speedBonus);
     }
+    
+    public CompletableFuture<Boolean> finishSession(int sessionId, int totalScore, int questionsAnswered,
+                                                    int correctAnswers, int wrongAnswers, int timeTaken,
+                                                    int skipUsed, int fiftyFiftyUsed, int speedBonus) {
+        if (sessionId <= 0) {
+            return CompletableFuture.completedFuture(false);
+        }
+        
+        double accuracy = questionsAnswered > 0 ? (correctAnswers * 100.0 / questionsAnswered) : 0;
+        
+        // Semua nilai berupa angka, jadi aman memakai Statement biasa. UPDATE sesi dijalankan
+        // dulu; leaderboard dan agregat pemain hanya ditulis kalau sesi benar-benar baru
+        // ditutup (session_end masih NULL), lalu keduanya dikirim sebagai satu batch.
+        String[] statements = finishStatements(sessionId, totalScore, questionsAnswered, correctAnswers,
+            wrongAnswers, timeTaken, skipUsed, fiftyFiftyUsed, speedBonus, accuracy, "NOW()");
+        
+        return CompletableFuture.supplyAsync(() -> {
+            DbMetrics.Sample sample = metrics.start("finishSession");
+            try (Connection conn = getConnection()) {
+                conn.setAutoCommit(false);
+                try (Statement stmt = conn.createStatement()) {
+                    if (stmt.executeUpdate(statements[0]) == 0) {
+                        conn.rollback();
+                        activeSessions.remove(sessionId);
+                        return false;
+                    }
+                    stmt.addBatch(statements[1]);
+                    stmt.addBatch(statements[2]);
+                    int[] results = stmt.executeBatch();
+                    conn.commit();
+                    sample.rows(results.length + 1);
+                    markLeaderboardWrite();
+                    
+                    SessionInfo info = activeSessions.remove(sessionId);
+                    if (info != null) {
+                        leaderboardEngine.record(LeaderboardEngine.PENDING_ID, sessionId, info.playerName, info.categoryName, info.difficulty,
+                            totalScore, questionsAnswered, accuracy, System.currentTimeMillis());
+                    }
+                    return true;
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                }
+            } catch (SQLException e) {
+                sample.fail();
+                e.printStackTrace();
+                throw new CompletionException(e);
+            } finally {
+                sample.stop();
+            }
+        }, sessionExecutor);
+    }
+        
+    private String[] finishStatements(int sessionId, int totalScore, int questionsAnswered,
+                                      int correctAnswers, int wrongAnswers, int timeTaken,
+                                      int skipUsed, int fiftyFiftyUsed, int speedBonus,
+                                      double accuracy, String endedAt) {
+        String updateSession = String.format(Locale.ROOT,
+            "UPDATE quiz_sessions SET total_score = %d, total_questions_answered = %d, " +
+            "correct_answers = %d, wrong_answers = %d, time_taken_seconds = %d, " +
+            "lifeline_skip_used = %d, lifeline_fifty_fifty_used = %d, session_end = %s " +
+            "WHERE session_id = %d AND session_end IS NULL",
+            totalScore, questionsAnswered, correctAnswers, wrongAnswers, timeTaken,
+            skipUsed, fiftyFiftyUsed, endedAt, sessionId);
+        String insertLeaderboard = normalizedSchema
+            ? String.format(Locale.ROOT,
+                "INSERT INTO leaderboard (player_id, session_id, category_id, difficulty, score, questions_answered, " +
+                "accuracy_percentage, speed_bonus, achieved_at) " +
+                "SELECT player_id, session_id, category_id, difficulty, %d, %d, %.2f, %d, %s FROM quiz_sessions WHERE session_id = %d",
+                totalScore, questionsAnswered, accuracy, speedBonus, endedAt, sessionId)
+            : String.format(Locale.ROOT,
+                "INSERT INTO leaderboard (player_id, session_id, score, questions_answered, accuracy_percentage, speed_bonus, achieved_at) " +
+                "SELECT player_id, session_id, %d, %d, %.2f, %d, %s FROM quiz_sessions WHERE session_id = %d",
+                totalScore, questionsAnswered, accuracy, speedBonus, endedAt, sessionId);
+        String updatePlayer = String.format(Locale.ROOT,
+            "UPDATE players p JOIN quiz_sessions qs ON p.player_id = qs.player_id SET " +
+            "p.total_games_played = COALESCE(p.total_games_played, 0) + 1, " +
+            "p.highest_score = GREATEST(COALESCE(p.highest_score, 0), %d), p.last_played = %s " +
+            "WHERE qs.session_id = %d",
+            totalScore, endedAt, sessionId);
+        return new String[] { updateSession, insertLeaderboard, updatePlayer };
+    }
+    
+    // Memutar ulang sesi dari jurnal offline dalam satu transaksi. Sesi offline dikenali
+    // lewat client_token yang unik, sesi online lewat session_end yang masih NULL, jadi
+    // replay yang terulang (crash sebelum jurnal ditandai) tidak menulis data ganda.
+    // Return false kalau sesi tidak bisa diputar ulang sama sekali dan sebaiknya dibuang.
+    boolean replayOfflineSession(OfflineJournal.PendingSession session) throws SQLException {
+        if (!normalizedSchema) {
+            throw new SQLException("Skema database belum versi " + SchemaMigrator.LATEST_VERSION + ", replay ditunda");
+        }
         
+        int sessionId = session.sessionId;
+        SessionInfo info = null;
+        if (!session.isOnline()) {
+            int playerId = getOrCreatePlayer(session.playerName);
+            if (playerId == -1) {
+                throw new SQLException("Pemain " + session.playerName + " belum bisa disimpan");
+            }
+            int categoryId = getCategoryIdByName(session.categoryName);
+            if (categoryId == -1) {
+                System.err.println("Kategori " + session.categoryName + " tidak ditemukan, sesi offline " +
+                                   session.clientToken + " dibuang");
+                return false;
+            }
+            info = new SessionInfo(session.playerName, session.categoryName, session.difficulty);
+            sessionId = -1;
+            
+            try (Connection conn = getConnection()) {
+                conn.setAutoCommit(false);
+                try {
+                    try (PreparedStatement stmt = conn.prepareStatement(
+                            "INSERT INTO quiz_sessions (player_id, category_id, game_mode, difficulty, client_token, session_start) " +
+                            "VALUES (?, ?, ?, ?, ?, ?)", Statement.RETURN_GENERATED_KEYS)) {
+                        stmt.setInt(1, playerId);
+                        stmt.setInt(2, categoryId);
+                        stmt.setString(3, "Speed Quiz 60s - " + session.difficulty);
+                        stmt.setString(4, LeaderboardEngine.normalizeDifficulty(session.difficulty));
+                        stmt.setString(5, session.clientToken);
+                        stmt.setTimestamp(6, new Timestamp(session.startedAt));
+                        stmt.executeUpdate();
+                        try (ResultSet rs = stmt.getGeneratedKeys()) {
+                            if (rs.next()) {
+                                sessionId = rs.getInt(1);
+                            }
+                        }
+                    } catch (SQLIntegrityConstraintViolationException e) {
+                        // client_token sudah ada: sesi ini pernah diputar ulang
+                        conn.rollback();
+                        return true;
+                    }
+                    
+                    if (!session.answers.isEmpty()) {
+                        try (PreparedStatement stmt = conn.prepareStatement(
+                                "INSERT INTO question_answers (session_id, question_id, user_answer, is_correct, response_time_ms) " +
+                                "VALUES (?, ?, ?, ?, ?)")) {
+                            for (OfflineJournal.PendingAnswer answer : session.answers) {
+                                stmt.setInt(1, sessionId);
+                                stmt.setInt(2, answer.questionId);
+                                stmt.setString(3, answer.userAnswer);
+                                stmt.setBoolean(4, answer.isCorrect);
+                                if (answer.responseMillis >= 0) {
+                                    stmt.setInt(5, answer.responseMillis);
+                                } else {
+                                    stmt.setNull(5, Types.INTEGER);
+                                }
+                                stmt.addBatch();
+                            }
+                            stmt.executeBatch();
+                        }
+                    }
+                    
+                    if (session.finished) {
+                        executeFinish(conn, sessionId, session);
+                    }
+                    conn.commit();
+                    if (!session.answers.isEmpty()) {
+                        questionStats.requestRollup();
+                    }
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            }
+        } else {
+            info = activeSessions.remove(sessionId);
+            try (Connection conn = getConnection()) {
+                conn.setAutoCommit(false);
+                try {
+                    if (!executeFinish(conn, sessionId, session)) {
+                        conn.rollback();
+                        return true;
+                    }
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            }
+        }
+        
+        if (session.finished && info != null) {
+            double accuracy = session.questionsAnswered > 0
+                ? (session.correctAnswers * 100.0 / session.questionsAnswered) : 0;
+            leaderboardEngine.record(LeaderboardEngine.PENDING_ID, sessionId, info.playerName, info.categoryName, info.difficulty,
+                session.totalScore, session.questionsAnswered, accuracy, session.finishedAt);
+        }
+        return true;
+    }
+    
+    // false kalau sesi sudah pernah diselesaikan (session_end terisi)
+    private boolean executeFinish(Connection conn, int sessionId, OfflineJournal.PendingSession session) throws SQLException {
+        double accuracy = session.questionsAnswered > 0
+            ? (session.correctAnswers * 100.0 / session.questionsAnswered) : 0;
+        String[] statements = finishStatements(sessionId, session.totalScore, session.questionsAnswered,
+            session.correctAnswers, session.wrongAnswers, session.timeTaken, session.skipUsed,
+            session.fiftyFiftyUsed, session.speedBonus, accuracy,
+            "FROM_UNIXTIME(" + (session.finishedAt / 1000) + ")");
+        try (Statement stmt = conn.createStatement()) {
+            if (stmt.executeUpdate(statements[0]) == 0) {
+                return false;
+            }
+            stmt.executeUpdate(statements[1]);
+            stmt.executeUpdate(statements[2]);
+        }
+        markLeaderboardWrite();
+        return true;
+    }
+    
+    private static class SessionInfo {
+        private final String playerName;
+        private final String categoryName;
+        private final String difficulty;
+        
+        SessionInfo(String playerName, String categoryName, String difficulty) {
+            this.playerName = playerName;
+            this.categoryName = categoryName;
+            this.difficulty = difficulty;
+        }
+    }
+    
     public static class Category {
         private int categoryId;
         private String categoryName;
@@ -571,6 +1370,7 @@ public class Database {
     
     public static class LeaderboardEntry {
         private int rank;
+        private int entryId;
         private String username;
         private int score;
         private int questionsAnswered;
@@ -580,7 +1380,14 @@ public class Database {
         public LeaderboardEntry(int rank, String username, int score, 
                                int questionsAnswered, double accuracyPercentage, 
                                Timestamp achievedAt) {
+            this(rank, 0, username, score, questionsAnswered, accuracyPercentage, achievedAt);
+        }
+        
+        public LeaderboardEntry(int rank, int entryId, String username, int score,
+                               int questionsAnswered, double accuracyPercentage,
+                               Timestamp achievedAt) {
             this.rank = rank;
+            this.entryId = entryId;
             this.username = username;
             this.score = score;
             this.questionsAnswered = questionsAnswered;
@@ -589,10 +1396,53 @@ public class Database {
         }
         
         public int getRank() { return rank; }
+        public int getEntryId() { return entryId; }
         public String getUsername() { return username; }
         public int getScore() { return score; }
         public int getQuestionsAnswered() { return questionsAnswered; }
         public double getAccuracyPercentage() { return accuracyPercentage; }
         public Timestamp getAchievedAt() { return achievedAt; }
     }
+    
+    // Posisi terakhir halaman leaderboard: (score, accuracy, achieved_at, id) mengikuti urutan ranking
+    public static class LeaderboardCursor {
+        private final int score;
+        private final double accuracy;
+        private final Timestamp achievedAt;
+        private final int entryId;
+        private final int nextRank;
+        
+        public LeaderboardCursor(int score, double accuracy, Timestamp achievedAt, int entryId, int nextRank) {
+            this.score = score;
+            this.accuracy = accuracy;
+            this.achievedAt = achievedAt != null ? achievedAt : new Timestamp(0);
+            this.entryId = entryId;
+            this.nextRank = nextRank;
+        }
+        
+        public static LeaderboardCursor after(LeaderboardEntry entry) {
+            return new LeaderboardCursor(entry.getScore(), entry.getAccuracyPercentage(),
+                entry.getAchievedAt(), entry.getEntryId(), entry.getRank() + 1);
+        }
+        
+        public int getScore() { return score; }
+        public double getAccuracy() { return accuracy; }
+        public Timestamp getAchievedAt() { return achievedAt; }
+        public int getEntryId() { return entryId; }
+        public int getNextRank() { return nextRank; }
+    }
+    
+    public static class LeaderboardPage {
+        private final List<LeaderboardEntry> entries;
+        private final LeaderboardCursor next;
+        
+        public LeaderboardPage(List<LeaderboardEntry> entries, LeaderboardCursor next) {
+            this.entries = entries;
+            this.next = next;
+        }
+        
+        public List<LeaderboardEntry> getEntries() { return entries; }
+        public LeaderboardCursor getNext() { return next; }
+        public boolean hasMore() { return next != null; }
+    }
 }
@@ -0,0 +1,342 @@
+package core;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import util.AppConfig;
+import util.Constants;
+
+// Metrik latensi per operasi database. Pencatatan hanya memakai LongAdder dan
+// histogram bucket logaritmik (AtomicLongArray), tanpa lock dan tanpa alokasi besar,
+// jadi aman dibiarkan menyala saat produksi.
+//   - JMX  : rapidq:type=Database,name=<operasi>
+//   - dump : ringkasan berkala ke metrics.dump.path setiap metrics.dump.interval.seconds
+public class DbMetrics {
+
+    public static final String METRICS_ENABLED = "metrics.enabled";
+    public static final String DUMP_INTERVAL = "metrics.dump.interval.seconds";
+    public static final String DUMP_PATH = "metrics.dump.path";
+
+    private static final long DEFAULT_DUMP_INTERVAL_SECONDS = 60;
+    private static final String JMX_DOMAIN = "rapidq";
+
+    private static DbMetrics instance;
+
+    private final boolean enabled;
+    private final ConcurrentHashMap<String, Operation> operations = new ConcurrentHashMap<>();
+    private final Map<String, Long> lastDumpCounts = new HashMap<>();
+    private long lastDumpNanos = System.nanoTime();
+    private ScheduledExecutorService reporter;
+
+    private DbMetrics(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public static synchronized DbMetrics getInstance() {
+        if (instance == null) {
+            instance = new DbMetrics(AppConfig.getInstance().getBoolean(METRICS_ENABLED, true));
+        }
+        return instance;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Sample start(String operation) {
+        if (!enabled) {
+            return Sample.DISABLED;
+        }
+        return new Sample(operation(operation), System.nanoTime());
+    }
+
+    public Operation operation(String name) {
+        Operation operation = operations.get(name);
+        if (operation != null) {
+            return operation;
+        }
+        return operations.computeIfAbsent(name, n -> {
+            Operation created = new Operation(n);
+            register(created);
+            return created;
+        });
+    }
+
+    private void register(Operation operation) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(JMX_DOMAIN + ":type=Database,name=" + ObjectName.quote(operation.name));
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(new StandardMBean(operation, OperationMBean.class), objectName);
+            }
+        } catch (JMException | RuntimeException e) {
+            // metrik tetap dicatat walaupun JMX tidak tersedia
+            System.err.println("Metrik " + operation.name + " tidak bisa didaftarkan ke JMX: " + e.getMessage());
+        }
+    }
+
+    public synchronized void startReporter() {
+        AppConfig config = AppConfig.getInstance();
+        long intervalSeconds = config.getLong(DUMP_INTERVAL, DEFAULT_DUMP_INTERVAL_SECONDS);
+        if (!enabled || intervalSeconds <= 0 || reporter != null) {
+            return;
+        }
+        File file = new File(config.get(DUMP_PATH, Constants.DB_METRICS_PATH));
+        reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "DB-Metrics");
+            t.setDaemon(true);
+            return t;
+        });
+        reporter.scheduleAtFixedRate(() -> dump(file), intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    public synchronized void stopReporter() {
+        if (reporter == null) {
+            return;
+        }
+        reporter.shutdownNow();
+        reporter = null;
+        dump(new File(AppConfig.getInstance().get(DUMP_PATH, Constants.DB_METRICS_PATH)));
+    }
+
+    private synchronized void dump(File file) {
+        if (operations.isEmpty()) {
+            return;
+        }
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        try (PrintWriter out = new PrintWriter(new FileWriter(file, true))) {
+            out.print(report());
+        } catch (IOException e) {
+            System.err.println("Gagal menulis metrik database ke " + file.getPath() + ": " + e.getMessage());
+        }
+    }
+
+    // throughput di laporan dihitung dari selisih jumlah panggilan sejak laporan sebelumnya
+    public synchronized String report() {
+        long now = System.nanoTime();
+        double intervalSeconds = Math.max(1e-3, (now - lastDumpNanos) / 1e9);
+        lastDumpNanos = now;
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "== %s (interval %.0fs) ==%n",
+            new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date()), intervalSeconds));
+        sb.append(String.format(Locale.ROOT, "%-32s %10s %9s %8s %10s %10s %10s %10s%n",
+            "operation", "calls", "calls/s", "errors", "rows", "p50(ms)", "p99(ms)", "max(ms)"));
+        for (Operation op : new TreeMap<>(operations).values()) {
+            long count = op.getCount();
+            long previous = lastDumpCounts.getOrDefault(op.name, 0L);
+            lastDumpCounts.put(op.name, count);
+            sb.append(String.format(Locale.ROOT, "%-32s %10d %9.2f %8d %10d %10.3f %10.3f %10.3f%n",
+                op.name, count, (count - previous) / intervalSeconds, op.getErrors(), op.getRows(),
+                op.getP50Millis(), op.getP99Millis(), op.getMaxMillis()));
+        }
+        return sb.toString();
+    }
+
+    public List<Operation> getOperations() {
+        return new ArrayList<>(new TreeMap<>(operations).values());
+    }
+
+    public void reset() {
+        for (Operation operation : operations.values()) {
+            operation.reset();
+        }
+    }
+
+    public static final class Sample {
+        static final Sample DISABLED = new Sample(null, 0);
+
+        private final Operation operation;
+        private final long startNanos;
+        private long rows;
+        private boolean failed;
+
+        private Sample(Operation operation, long startNanos) {
+            this.operation = operation;
+            this.startNanos = startNanos;
+        }
+
+        public void rows(long count) {
+            rows = count;
+        }
+
+        public void fail() {
+            failed = true;
+        }
+
+        public void stop() {
+            if (operation != null) {
+                operation.record(System.nanoTime() - startNanos, rows, failed);
+            }
+        }
+    }
+
+    public interface OperationMBean {
+        long getCount();
+        long getErrors();
+        long getRows();
+        double getCallsPerSecond();
+        double getMeanMillis();
+        double getP50Millis();
+        double getP99Millis();
+        double getMaxMillis();
+        void reset();
+    }
+
+    public static class Operation implements OperationMBean {
+        private final String name;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+        private final Histogram histogram = new Histogram();
+        private volatile long resetAt = System.nanoTime();
+
+        Operation(String name) {
+            this.name = name;
+        }
+
+        void record(long nanos, long rowCount, boolean failed) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            histogram.record(nanos);
+            if (rowCount > 0) {
+                rows.add(rowCount);
+            }
+            if (failed) {
+                errors.increment();
+            }
+        }
+
+        public String getName() { return name; }
+        @Override public long getCount() { return count.sum(); }
+        @Override public long getErrors() { return errors.sum(); }
+        @Override public long getRows() { return rows.sum(); }
+
+        @Override
+        public double getCallsPerSecond() {
+            double seconds = (System.nanoTime() - resetAt) / 1e9;
+            return seconds > 0 ? getCount() / seconds : 0;
+        }
+
+        @Override
+        public double getMeanMillis() {
+            long calls = getCount();
+            return calls > 0 ? totalNanos.sum() / 1e6 / calls : 0;
+        }
+
+        @Override public double getP50Millis() { return percentileMillis(0.50); }
+        @Override public double getP99Millis() { return percentileMillis(0.99); }
+        @Override public double getMaxMillis() { return maxNanos.get() / 1e6; }
+
+        private double percentileMillis(double quantile) {
+            // batas atas bucket, tidak pernah melebihi max yang benar-benar terukur
+            return Math.min(histogram.percentileMicros(quantile) / 1e3, getMaxMillis());
+        }
+
+        @Override
+        public void reset() {
+            count.reset();
+            errors.reset();
+            rows.reset();
+            totalNanos.reset();
+            maxNanos.reset();
+            histogram.reset();
+            resetAt = System.nanoTime();
+        }
+    }
+
+    // Bucket logaritmik dalam mikrodetik: 0-15 us linear, sesudahnya 8 sub-bucket per
+    // pangkat dua (galat relatif <= 12.5%), sampai sekitar 19 jam.
+    static class Histogram {
+        private static final int LINEAR = 16;
+        private static final int SUB_BUCKETS = 8;
+        private static final int MAX_EXPONENT = 36;
+        // bucket terakhir menampung semua nilai di atas batas
+        private static final int BUCKETS = LINEAR + (MAX_EXPONENT - 4) * SUB_BUCKETS + 1;
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+        void record(long nanos) {
+            counts.incrementAndGet(index(Math.max(0, nanos / 1000)));
+        }
+
+        static int index(long micros) {
+            if (micros < LINEAR) {
+                return (int) micros;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(micros);
+            if (exponent >= MAX_EXPONENT) {
+                return BUCKETS - 1;
+            }
+            int sub = (int) (micros >>> (exponent - 3)) & (SUB_BUCKETS - 1);
+            return LINEAR + (exponent - 4) * SUB_BUCKETS + sub;
+        }
+
+        static long upperBound(int index) {
+            if (index < LINEAR) {
+                return index;
+            }
+            if (index >= BUCKETS - 1) {
+                return Long.MAX_VALUE;
+            }
+            int exponent = (index - LINEAR) / SUB_BUCKETS + 4;
+            int sub = (index - LINEAR) % SUB_BUCKETS;
+            long lower = (long) (SUB_BUCKETS + sub) << (exponent - 3);
+            return lower + (1L << (exponent - 3)) - 1;
+        }
+
+        long percentileMicros(double quantile) {
+            long[] snapshot = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                snapshot[i] = counts.get(i);
+                total += snapshot[i];
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long target = Math.max(1, (long) Math.ceil(total * quantile));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += snapshot[i];
+                if (seen >= target) {
+                    return upperBound(i);
+                }
+            }
+            return upperBound(BUCKETS - 1);
+        }
+
+        void reset() {
+            for (int i = 0; i < BUCKETS; i++) {
+                counts.set(i, 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,363 @@
+package core;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import util.AppConfig;
+import util.Constants;
+
+// Kalibrasi difficulty_level soal dari riwayat jawaban.
+//   - p-value      : proporsi jawaban benar (skip dihitung salah)
+//   - diskriminasi : korelasi point-biserial antara benar/salah di soal ini dengan akurasi
+//                    pemain di sisa soal pada sesi yang sama (rest score)
+// Setiap kategori di-stream sendiri (baris demi baris, fetch size Integer.MIN_VALUE) di
+// ForkJoinPool, dan yang disimpan hanya akumulator per soal, jadi memori tidak tergantung
+// jumlah baris question_answers.
+public class DifficultyCalibrator {
+
+    public static final String EASY_THRESHOLD = "calibration.easy.threshold";
+    public static final String HARD_THRESHOLD = "calibration.hard.threshold";
+    public static final String MIN_RESPONSES = "calibration.min.responses";
+    public static final String PARALLELISM = "calibration.parallelism";
+
+    private static final double DEFAULT_EASY_THRESHOLD = 0.75;
+    private static final double DEFAULT_HARD_THRESHOLD = 0.40;
+    private static final int DEFAULT_MIN_RESPONSES = 30;
+    // pool koneksi hanya 8, sisakan untuk kuis yang sedang berjalan
+    private static final int DEFAULT_PARALLELISM = 4;
+    private static final int UPDATE_BATCH_SIZE = 200;
+
+    private static final String STREAM_QUERY =
+        "SELECT qa.question_id, q.difficulty_level, qa.is_correct, " +
+        "qs.correct_answers, qs.total_questions_answered " +
+        "FROM question_answers qa " +
+        "JOIN questions q ON q.question_id = qa.question_id " +
+        "JOIN quiz_sessions qs ON qs.session_id = qa.session_id " +
+        "WHERE q.category_id = ?";
+
+    private final Database database;
+    private final double easyThreshold;
+    private final double hardThreshold;
+    private final int minResponses;
+    private final int parallelism;
+
+    public DifficultyCalibrator(Database database) {
+        AppConfig config = AppConfig.getInstance();
+        this.database = database;
+        this.easyThreshold = config.getDouble(EASY_THRESHOLD, DEFAULT_EASY_THRESHOLD);
+        this.hardThreshold = config.getDouble(HARD_THRESHOLD, DEFAULT_HARD_THRESHOLD);
+        this.minResponses = config.getInt(MIN_RESPONSES, DEFAULT_MIN_RESPONSES);
+        this.parallelism = Math.max(1, Math.min(config.getInt(PARALLELISM, DEFAULT_PARALLELISM),
+            Runtime.getRuntime().availableProcessors()));
+    }
+
+    public List<ItemStat> calibrate() throws SQLException {
+        List<Integer> categoryIds = new ArrayList<>();
+        try (Connection conn = database.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT category_id FROM categories ORDER BY category_id")) {
+            while (rs.next()) {
+                categoryIds.add(rs.getInt(1));
+            }
+        }
+
+        List<CategoryTask> tasks = new ArrayList<>();
+        for (int categoryId : categoryIds) {
+            tasks.add(new CategoryTask(categoryId));
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            // kategori pertama yang gagal membatalkan yang belum berjalan
+            pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+        } catch (CompletionException e) {
+            throw unwrap(e);
+        } finally {
+            pool.shutdown();
+        }
+
+        List<ItemStat> items = new ArrayList<>();
+        for (CategoryTask task : tasks) {
+            items.addAll(task.getRawResult());
+        }
+        return items;
+    }
+
+    // ForkJoinTask bisa membungkus ulang exception saat dilempar ke thread lain
+    private static SQLException unwrap(CompletionException e) {
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException) {
+                return (SQLException) cause;
+            }
+        }
+        return new SQLException("Kalibrasi gagal", e);
+    }
+
+    private class CategoryTask extends RecursiveTask<List<ItemStat>> {
+        private static final long serialVersionUID = 1L;
+
+        private final int categoryId;
+
+        CategoryTask(int categoryId) {
+            this.categoryId = categoryId;
+        }
+
+        @Override
+        protected List<ItemStat> compute() {
+            DbMetrics.Sample sample = DbMetrics.getInstance().start("calibrateCategory");
+            Map<Integer, ItemStat> items = new HashMap<>();
+            long rows = 0;
+            // prepareStatement dengan tipe result set tidak lewat cache statement pool
+            try (Connection conn = database.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(STREAM_QUERY,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                stmt.setFetchSize(Integer.MIN_VALUE);
+                stmt.setInt(1, categoryId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        int questionId = rs.getInt(1);
+                        ItemStat item = items.get(questionId);
+                        if (item == null) {
+                            item = new ItemStat(questionId, categoryId, rs.getString(2));
+                            items.put(questionId, item);
+                        }
+                        item.add(rs.getBoolean(3), rs.getInt(4), rs.getInt(5));
+                        rows++;
+                    }
+                }
+                sample.rows(rows);
+            } catch (SQLException e) {
+                sample.fail();
+                completeExceptionally(new CompletionException(e));
+                return null;
+            } finally {
+                sample.stop();
+            }
+
+            List<ItemStat> result = new ArrayList<>(items.values());
+            for (ItemStat item : result) {
+                item.proposed = propose(item);
+            }
+            result.sort((a, b) -> Integer.compare(a.questionId, b.questionId));
+            return result;
+        }
+    }
+
+    // soal dengan diskriminasi negatif kemungkinan kunci jawabannya salah, tidak dilabel ulang
+    private String propose(ItemStat item) {
+        if (item.responses < minResponses || item.getDiscrimination() < 0) {
+            return item.current;
+        }
+        double p = item.getPValue();
+        if (p >= easyThreshold) {
+            return "EASY";
+        }
+        if (p <= hardThreshold) {
+            return "HARD";
+        }
+        return "MEDIUM";
+    }
+
+    // label hanya diganti kalau belum diubah orang lain sejak kalibrasi dibaca
+    public int apply(List<ItemStat> items) throws SQLException {
+        int changed = 0;
+        try (Connection conn = database.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "UPDATE questions SET difficulty_level = ? WHERE question_id = ? AND difficulty_level <=> ?")) {
+                int pending = 0;
+                for (ItemStat item : items) {
+                    if (!item.isRelabelled()) {
+                        continue;
+                    }
+                    stmt.setString(1, item.proposed);
+                    stmt.setInt(2, item.questionId);
+                    stmt.setString(3, item.current);
+                    stmt.addBatch();
+                    if (++pending == UPDATE_BATCH_SIZE) {
+                        changed += sum(stmt.executeBatch());
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    changed += sum(stmt.executeBatch());
+                }
+                if (database.isSchemaCurrent()) {
+                    try (Statement sync = conn.createStatement()) {
+                        sync.executeUpdate("UPDATE question_stats s JOIN questions q ON q.question_id = s.question_id " +
+                                           "SET s.difficulty_level = q.difficulty_level " +
+                                           "WHERE NOT (s.difficulty_level <=> q.difficulty_level)");
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+        if (changed > 0) {
+            regenerateSnapshot();
+        }
+        return changed;
+    }
+
+    // Kalibrasi berjalan di proses terpisah, jadi cache soal di kios tidak bisa dikosongkan dari
+    // sini. Snapshot dibuat ulang supaya kios yang restart memuat label baru; kios yang sedang
+    // jalan menyusul lewat pencocokan id partisi di QuestionBank (paling lama beberapa menit).
+    private void regenerateSnapshot() {
+        File file = new File(Constants.QUESTION_SNAPSHOT_PATH);
+        try (Connection conn = database.getConnection()) {
+            int total = QuestionSnapshot.export(conn, file);
+            System.out.println("Snapshot soal dibuat ulang: " + total + " soal (" +
+                               QuestionSnapshot.latest(file).getPath() + ")");
+        } catch (SQLException | IOException e) {
+            System.err.println("Gagal membuat ulang snapshot soal, jalankan core.QuestionSnapshot manual: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    private static int sum(int[] counts) {
+        int total = 0;
+        for (int count : counts) {
+            total += Math.max(0, count);
+        }
+        return total;
+    }
+
+    public static void writeReport(List<ItemStat> items, File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        try (PrintWriter out = new PrintWriter(new FileWriter(file))) {
+            out.println("question_id,category_id,responses,p_value,discrimination,current,proposed");
+            for (ItemStat item : items) {
+                out.printf(Locale.ROOT, "%d,%d,%d,%.4f,%.4f,%s,%s%n", item.questionId, item.categoryId,
+                    item.responses, item.getPValue(), item.getDiscrimination(), item.current, item.proposed);
+            }
+        }
+    }
+
+    public static class ItemStat {
+        private final int questionId;
+        private final int categoryId;
+        private final String current;
+        private String proposed;
+
+        private long responses;
+        private long correct;
+        // akumulator point-biserial, hanya dari sesi dengan lebih dari satu jawaban
+        private long paired;
+        private double sumRest;
+        private double sumRestSquared;
+        private double sumCorrectRest;
+        private long pairedCorrect;
+
+        ItemStat(int questionId, int categoryId, String current) {
+            this.questionId = questionId;
+            this.categoryId = categoryId;
+            this.current = current;
+        }
+
+        void add(boolean isCorrect, int sessionCorrect, int sessionAnswered) {
+            int x = isCorrect ? 1 : 0;
+            responses++;
+            correct += x;
+            if (sessionAnswered > 1 && sessionCorrect >= x) {
+                double rest = (double) (sessionCorrect - x) / (sessionAnswered - 1);
+                paired++;
+                pairedCorrect += x;
+                sumRest += rest;
+                sumRestSquared += rest * rest;
+                sumCorrectRest += x * rest;
+            }
+        }
+
+        public int getQuestionId() { return questionId; }
+        public int getCategoryId() { return categoryId; }
+        public long getResponses() { return responses; }
+        public String getCurrent() { return current; }
+        public String getProposed() { return proposed; }
+
+        public boolean isRelabelled() {
+            return proposed != null && !proposed.equals(current);
+        }
+
+        public double getPValue() {
+            return responses > 0 ? (double) correct / responses : 0;
+        }
+
+        public double getDiscrimination() {
+            if (paired < 2) {
+                return 0;
+            }
+            double n = paired;
+            double covariance = n * sumCorrectRest - pairedCorrect * sumRest;
+            double varianceX = n * pairedCorrect - (double) pairedCorrect * pairedCorrect;
+            double varianceY = n * sumRestSquared - sumRest * sumRest;
+            if (varianceX <= 0 || varianceY <= 0) {
+                return 0;
+            }
+            return covariance / Math.sqrt(varianceX * varianceY);
+        }
+    }
+
+    public static void main(String[] args) {
+        boolean apply = false;
+        for (String arg : args) {
+            if (arg.equals("--apply")) {
+                apply = true;
+            } else {
+                System.err.println("Pemakaian: core.DifficultyCalibrator [--apply]");
+                return;
+            }
+        }
+
+        Database db = Database.getInstance();
+        try {
+            long start = System.currentTimeMillis();
+            DifficultyCalibrator calibrator = new DifficultyCalibrator(db);
+            List<ItemStat> items = calibrator.calibrate();
+            long responses = 0;
+            int relabelled = 0;
+            for (ItemStat item : items) {
+                responses += item.responses;
+                if (item.isRelabelled()) {
+                    relabelled++;
+                    System.out.printf(Locale.ROOT, "  soal #%d: %s -> %s (p=%.2f, r=%.2f, n=%d)%n",
+                        item.questionId, item.current, item.proposed, item.getPValue(),
+                        item.getDiscrimination(), item.responses);
+                }
+            }
+            File report = new File(Constants.CALIBRATION_REPORT_PATH);
+            writeReport(items, report);
+            System.out.println(items.size() + " soal dari " + responses + " jawaban dikalibrasi dalam " +
+                               (System.currentTimeMillis() - start) + " ms, " + relabelled +
+                               " usulan label baru (" + report.getPath() + ")");
+            if (apply && relabelled > 0) {
+                System.out.println(calibrator.apply(items) + " label soal diperbarui");
+            }
+        } catch (IOException | SQLException e) {
+            System.err.println("Kalibrasi gagal: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            db.closeConnection();
+        }
+    }
+}
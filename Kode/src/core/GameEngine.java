@@ -0,0 +1,295 @@
+package core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Aturan permainan Speed Quiz tanpa Swing: hitung mundur, skor + speed bonus, lifeline
+// (skip, 50:50, hint) dan penanda soal yang sudah dipakai. Waktu dibaca dari Clock, jadi
+// QuizView memakai GameClock sungguhan sedangkan GameSimulator memakai jam virtual.
+// Tidak thread-safe: semua pemanggilan harus dari satu thread (EDT untuk QuizView).
+public class GameEngine {
+
+    public static final int MAX_QUESTIONS_PER_SESSION = 30;
+    // speed bonus turun linear dari penuh ke 0 selama 10 detik pertama setiap soal
+    public static final long SPEED_BONUS_WINDOW_MS = 10 * 1000;
+
+    public enum Lifeline { FIFTY_FIFTY, HINT }
+
+    public interface Clock {
+        long elapsedMillis();
+    }
+
+    public interface Listener {
+        default void onStart(GameEngine engine) { }
+        default void onQuestion(Database.Question question, int number, int total) { }
+        default void onAnswer(Database.Question question, String userAnswer, boolean correct,
+                              int points, int speedBonus, long responseMillis) { }
+        default void onSkip(Database.Question question, long responseMillis) { }
+        default void onLifeline(Lifeline lifeline, Database.Question question, int[] options) { }
+        default void onTick(int remainingSeconds) { }
+        default void onEnd(Result result) { }
+    }
+
+    private final long durationMillis;
+    private final Clock clock;
+    private final List<Listener> listeners = new ArrayList<>();
+
+    private List<Database.Question> questions = new ArrayList<>();
+    private boolean[] questionUsed = new boolean[0];
+    private int currentIndex;
+    private int score;
+    private int correctAnswers;
+    private int incorrectAnswers;
+    private int skipCount;
+    private int totalSpeedBonus;
+    private boolean fiftyFiftyUsed;
+    private boolean hintUsed;
+    private long questionStartMillis;
+    private boolean active;
+    private Result result;
+
+    public GameEngine(long durationMillis, Clock clock) {
+        this.durationMillis = durationMillis;
+        this.clock = clock;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    public void start(List<Database.Question> loaded) {
+        int total = Math.min(MAX_QUESTIONS_PER_SESSION, loaded.size());
+        questions = new ArrayList<>(loaded.subList(0, total));
+        questionUsed = new boolean[total];
+        currentIndex = 0;
+        score = 0;
+        correctAnswers = 0;
+        incorrectAnswers = 0;
+        skipCount = 0;
+        totalSpeedBonus = 0;
+        fiftyFiftyUsed = false;
+        hintUsed = false;
+        result = null;
+        active = true;
+
+        for (Listener listener : listeners) {
+            listener.onStart(this);
+        }
+        if (questions.isEmpty()) {
+            end();
+        } else {
+            showQuestion();
+        }
+    }
+
+    // permainan dibuang tanpa onEnd, misalnya karena kuis baru dimulai sebelum yang lama selesai
+    public void abandon() {
+        active = false;
+    }
+
+    public boolean answer(int optionIndex) {
+        if (!active || optionIndex < 0 || optionIndex > 3) {
+            return false;
+        }
+        Database.Question question = questions.get(currentIndex);
+        String userAnswer = String.valueOf((char) ('A' + optionIndex));
+        boolean correct = userAnswer.equals(question.correctAnswer);
+        long responseMillis = questionElapsedMillis();
+
+        int points = 0;
+        int speedBonus = 0;
+        if (correct) {
+            correctAnswers++;
+            int basePoints = basePoints(question.difficulty);
+            speedBonus = speedBonus(basePoints, responseMillis);
+            points = basePoints + speedBonus;
+            totalSpeedBonus += speedBonus;
+            score += points;
+        } else {
+            incorrectAnswers++;
+        }
+
+        for (Listener listener : listeners) {
+            listener.onAnswer(question, userAnswer, correct, points, speedBonus, responseMillis);
+        }
+        advance();
+        return true;
+    }
+
+    // skip dihitung sebagai jawaban salah dan tidak dibatasi jumlahnya
+    public boolean skip() {
+        if (!active) {
+            return false;
+        }
+        Database.Question question = questions.get(currentIndex);
+        incorrectAnswers++;
+        skipCount++;
+        long responseMillis = questionElapsedMillis();
+        for (Listener listener : listeners) {
+            listener.onSkip(question, responseMillis);
+        }
+        advance();
+        return true;
+    }
+
+    // indeks dua pilihan salah yang dihapus, null kalau sudah dipakai
+    public int[] fiftyFifty() {
+        if (!active || fiftyFiftyUsed) {
+            return null;
+        }
+        fiftyFiftyUsed = true;
+        Database.Question question = questions.get(currentIndex);
+        int correctIndex = question.correctAnswer.charAt(0) - 'A';
+        int[] removed = new int[2];
+        int found = 0;
+        for (int i = 0; i < 4 && found < 2; i++) {
+            if (i != correctIndex) {
+                removed[found++] = i;
+            }
+        }
+        for (Listener listener : listeners) {
+            listener.onLifeline(Lifeline.FIFTY_FIFTY, question, removed);
+        }
+        return removed;
+    }
+
+    // indeks jawaban benar yang disorot, -1 kalau sudah dipakai
+    public int hint() {
+        if (!active || hintUsed) {
+            return -1;
+        }
+        hintUsed = true;
+        Database.Question question = questions.get(currentIndex);
+        int correctIndex = question.correctAnswer.charAt(0) - 'A';
+        for (Listener listener : listeners) {
+            listener.onLifeline(Lifeline.HINT, question, new int[] { correctIndex });
+        }
+        return correctIndex;
+    }
+
+    public void tick() {
+        if (!active) {
+            return;
+        }
+        if (clock.elapsedMillis() >= durationMillis) {
+            end();
+            return;
+        }
+        int remaining = getRemainingSeconds();
+        for (Listener listener : listeners) {
+            listener.onTick(remaining);
+        }
+    }
+
+    public void end() {
+        if (!active) {
+            return;
+        }
+        active = false;
+        result = new Result(score, correctAnswers, incorrectAnswers, skipCount, fiftyFiftyUsed, hintUsed,
+            totalSpeedBonus, Math.min(clock.elapsedMillis(), durationMillis));
+        for (Listener listener : listeners) {
+            listener.onEnd(result);
+        }
+    }
+
+    private void showQuestion() {
+        questionStartMillis = clock.elapsedMillis();
+        Database.Question question = questions.get(currentIndex);
+        for (Listener listener : listeners) {
+            listener.onQuestion(question, currentIndex + 1, questions.size());
+        }
+    }
+
+    private void advance() {
+        questionUsed[currentIndex] = true;
+        currentIndex++;
+        while (currentIndex < questions.size() && questionUsed[currentIndex]) {
+            currentIndex++;
+        }
+        if (currentIndex < questions.size()) {
+            showQuestion();
+        } else {
+            end();
+        }
+    }
+
+    public static int basePoints(String difficulty) {
+        String diff = difficulty != null ? difficulty.toUpperCase() : "";
+        if (diff.contains("HARD") || diff.contains("SULIT")) return 25;
+        if (diff.contains("MEDIUM") || diff.contains("SEDANG")) return 15;
+        return 10;
+    }
+
+    public static int speedBonus(int basePoints, long responseMillis) {
+        long timeLeft = Math.max(0, SPEED_BONUS_WINDOW_MS - responseMillis);
+        return (int) (basePoints * (timeLeft / (double) SPEED_BONUS_WINDOW_MS));
+    }
+
+    public long questionElapsedMillis() {
+        return clock.elapsedMillis() - questionStartMillis;
+    }
+
+    public int potentialSpeedBonus() {
+        Database.Question question = getCurrentQuestion();
+        return question != null ? speedBonus(basePoints(question.difficulty), questionElapsedMillis()) : 0;
+    }
+
+    public int getRemainingSeconds() {
+        long remaining = Math.max(0, durationMillis - clock.elapsedMillis());
+        return (int) ((remaining + 999) / 1000);
+    }
+
+    public Database.Question getCurrentQuestion() {
+        return active && currentIndex < questions.size() ? questions.get(currentIndex) : null;
+    }
+
+    public boolean isActive() { return active; }
+    public int getScore() { return score; }
+    public int getCorrectAnswers() { return correctAnswers; }
+    public int getIncorrectAnswers() { return incorrectAnswers; }
+    public boolean isFiftyFiftyUsed() { return fiftyFiftyUsed; }
+    public boolean isHintUsed() { return hintUsed; }
+    public Result getResult() { return result; }
+
+    public static class Result {
+        private final int score;
+        private final int correctAnswers;
+        private final int incorrectAnswers;
+        private final int skipCount;
+        private final boolean fiftyFiftyUsed;
+        private final boolean hintUsed;
+        private final int speedBonus;
+        private final long elapsedMillis;
+
+        public Result(int score, int correctAnswers, int incorrectAnswers, int skipCount,
+                      boolean fiftyFiftyUsed, boolean hintUsed, int speedBonus, long elapsedMillis) {
+            this.score = score;
+            this.correctAnswers = correctAnswers;
+            this.incorrectAnswers = incorrectAnswers;
+            this.skipCount = skipCount;
+            this.fiftyFiftyUsed = fiftyFiftyUsed;
+            this.hintUsed = hintUsed;
+            this.speedBonus = speedBonus;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public int getScore() { return score; }
+        public int getCorrectAnswers() { return correctAnswers; }
+        public int getIncorrectAnswers() { return incorrectAnswers; }
+        public int getQuestionsAnswered() { return correctAnswers + incorrectAnswers; }
+        public int getSkipCount() { return skipCount; }
+        public boolean isFiftyFiftyUsed() { return fiftyFiftyUsed; }
+        public boolean isHintUsed() { return hintUsed; }
+        public int getSpeedBonus() { return speedBonus; }
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        public int getTimeTakenSeconds() {
+            return (int) Math.round(elapsedMillis / 1000.0);
+        }
+    }
+}
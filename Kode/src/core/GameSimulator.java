@@ -0,0 +1,210 @@
+package core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import util.Constants;
+
+// Menjalankan banyak permainan GameEngine tanpa UI dengan jam virtual, untuk benchmark
+// aturan permainan dan load test database.
+//   java -cp bin:lib/* core.GameSimulator [--games N] [--threads N] [--seed N]
+//                                       [--persist <kategori> <level>]
+// Tanpa --persist soal dibuat sintetis dan tidak ada yang ditulis ke database. Dengan
+// --persist soal diambil dari DataStore dan setiap sesi, jawaban dan hasil disimpan.
+public class GameSimulator {
+
+    private static final String[] DIFFICULTIES = { "EASY", "MEDIUM", "HARD" };
+
+    private final List<Database.Question> questions;
+    private final DataStore store;
+    private final String categoryName;
+    private final String difficulty;
+
+    private final LongAdder games = new LongAdder();
+    private final LongAdder answers = new LongAdder();
+    private final LongAdder correct = new LongAdder();
+    private final LongAdder totalScore = new LongAdder();
+
+    public GameSimulator(List<Database.Question> questions, DataStore store, String categoryName, String difficulty) {
+        this.questions = questions;
+        this.store = store;
+        this.categoryName = categoryName;
+        this.difficulty = difficulty;
+    }
+
+    public static List<Database.Question> syntheticQuestions(int count, Random random) {
+        List<Database.Question> generated = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            generated.add(new Database.Question(i, 1, "Soal simulasi " + i, "A", "B", "C", "D",
+                String.valueOf((char) ('A' + random.nextInt(4))), DIFFICULTIES[random.nextInt(DIFFICULTIES.length)]));
+        }
+        return generated;
+    }
+
+    // satu permainan dengan pemain acak: skill menentukan peluang benar, waktu jawab 1-9 detik
+    public GameEngine.Result play(Random random) {
+        VirtualClock clock = new VirtualClock();
+        GameEngine engine = new GameEngine(Constants.QUIZ_TIME_SECONDS * 1000L, clock);
+        double skill = 0.3 + random.nextDouble() * 0.6;
+
+        int sessionId = -1;
+        if (store != null) {
+            sessionId = store.createSession("sim-" + Thread.currentThread().getId(), categoryName, difficulty);
+            if (sessionId == -1) {
+                return null;
+            }
+            int session = sessionId;
+            engine.addListener(new GameEngine.Listener() {
+                @Override
+                public void onAnswer(Database.Question question, String userAnswer, boolean isCorrect,
+                                     int points, int speedBonus, long responseMillis) {
+                    store.queueQuestionAnswer(session, question.id, userAnswer, isCorrect, responseMillis);
+                }
+
+                @Override
+                public void onSkip(Database.Question question, long responseMillis) {
+                    store.queueQuestionAnswer(session, question.id, "SKIP", false, responseMillis);
+                }
+            });
+        }
+
+        engine.start(questions);
+        while (engine.isActive()) {
+            clock.now += 1000 + random.nextInt(8000);
+            engine.tick();
+            if (!engine.isActive()) {
+                break;
+            }
+            Database.Question question = engine.getCurrentQuestion();
+            int correctIndex = question.correctAnswer.charAt(0) - 'A';
+            double chance = skill;
+            int[] removed = null;
+            if (!engine.isFiftyFiftyUsed() && random.nextDouble() < 0.05) {
+                removed = engine.fiftyFifty();
+                chance += (1 - chance) / 2;
+            } else if (!engine.isHintUsed() && random.nextDouble() < 0.05) {
+                engine.hint();
+                chance = 1.0;
+            }
+
+            if (removed == null && random.nextDouble() < 0.05) {
+                engine.skip();
+            } else if (random.nextDouble() < chance) {
+                engine.answer(correctIndex);
+            } else {
+                engine.answer(wrongOption(correctIndex, removed, random));
+            }
+        }
+
+        GameEngine.Result result = engine.getResult();
+        games.increment();
+        answers.add(result.getQuestionsAnswered());
+        correct.add(result.getCorrectAnswers());
+        totalScore.add(result.getScore());
+        if (store != null) {
+            store.finishSession(sessionId, result.getScore(), result.getQuestionsAnswered(),
+                result.getCorrectAnswers(), result.getIncorrectAnswers(), result.getTimeTakenSeconds(),
+                result.getSkipCount(), result.isFiftyFiftyUsed() ? 1 : 0, result.getSpeedBonus());
+        }
+        return result;
+    }
+
+    private static int wrongOption(int correctIndex, int[] removed, Random random) {
+        while (true) {
+            int option = random.nextInt(4);
+            if (option == correctIndex) {
+                continue;
+            }
+            if (removed != null && (option == removed[0] || option == removed[1])) {
+                // setelah 50:50 hanya tersisa satu pilihan salah
+                for (int i = 0; i < 4; i++) {
+                    if (i != correctIndex && i != removed[0] && i != removed[1]) {
+                        return i;
+                    }
+                }
+            }
+            return option;
+        }
+    }
+
+    private static class VirtualClock implements GameEngine.Clock {
+        private long now;
+
+        @Override
+        public long elapsedMillis() {
+            return now;
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int totalGames = 100_000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = System.nanoTime();
+        String category = null;
+        String level = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--games": totalGames = Integer.parseInt(args[++i]); break;
+                    case "--threads": threads = Integer.parseInt(args[++i]); break;
+                    case "--seed": seed = Long.parseLong(args[++i]); break;
+                    case "--persist": category = args[++i]; level = args[++i]; break;
+                    default: throw new IllegalArgumentException(args[i]);
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Pemakaian: core.GameSimulator [--games N] [--threads N] [--seed N] " +
+                               "[--persist <kategori> <level>]");
+            return;
+        }
+
+        DataStore store = null;
+        List<Database.Question> questions;
+        if (category != null) {
+            store = DataStore.getInstance();
+            questions = store.getRandomQuestions(category, level, GameEngine.MAX_QUESTIONS_PER_SESSION);
+            if (questions.isEmpty()) {
+                System.err.println("Tidak ada soal untuk " + category + " / " + level);
+                store.closeConnection();
+                return;
+            }
+        } else {
+            questions = syntheticQuestions(GameEngine.MAX_QUESTIONS_PER_SESSION, new Random(seed));
+        }
+
+        GameSimulator simulator = new GameSimulator(questions, store, category, level);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        int perThread = totalGames / threads;
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            int count = perThread + (t < totalGames % threads ? 1 : 0);
+            Random random = new Random(seed + t);
+            pool.execute(() -> {
+                for (int i = 0; i < count; i++) {
+                    simulator.play(random);
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        double seconds = Math.max(1e-3, (System.nanoTime() - start) / 1e9);
+
+        long played = simulator.games.sum();
+        System.out.printf(Locale.ROOT, "%,d permainan dalam %.2f s (%,.0f permainan/s, %,.0f jawaban/s)%n",
+            played, seconds, played / seconds, simulator.answers.sum() / seconds);
+        if (played > 0) {
+            System.out.printf(Locale.ROOT, "rata-rata skor %.1f, %.1f jawaban, akurasi %.1f%%%n",
+                simulator.totalScore.sum() / (double) played, simulator.answers.sum() / (double) played,
+                simulator.correct.sum() * 100.0 / Math.max(1, simulator.answers.sum()));
+        }
+        if (store != null) {
+            store.flushQuestionAnswers().join();
+            store.closeConnection();
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package core;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class LeaderboardEngine {
+
+    public static final String ALL_CATEGORIES = "Semua Kategori";
+    public static final String ALL_DIFFICULTIES = "Semua Level";
+    private static final String[] DIFFICULTIES = {"MUDAH", "SEDANG", "SULIT"};
+
+    // leaderboard_id untuk skor yang dicatat lokal sebelum barisnya ditarik dari database;
+    // diganti baris aslinya (session_id sama) saat sync berikutnya
+    public static final int PENDING_ID = Integer.MAX_VALUE;
+    // skor dari kios lain ditarik paling lambat setiap interval ini
+    private static final long SYNC_INTERVAL_MS = 15 * 1000;
+    // leaderboard_id dibagikan saat INSERT, bukan saat commit, jadi id kecil bisa muncul
+    // belakangan; sync membaca ulang sebagian id terakhir dan baris yang sama tidak dobel
+    private static final int SYNC_LOOKBACK_IDS = 50;
+
+    private static final String SELECT_ROWS =
+        "SELECT l.leaderboard_id, l.session_id, l.score, l.questions_answered, l.accuracy_percentage, l.achieved_at, " +
+        "p.username, c.category_name, qs.game_mode FROM leaderboard l " +
+        "JOIN players p ON l.player_id = p.player_id " +
+        "JOIN quiz_sessions qs ON l.session_id = qs.session_id " +
+        "JOIN categories c ON qs.category_id = c.category_id";
+
+    // sama dengan ORDER BY query leaderboard di Database
+    private static final Comparator<Row> RANKING = Comparator
+        .comparingInt((Row r) -> r.score).reversed()
+        .thenComparing(Comparator.comparingDouble((Row r) -> r.accuracy).reversed())
+        .thenComparingLong(r -> r.achievedAt)
+        .thenComparingInt(r -> r.entryId)
+        .thenComparingInt(r -> r.sessionId);
+
+    private final Database database;
+    private final int capacity;
+    private volatile ConcurrentHashMap<String, Board> boards = new ConcurrentHashMap<>();
+    private volatile boolean loaded = false;
+    private volatile long lastSyncAt;
+    private int lastSeenId;
+
+    public LeaderboardEngine(Database database, int capacity) {
+        this.database = database;
+        this.capacity = capacity;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public boolean isStale() {
+        return System.currentTimeMillis() - lastSyncAt > SYNC_INTERVAL_MS;
+    }
+
+    public synchronized void rebuild() throws SQLException {
+        ConcurrentHashMap<String, Board> rebuilt = new ConcurrentHashMap<>();
+        int newest = 0;
+        try (Connection conn = database.getLeaderboardConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(SELECT_ROWS)) {
+            while (rs.next()) {
+                newest = Math.max(newest, offer(rebuilt, rs));
+            }
+        }
+
+        boards = rebuilt;
+        lastSeenId = newest;
+        lastSyncAt = System.currentTimeMillis();
+        loaded = true;
+    }
+
+    // hanya menarik baris baru (termasuk skor dari kios lain) ke papan yang sudah ada
+    public synchronized int sync() throws SQLException {
+        if (!loaded) {
+            rebuild();
+            return 0;
+        }
+        int pulled = 0;
+        int newest = lastSeenId;
+        try (Connection conn = database.getLeaderboardConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_ROWS + " WHERE l.leaderboard_id > ?")) {
+            stmt.setInt(1, Math.max(0, lastSeenId - SYNC_LOOKBACK_IDS));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    newest = Math.max(newest, offer(boards, rs));
+                    pulled++;
+                }
+            }
+        }
+        lastSeenId = newest;
+        lastSyncAt = System.currentTimeMillis();
+        return pulled;
+    }
+
+    private int offer(ConcurrentHashMap<String, Board> target, ResultSet rs) throws SQLException {
+        Timestamp achievedAt = rs.getTimestamp("achieved_at");
+        Row row = new Row(
+            rs.getInt("leaderboard_id"),
+            rs.getInt("session_id"),
+            rs.getString("username"),
+            rs.getInt("score"),
+            rs.getInt("questions_answered"),
+            rs.getDouble("accuracy_percentage"),
+            achievedAt != null ? achievedAt.getTime() : 0L
+        );
+        offer(target, rs.getString("category_name"), normalizeDifficulty(rs.getString("game_mode")), row);
+        return row.entryId;
+    }
+
+    public synchronized void reset() {
+        boards = new ConcurrentHashMap<>();
+        lastSyncAt = System.currentTimeMillis();
+        loaded = true;
+    }
+
+    public synchronized void record(int entryId, int sessionId, String username, String categoryName, String difficulty,
+                       int score, int questionsAnswered, double accuracy, long achievedAt) {
+        if (!loaded) {
+            return;
+        }
+        double rounded = Math.round(accuracy * 100.0) / 100.0;
+        Row row = new Row(entryId, sessionId, username, score, questionsAnswered, rounded, achievedAt);
+        offer(boards, categoryName, normalizeDifficulty(difficulty), row);
+    }
+
+    public List<Database.LeaderboardEntry> top(int limit, String categoryName, String difficulty) {
+        String category = isAll(categoryName, ALL_CATEGORIES) ? "*" : categoryName;
+        String level = isAll(difficulty, ALL_DIFFICULTIES) ? "*" : normalizeDifficulty(difficulty);
+        Board board = boards.get(key(category, level));
+        if (board == null) {
+            return Collections.emptyList();
+        }
+        List<Database.LeaderboardEntry> snapshot = board.snapshot();
+        return snapshot.size() <= limit ? snapshot : snapshot.subList(0, limit);
+    }
+
+    public Database.LeaderboardPage page(String categoryName, String difficulty,
+                                         Database.LeaderboardCursor after, int pageSize) {
+        String category = isAll(categoryName, ALL_CATEGORIES) ? "*" : categoryName;
+        String level = isAll(difficulty, ALL_DIFFICULTIES) ? "*" : normalizeDifficulty(difficulty);
+        Board board = boards.get(key(category, level));
+        if (board == null) {
+            return new Database.LeaderboardPage(Collections.emptyList(), null);
+        }
+        return toPage(board.page(after, pageSize + 1), pageSize);
+    }
+
+    static Database.LeaderboardPage toPage(List<Database.LeaderboardEntry> fetched, int pageSize) {
+        if (fetched.size() <= pageSize) {
+            return new Database.LeaderboardPage(fetched, null);
+        }
+        List<Database.LeaderboardEntry> entries = new ArrayList<>(fetched.subList(0, pageSize));
+        return new Database.LeaderboardPage(entries, Database.LeaderboardCursor.after(entries.get(pageSize - 1)));
+    }
+
+    private void offer(ConcurrentHashMap<String, Board> target, String categoryName, String difficulty, Row row) {
+        String level = difficulty != null ? difficulty : "*";
+        target.computeIfAbsent(key("*", "*"), k -> new Board()).add(row);
+        target.computeIfAbsent(key(categoryName, "*"), k -> new Board()).add(row);
+        if (difficulty != null) {
+            target.computeIfAbsent(key("*", level), k -> new Board()).add(row);
+            target.computeIfAbsent(key(categoryName, level), k -> new Board()).add(row);
+        }
+    }
+
+    private static boolean isAll(String value, String allLabel) {
+        return value == null || value.equals(allLabel);
+    }
+
+    private static String key(String category, String difficulty) {
+        return category + "|" + difficulty;
+    }
+
+    static String normalizeDifficulty(String value) {
+        if (value == null) {
+            return null;
+        }
+        String upper = value.toUpperCase();
+        for (String difficulty : DIFFICULTIES) {
+            if (upper.contains(difficulty)) {
+                return difficulty;
+            }
+        }
+        return null;
+    }
+
+    private class Board {
+        private final TreeSet<Row> rows = new TreeSet<>(RANKING);
+        private final Map<Integer, Row> pending = new HashMap<>();
+        private volatile List<Database.LeaderboardEntry> snapshot;
+
+        synchronized void add(Row row) {
+            if (row.entryId != PENDING_ID) {
+                Row local = pending.remove(row.sessionId);
+                if (local != null) {
+                    rows.remove(local);
+                    snapshot = null;
+                }
+            }
+            if (rows.size() >= capacity && RANKING.compare(row, rows.last()) >= 0) {
+                return;
+            }
+            if (!rows.add(row)) {
+                return;
+            }
+            if (row.entryId == PENDING_ID) {
+                pending.put(row.sessionId, row);
+            }
+            if (rows.size() > capacity) {
+                Row evicted = rows.pollLast();
+                if (evicted.entryId == PENDING_ID) {
+                    pending.remove(evicted.sessionId);
+                }
+            }
+            snapshot = null;
+        }
+
+        synchronized List<Database.LeaderboardEntry> page(Database.LeaderboardCursor after, int limit) {
+            List<Database.LeaderboardEntry> entries = new ArrayList<>(Math.min(limit, rows.size()));
+            Iterable<Row> source = rows;
+            int rank = 1;
+            if (after != null) {
+                Row from = new Row(after.getEntryId(), Integer.MAX_VALUE, null, after.getScore(), 0,
+                    after.getAccuracy(), after.getAchievedAt().getTime());
+                source = rows.tailSet(from, false);
+                rank = after.getNextRank();
+            }
+            for (Row r : source) {
+                if (entries.size() >= limit) {
+                    break;
+                }
+                entries.add(r.toEntry(rank++));
+            }
+            return entries;
+        }
+
+        List<Database.LeaderboardEntry> snapshot() {
+            List<Database.LeaderboardEntry> current = snapshot;
+            if (current != null) {
+                return current;
+            }
+            synchronized (this) {
+                if (snapshot == null) {
+                    List<Database.LeaderboardEntry> entries = new ArrayList<>(rows.size());
+                    int rank = 1;
+                    for (Row r : rows) {
+                        entries.add(r.toEntry(rank++));
+                    }
+                    snapshot = Collections.unmodifiableList(entries);
+                }
+                return snapshot;
+            }
+        }
+    }
+
+    private static class Row {
+        private final int entryId;
+        private final int sessionId;
+        private final String username;
+        private final int score;
+        private final int questionsAnswered;
+        private final double accuracy;
+        private final long achievedAt;
+
+        Row(int entryId, int sessionId, String username, int score, int questionsAnswered, double accuracy, long achievedAt) {
+            this.entryId = entryId;
+            this.sessionId = sessionId;
+            this.username = username;
+            this.score = score;
+            this.questionsAnswered = questionsAnswered;
+            this.accuracy = accuracy;
+            this.achievedAt = achievedAt;
+        }
+
+        Database.LeaderboardEntry toEntry(int rank) {
+            return new Database.LeaderboardEntry(rank, entryId, username, score,
+                questionsAnswered, accuracy, new Timestamp(achievedAt));
+        }
+    }
+}
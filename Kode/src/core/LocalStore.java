@@ -0,0 +1,580 @@
+package core;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import util.Constants;
+
+// Penyimpanan lokal tanpa server MySQL: satu AppendLog per tabel di dalam folder DB_PATH
+public class LocalStore implements DataStore {
+    private static LocalStore instance;
+
+    // seluruh riwayat dimuat ke board supaya halaman dalam bisa dilayani dari memori
+    private static final int LEADERBOARD_CAPACITY = 100_000;
+
+    private final File directory;
+    private final AppendLog categoryLog;
+    private final AppendLog questionLog;
+    private final AppendLog playerLog;
+    private final AppendLog sessionLog;
+    private final AppendLog leaderboardLog;
+    private final AppendLog answerLog;
+
+    private final Map<Integer, Database.Category> categories = new LinkedHashMap<>();
+    private final Map<String, Integer> categoryIds = new ConcurrentHashMap<>();
+    private final Map<String, PlayerRow> playersByName = new ConcurrentHashMap<>();
+    private final Map<Integer, PlayerRow> playersById = new ConcurrentHashMap<>();
+    private final Map<String, QuestionIds> partitions = new ConcurrentHashMap<>();
+    private final LeaderboardEngine leaderboardEngine = new LeaderboardEngine(null, LEADERBOARD_CAPACITY);
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "Local-StoreWriter");
+        t.setDaemon(true);
+        return t;
+    });
+    private volatile boolean closed = false;
+
+    private LocalStore() throws IOException {
+        long start = System.nanoTime();
+        this.directory = new File(Constants.DB_PATH);
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Folder data tidak bisa dibuat: " + directory.getPath());
+        }
+        this.categoryLog = open("categories");
+        this.questionLog = open("questions");
+        this.playerLog = open("players");
+        this.sessionLog = open("sessions");
+        this.leaderboardLog = open("leaderboard");
+        this.answerLog = open("answers");
+
+        if (categoryLog.isEmpty()) {
+            seed(new File(Constants.SEED_SQL_PATH));
+        }
+        loadCategories();
+        loadPlayers();
+        loadQuestionIndex();
+        rebuildLeaderboard();
+
+        System.out.printf("Local store siap dalam %.1f ms (%s)%n",
+            (System.nanoTime() - start) / 1_000_000.0, directory.getPath());
+    }
+
+    public static LocalStore getInstance() {
+        if (instance == null) {
+            synchronized (LocalStore.class) {
+                if (instance == null) {
+                    try {
+                        instance = new LocalStore();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Local store gagal dibuka", e);
+                    }
+                }
+            }
+        }
+        return instance;
+    }
+
+    private AppendLog open(String table) throws IOException {
+        return new AppendLog(new File(directory, table + ".log"), new File(directory, table + ".idx"));
+    }
+
+    private void seed(File dumpFile) throws IOException {
+        if (!dumpFile.exists()) {
+            System.err.println("File seed tidak ditemukan: " + dumpFile.getPath());
+            return;
+        }
+        SqlDumpReader dump = new SqlDumpReader(dumpFile);
+        for (String[] row : dump.rows("categories")) {
+            categoryLog.put(Integer.parseInt(row[0]), encode(out -> {
+                out.writeUTF(row[1]);
+                out.writeUTF(row[2] != null ? row[2] : "");
+            }));
+        }
+        int seeded = 0;
+        for (String[] row : dump.rows("questions")) {
+            long createdAt = row[9] != null ? Timestamp.valueOf(row[9]).getTime() : 0L;
+            questionLog.put(Integer.parseInt(row[0]), encode(out -> {
+                out.writeInt(Integer.parseInt(row[1]));
+                for (int i = 2; i <= 8; i++) {
+                    out.writeUTF(row[i]);
+                }
+                out.writeLong(createdAt);
+            }));
+            seeded++;
+        }
+        categoryLog.force();
+        questionLog.force();
+        System.out.println("Local store diisi dari " + dumpFile.getPath() + ": " + seeded + " soal");
+    }
+
+    private void loadCategories() throws IOException {
+        categoryLog.forEach((id, payload) -> {
+            DataInputStream in = decode(payload);
+            Database.Category category = read(() -> new Database.Category(id, in.readUTF(), in.readUTF()));
+            categories.put(id, category);
+            categoryIds.put(category.getCategoryName(), id);
+        });
+    }
+
+    private void loadPlayers() throws IOException {
+        playerLog.forEach((id, payload) -> {
+            DataInputStream in = decode(payload);
+            PlayerRow player = read(() -> new PlayerRow(id, in.readUTF(), in.readInt(), in.readInt(), in.readLong()));
+            playersByName.put(player.username.toLowerCase(), player);
+            playersById.put(id, player);
+        });
+    }
+
+    // hanya id soal yang disimpan di memori, isi soal dibaca lewat index saat diundi;
+    // dari payload cuma category_id dan difficulty_level yang dibaca, teksnya dilewati
+    private void loadQuestionIndex() throws IOException {
+        Map<String, List<Integer>> ids = new LinkedHashMap<>();
+        questionLog.forEach((id, payload) -> {
+            int categoryId = ((payload[0] & 0xFF) << 24) | ((payload[1] & 0xFF) << 16)
+                | ((payload[2] & 0xFF) << 8) | (payload[3] & 0xFF);
+            Database.Category category = categories.get(categoryId);
+            ids.computeIfAbsent("id:" + categoryId, k -> new ArrayList<>()).add(id);
+            if (category != null) {
+                ids.computeIfAbsent(nameKey(category.getCategoryName(), readDifficulty(payload)),
+                    k -> new ArrayList<>()).add(id);
+            }
+        });
+        for (Map.Entry<String, List<Integer>> entry : ids.entrySet()) {
+            partitions.put(entry.getKey(), new QuestionIds(entry.getValue()));
+        }
+    }
+
+    private static String nameKey(String categoryName, String dbDifficulty) {
+        return "name:" + categoryName + "|" + dbDifficulty;
+    }
+
+    @Override
+    public List<Database.Category> getAllCategories() {
+        List<Database.Category> result = new ArrayList<>(categories.values());
+        result.sort(Comparator.comparing(Database.Category::getCategoryName));
+        return result;
+    }
+
+    @Override
+    public Database.Category getCategoryById(int categoryId) {
+        return categories.get(categoryId);
+    }
+
+    @Override
+    public List<Database.Question> getRandomQuestions(int categoryId, int limit) {
+        return draw("id:" + categoryId, limit);
+    }
+
+    @Override
+    public List<Database.Question> getRandomQuestions(String categoryName, String difficulty, int limit) {
+        return draw(nameKey(categoryName, Database.convertDifficultyToDb(difficulty)), limit);
+    }
+
+    private List<Database.Question> draw(String key, int limit) {
+        QuestionIds partition = partitions.get(key);
+        List<Database.Question> result = new ArrayList<>();
+        if (partition == null) {
+            return result;
+        }
+        try {
+            for (int id : partition.sample(limit)) {
+                byte[] payload = questionLog.read(id);
+                if (payload != null) {
+                    result.add(readQuestion(id, payload));
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return result;
+    }
+
+    @Override
+    public int countQuestions(int categoryId) {
+        QuestionIds partition = partitions.get("id:" + categoryId);
+        return partition != null ? partition.size() : 0;
+    }
+
+    @Override
+    public int createPlayer(String username) {
+        PlayerRow existing = playersByName.get(username.toLowerCase());
+        if (existing != null) {
+            return existing.id;
+        }
+        return getOrCreatePlayer(username);
+    }
+
+    private synchronized int getOrCreatePlayer(String username) {
+        PlayerRow existing = playersByName.get(username.toLowerCase());
+        if (existing != null) {
+            return existing.id;
+        }
+        try {
+            PlayerRow player = new PlayerRow(playerLog.maxId() + 1, username, 0, 0, 0L);
+            playerLog.put(player.id, player.encode());
+            playersByName.put(username.toLowerCase(), player);
+            playersById.put(player.id, player);
+            return player.id;
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return -1;
+    }
+
+    @Override
+    public int createSession(String playerName, String categoryName, String difficulty) {
+        int playerId = getOrCreatePlayer(playerName);
+        if (playerId == -1) return -1;
+
+        Integer categoryId = categoryIds.get(categoryName);
+        if (categoryId == null) return -1;
+
+        SessionRow session = new SessionRow(playerId, categoryId, "Speed Quiz 60s - " + difficulty,
+            System.currentTimeMillis());
+        try {
+            return sessionLog.append(session.encode());
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return -1;
+    }
+
+    @Override
+    public void queueQuestionAnswer(int sessionId, int questionId, String userAnswer, boolean isCorrect,
+                                    long responseMillis) {
+        long answeredAt = System.currentTimeMillis();
+        byte[] payload = encode(out -> {
+            out.writeInt(sessionId);
+            out.writeInt(questionId);
+            out.writeUTF(userAnswer != null ? userAnswer : "");
+            out.writeBoolean(isCorrect);
+            out.writeLong(answeredAt);
+            out.writeInt(AnswerWriter.clampMillis(responseMillis));
+        });
+        writer.execute(() -> {
+            try {
+                answerLog.append(payload);
+            } catch (IOException e) {
+                System.err.println("Gagal menyimpan jawaban ke local store: " + e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> flushQuestionAnswers() {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                answerLog.force();
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, writer);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> finishSession(int sessionId, int totalScore, int questionsAnswered,
+                                                    int correctAnswers, int wrongAnswers, int timeTaken,
+                                                    int skipUsed, int fiftyFiftyUsed, int speedBonus) {
+        if (sessionId <= 0) {
+            return CompletableFuture.completedFuture(false);
+        }
+
+        double accuracy = questionsAnswered > 0 ? (correctAnswers * 100.0 / questionsAnswered) : 0;
+        double rounded = Math.round(accuracy * 100.0) / 100.0;
+
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                byte[] payload = sessionLog.read(sessionId);
+                if (payload == null) {
+                    return false;
+                }
+                SessionRow session = SessionRow.decode(payload);
+                if (session.endedAt != 0) {
+                    // sama dengan session_end IS NULL di Database: sesi hanya bisa selesai sekali
+                    return false;
+                }
+                long now = System.currentTimeMillis();
+                session.finish(totalScore, questionsAnswered, correctAnswers, wrongAnswers,
+                    timeTaken, skipUsed, fiftyFiftyUsed, now);
+                sessionLog.put(sessionId, session.encode());
+
+                int entryId = leaderboardLog.append(encode(out -> {
+                    out.writeInt(session.playerId);
+                    out.writeInt(sessionId);
+                    out.writeInt(totalScore);
+                    out.writeInt(questionsAnswered);
+                    out.writeDouble(rounded);
+                    out.writeInt(speedBonus);
+                    out.writeLong(now);
+                }));
+
+                PlayerRow player = playersById.get(session.playerId);
+                if (player != null) {
+                    synchronized (player) {
+                        player.totalGamesPlayed++;
+                        player.highestScore = Math.max(player.highestScore, totalScore);
+                        player.lastPlayed = now;
+                        playerLog.put(player.id, player.encode());
+                    }
+                }
+
+                sessionLog.force();
+                leaderboardLog.force();
+                playerLog.force();
+
+                Database.Category category = categories.get(session.categoryId);
+                leaderboardEngine.record(entryId, sessionId, player != null ? player.username : "",
+                    category != null ? category.getCategoryName() : "", session.gameMode,
+                    totalScore, questionsAnswered, rounded, now);
+                return true;
+            } catch (IOException e) {
+                e.printStackTrace();
+                throw new CompletionException(e);
+            }
+        }, writer);
+    }
+
+    @Override
+    public List<Database.LeaderboardEntry> getTopLeaderboard(int limit, String categoryName, String difficulty) {
+        return leaderboardEngine.top(limit, categoryName, difficulty);
+    }
+
+    @Override
+    public Database.LeaderboardPage getLeaderboardPage(String categoryName, String difficulty,
+                                                       Database.LeaderboardCursor after, int pageSize) {
+        return leaderboardEngine.page(categoryName, difficulty, after, pageSize);
+    }
+
+    @Override
+    public synchronized boolean rebuildLeaderboard() {
+        try {
+            leaderboardEngine.reset();
+            leaderboardLog.forEach((id, payload) -> read(() -> {
+                DataInputStream in = decode(payload);
+                int playerId = in.readInt();
+                int sessionId = in.readInt();
+                int score = in.readInt();
+                int questionsAnswered = in.readInt();
+                double accuracy = in.readDouble();
+                in.readInt();
+                long achievedAt = in.readLong();
+
+                PlayerRow player = playersById.get(playerId);
+                byte[] sessionPayload = sessionLog.read(sessionId);
+                SessionRow session = sessionPayload != null ? SessionRow.decode(sessionPayload) : null;
+                Database.Category category = session != null ? categories.get(session.categoryId) : null;
+                leaderboardEngine.record(id, sessionId, player != null ? player.username : "",
+                    category != null ? category.getCategoryName() : "",
+                    session != null ? session.gameMode : null,
+                    score, questionsAnswered, accuracy, achievedAt);
+                return null;
+            }));
+            return true;
+        } catch (IOException | UncheckedIOException e) {
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    @Override
+    public synchronized void closeConnection() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+            for (AppendLog log : Arrays.asList(categoryLog, questionLog, playerLog, sessionLog, leaderboardLog, answerLog)) {
+                log.close();
+            }
+            System.out.println("Local store closed.");
+        } catch (IOException e) {
+            e.printStackTrace();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // writeUTF = panjang 2 byte + isi; teks soal, empat opsi dan jawaban dilompati
+    private static String readDifficulty(byte[] payload) {
+        int pos = 4;
+        for (int i = 0; i < 6; i++) {
+            pos += 2 + (((payload[pos] & 0xFF) << 8) | (payload[pos + 1] & 0xFF));
+        }
+        int length = ((payload[pos] & 0xFF) << 8) | (payload[pos + 1] & 0xFF);
+        return new String(payload, pos + 2, length, StandardCharsets.UTF_8);
+    }
+
+    private static Database.Question readQuestion(int id, byte[] payload) {
+        DataInputStream in = decode(payload);
+        return read(() -> new Database.Question(id, in.readInt(), in.readUTF(), in.readUTF(), in.readUTF(),
+            in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF()));
+    }
+
+    private interface RecordWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private interface RecordReader<T> {
+        T read() throws IOException;
+    }
+
+    private static byte[] encode(RecordWriter writer) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writer.write(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static DataInputStream decode(byte[] payload) {
+        return new DataInputStream(new ByteArrayInputStream(payload));
+    }
+
+    private static <T> T read(RecordReader<T> reader) {
+        try {
+            return reader.read();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static class QuestionIds {
+        private final int[] ids;
+        private final int[] order;
+
+        QuestionIds(List<Integer> values) {
+            this.ids = new int[values.size()];
+            this.order = new int[values.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = values.get(i);
+                order[i] = i;
+            }
+        }
+
+        int size() {
+            return ids.length;
+        }
+
+        synchronized int[] sample(int limit) {
+            int count = Math.min(limit, ids.length);
+            int[] result = new int[count];
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < count; i++) {
+                int j = i + random.nextInt(ids.length - i);
+                int picked = order[j];
+                order[j] = order[i];
+                order[i] = picked;
+                result[i] = ids[picked];
+            }
+            return result;
+        }
+    }
+
+    private static class PlayerRow {
+        private final int id;
+        private final String username;
+        private int totalGamesPlayed;
+        private int highestScore;
+        private long lastPlayed;
+
+        PlayerRow(int id, String username, int totalGamesPlayed, int highestScore, long lastPlayed) {
+            this.id = id;
+            this.username = username;
+            this.totalGamesPlayed = totalGamesPlayed;
+            this.highestScore = highestScore;
+            this.lastPlayed = lastPlayed;
+        }
+
+        byte[] encode() {
+            return LocalStore.encode(out -> {
+                out.writeUTF(username);
+                out.writeInt(totalGamesPlayed);
+                out.writeInt(highestScore);
+                out.writeLong(lastPlayed);
+            });
+        }
+    }
+
+    private static class SessionRow {
+        private final int playerId;
+        private final int categoryId;
+        private final String gameMode;
+        private final long startedAt;
+        private int totalScore;
+        private int questionsAnswered;
+        private int correctAnswers;
+        private int wrongAnswers;
+        private int timeTaken;
+        private int skipUsed;
+        private int fiftyFiftyUsed;
+        private long endedAt;
+
+        SessionRow(int playerId, int categoryId, String gameMode, long startedAt) {
+            this.playerId = playerId;
+            this.categoryId = categoryId;
+            this.gameMode = gameMode;
+            this.startedAt = startedAt;
+        }
+
+        void finish(int totalScore, int questionsAnswered, int correctAnswers, int wrongAnswers,
+                    int timeTaken, int skipUsed, int fiftyFiftyUsed, long endedAt) {
+            this.totalScore = totalScore;
+            this.questionsAnswered = questionsAnswered;
+            this.correctAnswers = correctAnswers;
+            this.wrongAnswers = wrongAnswers;
+            this.timeTaken = timeTaken;
+            this.skipUsed = skipUsed;
+            this.fiftyFiftyUsed = fiftyFiftyUsed;
+            this.endedAt = endedAt;
+        }
+
+        byte[] encode() {
+            return LocalStore.encode(out -> {
+                out.writeInt(playerId);
+                out.writeInt(categoryId);
+                out.writeUTF(gameMode);
+                out.writeLong(startedAt);
+                out.writeInt(totalScore);
+                out.writeInt(questionsAnswered);
+                out.writeInt(correctAnswers);
+                out.writeInt(wrongAnswers);
+                out.writeInt(timeTaken);
+                out.writeInt(skipUsed);
+                out.writeInt(fiftyFiftyUsed);
+                out.writeLong(endedAt);
+            });
+        }
+
+        static SessionRow decode(byte[] payload) {
+            DataInputStream in = LocalStore.decode(payload);
+            return read(() -> {
+                SessionRow row = new SessionRow(in.readInt(), in.readInt(), in.readUTF(), in.readLong());
+                row.finish(in.readInt(), in.readInt(), in.readInt(), in.readInt(),
+                    in.readInt(), in.readInt(), in.readInt(), in.readLong());
+                return row;
+            });
+        }
+    }
+}
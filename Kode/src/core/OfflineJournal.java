@@ -0,0 +1,266 @@
+package core;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Jurnal append-only untuk sesi yang dimainkan saat database tidak bisa dihubungi.
+//   S: sesi offline baru (id negatif < -1, client token)
+//   A: jawaban untuk sesi offline
+//   F: hasil akhir sesi (offline, atau sesi online yang gagal disimpan)
+//   R: sesi sudah berhasil diputar ulang ke database
+// Begitu semua sesi berstatus R, file jurnal dihapus dan dimulai dari kosong.
+class OfflineJournal {
+
+    private static final byte SESSION = 'S';
+    private static final byte ANSWER = 'A';
+    private static final byte FINISH = 'F';
+    private static final byte REPLAYED = 'R';
+
+    private final File dataFile;
+    private final File indexFile;
+    private AppendLog log;
+    private final Map<Integer, PendingSession> pending = new LinkedHashMap<>();
+    private int nextOfflineId = -2;
+
+    OfflineJournal(String basePath) throws IOException {
+        this.dataFile = new File(basePath + ".log");
+        this.indexFile = new File(basePath + ".idx");
+        File parent = dataFile.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        this.log = new AppendLog(dataFile, indexFile);
+        load();
+    }
+
+    private void load() throws IOException {
+        log.forEach((id, payload) -> {
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+                byte type = in.readByte();
+                int sessionId = in.readInt();
+                nextOfflineId = Math.min(nextOfflineId, sessionId - 1);
+                if (type == SESSION) {
+                    PendingSession session = new PendingSession(sessionId, in.readUTF(), in.readUTF(),
+                        in.readUTF(), in.readUTF(), in.readLong(), false);
+                    pending.put(sessionId, session);
+                } else if (type == ANSWER) {
+                    PendingSession session = pending.get(sessionId);
+                    if (session != null) {
+                        int questionId = in.readInt();
+                        String answer = in.readUTF();
+                        boolean isCorrect = in.readBoolean();
+                        // record dari versi lama belum menyimpan waktu jawab
+                        int responseMillis = in.available() >= 4 ? in.readInt() : -1;
+                        session.answers.add(new PendingAnswer(questionId, answer, isCorrect, responseMillis));
+                    }
+                } else if (type == FINISH) {
+                    PendingSession session = pending.computeIfAbsent(sessionId,
+                        k -> new PendingSession(k, null, null, null, null, 0L, false));
+                    session.readResult(in);
+                } else if (type == REPLAYED) {
+                    pending.remove(sessionId);
+                }
+            } catch (IOException e) {
+                System.err.println("Record jurnal offline #" + id + " rusak, dilewati: " + e.getMessage());
+            }
+        });
+        if (!pending.isEmpty()) {
+            System.out.println("Jurnal offline berisi " + pending.size() + " sesi yang belum tersimpan");
+        }
+    }
+
+    synchronized int startSession(String playerName, String categoryName, String difficulty) throws IOException {
+        int sessionId = nextOfflineId--;
+        PendingSession session = new PendingSession(sessionId, UUID.randomUUID().toString(),
+            playerName, categoryName, difficulty, System.currentTimeMillis(), true);
+        append(SESSION, sessionId, out -> {
+            out.writeUTF(session.clientToken);
+            out.writeUTF(playerName);
+            out.writeUTF(categoryName);
+            out.writeUTF(difficulty);
+            out.writeLong(session.startedAt);
+        });
+        log.force();
+        pending.put(sessionId, session);
+        return sessionId;
+    }
+
+    synchronized void answer(int sessionId, int questionId, String userAnswer, boolean isCorrect,
+                             int responseMillis) throws IOException {
+        PendingSession session = pending.get(sessionId);
+        if (session == null) {
+            return;
+        }
+        String answer = userAnswer != null ? userAnswer : "";
+        append(ANSWER, sessionId, out -> {
+            out.writeInt(questionId);
+            out.writeUTF(answer);
+            out.writeBoolean(isCorrect);
+            out.writeInt(responseMillis);
+        });
+        session.answers.add(new PendingAnswer(questionId, answer, isCorrect, responseMillis));
+    }
+
+    synchronized void finish(int sessionId, int totalScore, int questionsAnswered, int correctAnswers,
+                             int wrongAnswers, int timeTaken, int skipUsed, int fiftyFiftyUsed,
+                             int speedBonus) throws IOException {
+        PendingSession session = pending.computeIfAbsent(sessionId,
+            k -> new PendingSession(k, null, null, null, null, 0L, true));
+        session.totalScore = totalScore;
+        session.questionsAnswered = questionsAnswered;
+        session.correctAnswers = correctAnswers;
+        session.wrongAnswers = wrongAnswers;
+        session.timeTaken = timeTaken;
+        session.skipUsed = skipUsed;
+        session.fiftyFiftyUsed = fiftyFiftyUsed;
+        session.speedBonus = speedBonus;
+        session.finishedAt = System.currentTimeMillis();
+        session.finished = true;
+        append(FINISH, sessionId, session::writeResult);
+        log.force();
+    }
+
+    // sesi yang masih dimainkan di proses ini belum boleh diputar ulang
+    synchronized List<PendingSession> replayable() {
+        List<PendingSession> result = new ArrayList<>();
+        for (PendingSession session : pending.values()) {
+            if (session.finished || !session.startedThisRun) {
+                result.add(session);
+            }
+        }
+        return result;
+    }
+
+    synchronized boolean hasPending() {
+        return !pending.isEmpty();
+    }
+
+    synchronized void markReplayed(int sessionId) throws IOException {
+        if (pending.remove(sessionId) == null) {
+            return;
+        }
+        if (pending.isEmpty()) {
+            log.close();
+            if (!dataFile.delete() || !indexFile.delete()) {
+                System.err.println("Jurnal offline tidak bisa dibersihkan: " + dataFile.getPath());
+            }
+            log = new AppendLog(dataFile, indexFile);
+            if (!log.isEmpty()) {
+                // file lama gagal dihapus, tandai saja supaya tidak diputar ulang lagi
+                append(REPLAYED, sessionId, out -> { });
+                log.force();
+            }
+        } else {
+            append(REPLAYED, sessionId, out -> { });
+            log.force();
+        }
+    }
+
+    synchronized void close() {
+        try {
+            log.close();
+        } catch (IOException e) {
+            System.err.println("Gagal menutup jurnal offline: " + e.getMessage());
+        }
+    }
+
+    private void append(byte type, int sessionId, RecordWriter writer) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(type);
+            out.writeInt(sessionId);
+            writer.write(out);
+        }
+        log.append(bytes.toByteArray());
+    }
+
+    private interface RecordWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    static class PendingAnswer {
+        final int questionId;
+        final String userAnswer;
+        final boolean isCorrect;
+        final int responseMillis;
+
+        PendingAnswer(int questionId, String userAnswer, boolean isCorrect, int responseMillis) {
+            this.questionId = questionId;
+            this.userAnswer = userAnswer;
+            this.isCorrect = isCorrect;
+            this.responseMillis = responseMillis;
+        }
+    }
+
+    static class PendingSession {
+        final int sessionId;
+        final String clientToken;
+        final String playerName;
+        final String categoryName;
+        final String difficulty;
+        final long startedAt;
+        final List<PendingAnswer> answers = new ArrayList<>();
+        private final boolean startedThisRun;
+
+        boolean finished;
+        int totalScore;
+        int questionsAnswered;
+        int correctAnswers;
+        int wrongAnswers;
+        int timeTaken;
+        int skipUsed;
+        int fiftyFiftyUsed;
+        int speedBonus;
+        long finishedAt;
+
+        PendingSession(int sessionId, String clientToken, String playerName, String categoryName,
+                       String difficulty, long startedAt, boolean startedThisRun) {
+            this.sessionId = sessionId;
+            this.clientToken = clientToken;
+            this.playerName = playerName;
+            this.categoryName = categoryName;
+            this.difficulty = difficulty;
+            this.startedAt = startedAt;
+            this.startedThisRun = startedThisRun;
+        }
+
+        // sesi online yang hanya gagal di tahap finishSession
+        boolean isOnline() {
+            return sessionId > 0;
+        }
+
+        void writeResult(DataOutputStream out) throws IOException {
+            out.writeInt(totalScore);
+            out.writeInt(questionsAnswered);
+            out.writeInt(correctAnswers);
+            out.writeInt(wrongAnswers);
+            out.writeInt(timeTaken);
+            out.writeInt(skipUsed);
+            out.writeInt(fiftyFiftyUsed);
+            out.writeInt(speedBonus);
+            out.writeLong(finishedAt);
+        }
+
+        void readResult(DataInputStream in) throws IOException {
+            totalScore = in.readInt();
+            questionsAnswered = in.readInt();
+            correctAnswers = in.readInt();
+            wrongAnswers = in.readInt();
+            timeTaken = in.readInt();
+            skipUsed = in.readInt();
+            fiftyFiftyUsed = in.readInt();
+            speedBonus = in.readInt();
+            finishedAt = in.readLong();
+            finished = true;
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package core;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import util.Constants;
+
+public class QuestionBank {
+
+    private static final long REFRESH_INTERVAL_MS = 60 * 1000;
+    // refresh biasa hanya melihat created_at, jadi soal yang dihapus atau dipindah kategori/level
+    // baru ketahuan lewat pencocokan id seluruh partisi ini
+    private static final long RECONCILE_INTERVAL_MS = 5 * 60 * 1000;
+
+    private static final String BY_NAME_QUERY =
+        "SELECT q.* FROM questions q " +
+        "JOIN categories c ON q.category_id = c.category_id " +
+        "WHERE c.category_name = ? AND q.difficulty_level = ?";
+    private static final String BY_CATEGORY_ID_QUERY =
+        "SELECT q.* FROM questions q WHERE q.category_id = ?";
+
+    private final Database database;
+    private volatile QuestionSnapshot snapshot;
+    private final ConcurrentHashMap<String, Partition> partitions = new ConcurrentHashMap<>();
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "QuestionBank-Refresh");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public QuestionBank(Database database) {
+        this.database = database;
+        this.snapshot = QuestionSnapshot.openLatest(new File(Constants.QUESTION_SNAPSHOT_PATH));
+    }
+
+    public List<Database.Question> draw(String categoryName, String dbDifficulty, int limit) throws SQLException {
+        String key = "name:" + categoryName + "|" + dbDifficulty;
+        QuestionSnapshot current = snapshot;
+        QuestionSnapshot.Slice seed = current != null ? current.get(categoryName, dbDifficulty) : null;
+        return draw(key, BY_NAME_QUERY, new Object[] { categoryName, dbDifficulty }, seed, limit);
+    }
+
+    public List<Database.Question> draw(int categoryId, int limit) throws SQLException {
+        String key = "id:" + categoryId;
+        QuestionSnapshot current = snapshot;
+        QuestionSnapshot.Slice seed = current != null ? current.get(categoryId) : null;
+        return draw(key, BY_CATEGORY_ID_QUERY, new Object[] { categoryId }, seed, limit);
+    }
+
+    private List<Database.Question> draw(String key, String query, Object[] params,
+                                         QuestionSnapshot.Slice seed, int limit) throws SQLException {
+        Partition partition = partitions.get(key);
+        if (partition == null) {
+            Partition loaded = new Partition(query, params);
+            if (seed != null) {
+                // cold start dari snapshot, soal yang lebih baru menyusul lewat refresh
+                loaded.loadSnapshot(seed, snapshot.getWatermark());
+            } else {
+                loaded.load();
+            }
+            Partition existing = partitions.putIfAbsent(key, loaded);
+            partition = existing != null ? existing : loaded;
+        } else if (partition.isStale()) {
+            scheduleRefresh(partition);
+        }
+        return partition.sample(limit);
+    }
+
+    private void scheduleRefresh(Partition partition) {
+        if (!partition.beginRefresh()) {
+            return;
+        }
+        refresher.execute(() -> {
+            try {
+                partition.refresh();
+            } catch (SQLException e) {
+                System.err.println("Gagal memperbarui bank soal: " + e.getMessage());
+            } finally {
+                partition.endRefresh();
+            }
+        });
+    }
+
+    public void invalidate() {
+        snapshot = QuestionSnapshot.openLatest(new File(Constants.QUESTION_SNAPSHOT_PATH));
+        partitions.clear();
+    }
+
+    public int cachedQuestionCount() {
+        int total = 0;
+        for (Partition partition : partitions.values()) {
+            total += partition.size();
+        }
+        return total;
+    }
+
+    static Database.Question readQuestion(ResultSet rs) throws SQLException {
+        return new Database.Question(
+            rs.getInt("question_id"),
+            rs.getInt("category_id"),
+            rs.getString("question_text"),
+            rs.getString("option_a"),
+            rs.getString("option_b"),
+            rs.getString("option_c"),
+            rs.getString("option_d"),
+            rs.getString("correct_answer"),
+            rs.getString("difficulty_level")
+        );
+    }
+
+    private class Partition {
+        private final String query;
+        private final String idQuery;
+        private final Object[] params;
+
+        private Database.Question[] items = new Database.Question[0];
+        private QuestionSnapshot.Slice lazySource;
+        private int[] order = new int[0];
+        private int size = 0;
+        private final Set<Integer> knownIds = new HashSet<>();
+        private Timestamp watermark;
+        private volatile long lastRefreshAt;
+        private volatile long lastReconcileAt;
+        private boolean refreshing = false;
+
+        Partition(String query, Object[] params) {
+            this.query = query;
+            this.idQuery = query.replaceFirst("SELECT q\\.\\*", "SELECT q.question_id");
+            this.params = params;
+        }
+
+        void load() throws SQLException {
+            fetch(null);
+            lastReconcileAt = System.currentTimeMillis();
+        }
+
+        synchronized void loadSnapshot(QuestionSnapshot.Slice slice, Timestamp snapshotWatermark) {
+            int count = slice.size();
+            lazySource = slice;
+            items = new Database.Question[Math.max(16, count)];
+            order = new int[items.length];
+            for (int i = 0; i < count; i++) {
+                knownIds.add(slice.idAt(i));
+                order[i] = i;
+            }
+            size = count;
+            watermark = snapshotWatermark;
+            // lastRefreshAt dan lastReconcileAt dibiarkan 0 supaya undian pertama langsung memicu
+            // refresh dari database, termasuk membuang soal snapshot yang sudah dihapus/dipindah
+        }
+
+        void refresh() throws SQLException {
+            Timestamp since;
+            synchronized (this) {
+                since = watermark;
+            }
+            int added = fetch(since);
+            int removed = 0;
+            if (System.currentTimeMillis() - lastReconcileAt > RECONCILE_INTERVAL_MS) {
+                Set<Integer> current = fetchIds();
+                removed = retainOnly(current);
+                if (hasUnknown(current)) {
+                    // soal lama yang baru masuk partisi ini (kategori/level diubah)
+                    added += fetch(null);
+                }
+                lastReconcileAt = System.currentTimeMillis();
+            }
+            if (added > 0 || removed > 0) {
+                System.out.println("Bank soal diperbarui: +" + added + " soal, -" + removed + " soal");
+            }
+        }
+
+        private Set<Integer> fetchIds() throws SQLException {
+            Set<Integer> ids = new HashSet<>();
+            try (Connection conn = database.getReadConnection();
+                 PreparedStatement stmt = conn.prepareStatement(idQuery)) {
+                int index = 1;
+                for (Object param : params) {
+                    stmt.setObject(index++, param);
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        ids.add(rs.getInt(1));
+                    }
+                }
+            }
+            return ids;
+        }
+
+        private synchronized boolean hasUnknown(Set<Integer> current) {
+            return !knownIds.containsAll(current);
+        }
+
+        // buang soal yang tidak lagi ada di partisi ini; array dipadatkan ulang
+        private synchronized int retainOnly(Set<Integer> current) {
+            int removed = 0;
+            for (int i = 0; i < size; i++) {
+                if (!current.contains(idAt(i))) {
+                    removed++;
+                }
+            }
+            if (removed == 0) {
+                return 0;
+            }
+            Database.Question[] kept = new Database.Question[items.length];
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                int id = idAt(i);
+                if (current.contains(id)) {
+                    kept[count++] = items[i] != null ? items[i] : lazySource.get(i);
+                } else {
+                    knownIds.remove(id);
+                }
+            }
+            items = kept;
+            order = new int[kept.length];
+            for (int i = 0; i < count; i++) {
+                order[i] = i;
+            }
+            size = count;
+            lazySource = null;
+            return removed;
+        }
+
+        private int idAt(int index) {
+            return items[index] != null ? items[index].id : lazySource.idAt(index);
+        }
+
+        private int fetch(Timestamp since) throws SQLException {
+            String sql = since == null ? query : query + " AND q.created_at >= ?";
+            List<Database.Question> fetched = new ArrayList<>();
+            Timestamp newest = since;
+
+            try (Connection conn = database.getReadConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                int index = 1;
+                for (Object param : params) {
+                    stmt.setObject(index++, param);
+                }
+                if (since != null) {
+                    stmt.setTimestamp(index, since);
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        fetched.add(readQuestion(rs));
+                        Timestamp createdAt = rs.getTimestamp("created_at");
+                        if (createdAt != null && (newest == null || createdAt.after(newest))) {
+                            newest = createdAt;
+                        }
+                    }
+                }
+            }
+
+            return append(fetched, newest);
+        }
+
+        private synchronized int append(List<Database.Question> fetched, Timestamp newest) {
+            int added = 0;
+            for (Database.Question question : fetched) {
+                if (!knownIds.add(question.id)) {
+                    continue;
+                }
+                if (size == items.length) {
+                    int capacity = Math.max(16, items.length * 2);
+                    items = Arrays.copyOf(items, capacity);
+                    order = Arrays.copyOf(order, capacity);
+                }
+                items[size] = question;
+                order[size] = size;
+                size++;
+                added++;
+            }
+            if (newest != null) {
+                watermark = newest;
+            }
+            lastRefreshAt = System.currentTimeMillis();
+            return added;
+        }
+
+        boolean isStale() {
+            return System.currentTimeMillis() - lastRefreshAt > REFRESH_INTERVAL_MS;
+        }
+
+        synchronized boolean beginRefresh() {
+            if (refreshing) {
+                return false;
+            }
+            refreshing = true;
+            return true;
+        }
+
+        synchronized void endRefresh() {
+            refreshing = false;
+            lastRefreshAt = System.currentTimeMillis();
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized List<Database.Question> sample(int limit) {
+            int count = Math.min(limit, size);
+            List<Database.Question> result = new ArrayList<>(count);
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < count; i++) {
+                int j = i + random.nextInt(size - i);
+                int picked = order[j];
+                order[j] = order[i];
+                order[i] = picked;
+                if (items[picked] == null && lazySource != null) {
+                    items[picked] = lazySource.get(picked);
+                }
+                result.add(items[picked]);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,628 @@
+package core;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Import soal massal dari CSV atau JSON.
+//   - file dibaca per record (streaming), memori tetap berapapun jumlah soalnya
+//   - correct_answer harus A-D, difficulty EASY/MEDIUM/HARD atau MUDAH/SEDANG/SULIT
+//   - kategori boleh nama atau id, di-resolve lewat cache (opsional dibuat otomatis)
+//   - ditulis dengan INSERT multi-baris, satu transaksi per CHUNK_SIZE soal
+// Kolom CSV (baris header) / key JSON:
+//   category, question_text, option_a, option_b, option_c, option_d, correct_answer, difficulty
+public class QuestionImporter {
+
+    private static final int ROWS_PER_STATEMENT = 500;
+    private static final int CHUNK_SIZE = 5000;
+    private static final int MAX_REPORTED_ERRORS = 20;
+    private static final int MAX_OPTION_LENGTH = 255;
+    private static final int COLUMN_COUNT = 8;
+
+    private static final String INSERT_PREFIX =
+        "INSERT INTO questions (category_id, question_text, option_a, option_b, option_c, option_d, " +
+        "correct_answer, difficulty_level) VALUES ";
+    private static final String ROW_PLACEHOLDER = "(?, ?, ?, ?, ?, ?, ?, ?)";
+
+    public interface ProgressListener {
+        void onProgress(long recordsRead, long imported, long rejected);
+    }
+
+    private final Database database;
+    private final boolean createCategories;
+    private final Map<String, Integer> categoryIds = new HashMap<>();
+    private final Map<Integer, String> categoryNames = new HashMap<>();
+    // kategori yang dibuat di chunk yang belum di-commit, dibuang dari cache kalau chunk di-rollback
+    private final List<Integer> createdInChunk = new ArrayList<>();
+
+    public QuestionImporter(Database database, boolean createCategories) {
+        this.database = database;
+        this.createCategories = createCategories;
+    }
+
+    public Result importFile(File file, ProgressListener listener) throws IOException, SQLException {
+        String name = file.getName().toLowerCase(Locale.ROOT);
+        try (Reader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8), 1 << 16)) {
+            RecordSource source = name.endsWith(".json") || name.endsWith(".ndjson")
+                ? new JsonRecordSource(reader)
+                : new CsvRecordSource((BufferedReader) reader);
+            return importRecords(source, listener);
+        }
+    }
+
+    private Result importRecords(RecordSource source, ProgressListener listener) throws IOException, SQLException {
+        Result result = new Result();
+        long start = System.nanoTime();
+
+        try (Connection conn = database.getConnection()) {
+            loadCategories(conn);
+            conn.setAutoCommit(false);
+            PreparedStatement fullStatement = conn.prepareStatement(insertSql(ROWS_PER_STATEMENT));
+            try {
+                Object[][] rows = new Object[ROWS_PER_STATEMENT][];
+                int buffered = 0;
+                int inChunk = 0;
+
+                Map<String, String> record;
+                while ((record = source.next()) != null) {
+                    result.read++;
+                    Object[] row;
+                    try {
+                        row = toRow(conn, record);
+                    } catch (IllegalArgumentException e) {
+                        result.reject(source.position(), e.getMessage());
+                        continue;
+                    }
+
+                    rows[buffered++] = row;
+                    if (buffered == ROWS_PER_STATEMENT) {
+                        write(fullStatement, rows, buffered);
+                        inChunk += buffered;
+                        buffered = 0;
+                    }
+                    if (inChunk >= CHUNK_SIZE) {
+                        conn.commit();
+                        createdInChunk.clear();
+                        result.imported += inChunk;
+                        inChunk = 0;
+                        if (listener != null) {
+                            listener.onProgress(result.read, result.imported, result.rejected);
+                        }
+                    }
+                }
+
+                if (buffered > 0) {
+                    try (PreparedStatement tail = conn.prepareStatement(insertSql(buffered))) {
+                        write(tail, rows, buffered);
+                    }
+                    inChunk += buffered;
+                }
+                conn.commit();
+                createdInChunk.clear();
+                result.imported += inChunk;
+            } catch (SQLException | IOException | RuntimeException e) {
+                // chunk yang sudah di-commit tetap tersimpan, hanya chunk berjalan yang dibatalkan
+                conn.rollback();
+                forgetCreatedCategories();
+                result.failedAt = source.position();
+                throw new ImportException(result, e);
+            } finally {
+                fullStatement.close();
+                conn.setAutoCommit(true);
+            }
+        }
+
+        result.elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        if (listener != null) {
+            listener.onProgress(result.read, result.imported, result.rejected);
+        }
+        return result;
+    }
+
+    private static String insertSql(int rowCount) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rowCount * (ROW_PLACEHOLDER.length() + 2));
+        sql.append(INSERT_PREFIX);
+        for (int i = 0; i < rowCount; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDER);
+        }
+        return sql.toString();
+    }
+
+    private static void write(PreparedStatement stmt, Object[][] rows, int count) throws SQLException {
+        int param = 1;
+        for (int r = 0; r < count; r++) {
+            Object[] row = rows[r];
+            stmt.setInt(param++, (Integer) row[0]);
+            for (int c = 1; c < COLUMN_COUNT; c++) {
+                stmt.setString(param++, (String) row[c]);
+            }
+            rows[r] = null;
+        }
+        stmt.executeUpdate();
+    }
+
+    private void forgetCreatedCategories() {
+        for (int id : createdInChunk) {
+            String name = categoryNames.remove(id);
+            if (name != null) {
+                categoryIds.remove(name.toLowerCase(Locale.ROOT));
+            }
+        }
+        createdInChunk.clear();
+    }
+
+    // dipanggil di awal setiap file, cache dibangun ulang dari isi tabel saat ini
+    private void loadCategories(Connection conn) throws SQLException {
+        categoryIds.clear();
+        categoryNames.clear();
+        createdInChunk.clear();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT category_id, category_name FROM categories")) {
+            while (rs.next()) {
+                categoryIds.put(rs.getString("category_name").toLowerCase(Locale.ROOT), rs.getInt("category_id"));
+                categoryNames.put(rs.getInt("category_id"), rs.getString("category_name"));
+            }
+        }
+    }
+
+    private Object[] toRow(Connection conn, Map<String, String> record) throws SQLException {
+        String category = field(record, "category", "category_name", "category_id", "kategori");
+        String question = field(record, "question_text", "question", "soal");
+        String[] options = {
+            field(record, "option_a", "a"),
+            field(record, "option_b", "b"),
+            field(record, "option_c", "c"),
+            field(record, "option_d", "d")
+        };
+        String answer = field(record, "correct_answer", "answer", "jawaban");
+        String difficulty = field(record, "difficulty_level", "difficulty", "level");
+
+        if (category == null) throw new IllegalArgumentException("kategori kosong");
+        if (question == null) throw new IllegalArgumentException("question_text kosong");
+        for (int i = 0; i < options.length; i++) {
+            if (options[i] == null) {
+                throw new IllegalArgumentException("option_" + (char) ('a' + i) + " kosong");
+            }
+            if (options[i].length() > MAX_OPTION_LENGTH) {
+                throw new IllegalArgumentException("option_" + (char) ('a' + i) + " lebih dari " + MAX_OPTION_LENGTH + " karakter");
+            }
+        }
+
+        String correct = answer != null ? answer.toUpperCase(Locale.ROOT) : "";
+        if (correct.length() != 1 || correct.charAt(0) < 'A' || correct.charAt(0) > 'D') {
+            throw new IllegalArgumentException("correct_answer harus A, B, C atau D (bukan '" + answer + "')");
+        }
+
+        String level = difficulty != null ? Database.convertDifficultyToDb(difficulty) : "MEDIUM";
+        if (!level.equals("EASY") && !level.equals("MEDIUM") && !level.equals("HARD")) {
+            throw new IllegalArgumentException("difficulty_level tidak dikenal: " + difficulty);
+        }
+
+        return new Object[] { resolveCategory(conn, category), question,
+            options[0], options[1], options[2], options[3], correct, level };
+    }
+
+    private static String field(Map<String, String> record, String... keys) {
+        for (String key : keys) {
+            String value = record.get(key);
+            if (value != null) {
+                value = value.trim();
+                return value.isEmpty() ? null : value;
+            }
+        }
+        return null;
+    }
+
+    private int resolveCategory(Connection conn, String category) throws SQLException {
+        Integer cached = categoryIds.get(category.toLowerCase(Locale.ROOT));
+        if (cached != null) {
+            return cached;
+        }
+        if (category.chars().allMatch(Character::isDigit) && category.length() < 10) {
+            int id = Integer.parseInt(category);
+            if (categoryNames.containsKey(id)) {
+                return id;
+            }
+            throw new IllegalArgumentException("category_id " + id + " tidak ada");
+        }
+        if (!createCategories) {
+            throw new IllegalArgumentException("kategori '" + category + "' tidak ada (pakai --create-categories)");
+        }
+
+        // kategori baru ikut transaksi chunk yang sedang berjalan
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO categories (category_name) VALUES (?)", Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setString(1, category);
+            stmt.executeUpdate();
+            try (ResultSet rs = stmt.getGeneratedKeys()) {
+                if (!rs.next()) {
+                    throw new SQLException("Id kategori baru tidak dikembalikan: " + category);
+                }
+                int id = rs.getInt(1);
+                categoryIds.put(category.toLowerCase(Locale.ROOT), id);
+                categoryNames.put(id, category);
+                createdInChunk.add(id);
+                System.out.println("Kategori baru dibuat: " + category + " (#" + id + ")");
+                return id;
+            }
+        }
+    }
+
+    public static class Result {
+        private long read;
+        private long imported;
+        private long rejected;
+        private long failedAt = -1;
+        private long elapsedMillis;
+        private final List<String> errors = new ArrayList<>();
+
+        private void reject(long position, String reason) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("record " + position + ": " + reason);
+            }
+        }
+
+        public long getRead() { return read; }
+        public long getImported() { return imported; }
+        public long getRejected() { return rejected; }
+        public long getFailedAt() { return failedAt; }
+        public long getElapsedMillis() { return elapsedMillis; }
+        public List<String> getErrors() { return errors; }
+    }
+
+    public static class ImportException extends SQLException {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Result result;
+
+        ImportException(Result result, Exception cause) {
+            super("Import berhenti di record " + result.failedAt + " setelah " + result.imported +
+                  " soal tersimpan: " + cause.getMessage(), cause);
+            this.result = result;
+        }
+
+        public Result getResult() { return result; }
+    }
+
+    private interface RecordSource {
+        Map<String, String> next() throws IOException;
+        long position();
+    }
+
+    // RFC 4180: field dengan tanda kutip boleh berisi koma, "" dan baris baru.
+    // Pemisah ',' atau ';' (ekspor Excel lokal) ditebak dari baris header.
+    private static class CsvRecordSource implements RecordSource {
+        private final BufferedReader reader;
+        private final char delimiter;
+        private final String[] header;
+        private long line = 1;
+        private long recordLine;
+
+        CsvRecordSource(BufferedReader reader) throws IOException {
+            this.reader = reader;
+            reader.mark(1 << 15);
+            String first = reader.readLine();
+            reader.reset();
+            if (first == null) {
+                throw new IOException("File CSV kosong");
+            }
+            this.delimiter = count(first, ';') > count(first, ',') ? ';' : ',';
+
+            int bom = reader.read();
+            if (bom != '\uFEFF' && bom != -1) {
+                reader.reset();
+            }
+            List<String> columns = readRow();
+            this.header = new String[columns.size()];
+            for (int i = 0; i < header.length; i++) {
+                header[i] = columns.get(i).trim().toLowerCase(Locale.ROOT);
+            }
+        }
+
+        private static int count(String text, char c) {
+            int n = 0;
+            for (int i = 0; i < text.length(); i++) {
+                if (text.charAt(i) == c) n++;
+            }
+            return n;
+        }
+
+        @Override
+        public Map<String, String> next() throws IOException {
+            while (true) {
+                List<String> values = readRow();
+                if (values == null) {
+                    return null;
+                }
+                if (values.size() == 1 && values.get(0).isEmpty()) {
+                    continue;
+                }
+                Map<String, String> record = new HashMap<>(header.length * 2);
+                for (int i = 0; i < header.length && i < values.size(); i++) {
+                    record.put(header[i], values.get(i));
+                }
+                return record;
+            }
+        }
+
+        @Override
+        public long position() {
+            return recordLine;
+        }
+
+        private List<String> readRow() throws IOException {
+            recordLine = line;
+            List<String> values = new ArrayList<>(COLUMN_COUNT);
+            StringBuilder value = new StringBuilder();
+            boolean quoted = false;
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            while (true) {
+                if (c == -1) {
+                    values.add(value.toString());
+                    return values;
+                }
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        int peek = reader.read();
+                        if (peek == '"') {
+                            value.append('"');
+                        } else {
+                            quoted = false;
+                            if (peek != -1) {
+                                reader.reset();
+                            }
+                        }
+                    } else {
+                        if (c == '\n') line++;
+                        value.append((char) c);
+                    }
+                } else if (c == '"' && value.length() == 0) {
+                    quoted = true;
+                } else if (c == delimiter) {
+                    values.add(value.toString());
+                    value.setLength(0);
+                } else if (c == '\n' || c == '\r') {
+                    if (c == '\r') {
+                        reader.mark(1);
+                        if (reader.read() != '\n') {
+                            reader.reset();
+                        }
+                    }
+                    line++;
+                    values.add(value.toString());
+                    return values;
+                } else {
+                    value.append((char) c);
+                }
+                c = reader.read();
+            }
+        }
+    }
+
+    // Pull parser kecil untuk array JSON berisi objek datar ([{...}, {...}]) atau
+    // satu objek per baris (NDJSON). Hanya satu objek yang ada di memori.
+    private static class JsonRecordSource implements RecordSource {
+        private final Reader reader;
+        private int peeked = -2;
+        private long index = 0;
+
+        JsonRecordSource(Reader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public Map<String, String> next() throws IOException {
+            int c = skipWhitespace();
+            while (c == '[' || c == ',' || c == '\uFEFF') {
+                read();
+                c = skipWhitespace();
+            }
+            if (c == -1 || c == ']') {
+                return null;
+            }
+            if (c != '{') {
+                throw new IOException("JSON tidak valid di objek ke-" + (index + 1) + ": diharapkan '{'");
+            }
+            read();
+            index++;
+
+            Map<String, String> record = new HashMap<>();
+            c = skipWhitespace();
+            if (c == '}') {
+                read();
+                return record;
+            }
+            while (true) {
+                if (skipWhitespace() != '"') {
+                    throw new IOException("JSON tidak valid di objek ke-" + index + ": key harus string");
+                }
+                read();
+                String key = readString().toLowerCase(Locale.ROOT);
+                if (skipWhitespace() != ':') {
+                    throw new IOException("JSON tidak valid di objek ke-" + index + ": ':' hilang setelah " + key);
+                }
+                read();
+                String value = readValue();
+                if (value != null) {
+                    record.put(key, value);
+                }
+                c = skipWhitespace();
+                read();
+                if (c == '}') {
+                    return record;
+                }
+                if (c != ',') {
+                    throw new IOException("JSON tidak valid di objek ke-" + index + ": diharapkan ',' atau '}'");
+                }
+            }
+        }
+
+        @Override
+        public long position() {
+            return index;
+        }
+
+        private int peek() throws IOException {
+            if (peeked == -2) {
+                peeked = reader.read();
+            }
+            return peeked;
+        }
+
+        private int read() throws IOException {
+            int c = peek();
+            peeked = -2;
+            return c;
+        }
+
+        private int skipWhitespace() throws IOException {
+            int c = peek();
+            while (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+                read();
+                c = peek();
+            }
+            return c;
+        }
+
+        private String readValue() throws IOException {
+            int c = skipWhitespace();
+            if (c == '"') {
+                read();
+                return readString();
+            }
+            if (c == '{' || c == '[') {
+                // nilai bersarang tidak dipakai, dilewati sampai kurung penutupnya
+                skipNested();
+                return null;
+            }
+            StringBuilder literal = new StringBuilder();
+            while (c != -1 && c != ',' && c != '}' && c != ']' && !Character.isWhitespace(c)) {
+                literal.append((char) read());
+                c = peek();
+            }
+            String text = literal.toString();
+            return text.equals("null") ? null : text;
+        }
+
+        private void skipNested() throws IOException {
+            int depth = 0;
+            do {
+                int c = read();
+                if (c == -1) {
+                    throw new IOException("JSON terpotong di objek ke-" + index);
+                }
+                if (c == '"') {
+                    readString();
+                } else if (c == '{' || c == '[') {
+                    depth++;
+                } else if (c == '}' || c == ']') {
+                    depth--;
+                }
+            } while (depth > 0);
+        }
+
+        private String readString() throws IOException {
+            StringBuilder sb = new StringBuilder();
+            while (true) {
+                int c = read();
+                if (c == -1) {
+                    throw new IOException("String JSON tidak ditutup di objek ke-" + index);
+                }
+                if (c == '"') {
+                    return sb.toString();
+                }
+                if (c != '\\') {
+                    sb.append((char) c);
+                    continue;
+                }
+                int e = read();
+                switch (e) {
+                    case 'n': sb.append('\n'); break;
+                    case 't': sb.append('\t'); break;
+                    case 'r': sb.append('\r'); break;
+                    case 'b': sb.append('\b'); break;
+                    case 'f': sb.append('\f'); break;
+                    case 'u':
+                        char[] hex = new char[4];
+                        for (int i = 0; i < 4; i++) {
+                            hex[i] = (char) read();
+                        }
+                        sb.append((char) Integer.parseInt(new String(hex), 16));
+                        break;
+                    default: sb.append((char) e);
+                }
+            }
+        }
+    }
+
+    // java -cp bin:lib/* core.QuestionImporter [--create-categories] file.csv|file.json ...
+    public static void main(String[] args) {
+        boolean create = false;
+        List<File> files = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.equals("--create-categories")) {
+                create = true;
+            } else {
+                files.add(new File(arg));
+            }
+        }
+        if (files.isEmpty()) {
+            System.err.println("Pemakaian: core.QuestionImporter [--create-categories] <file.csv|file.json> ...");
+            return;
+        }
+
+        Database db = Database.getInstance();
+        QuestionImporter importer = new QuestionImporter(db, create);
+        try {
+            for (File file : files) {
+                long start = System.currentTimeMillis();
+                System.out.println("Import " + file.getPath());
+                Result result;
+                try {
+                    result = importer.importFile(file, (read, imported, rejected) -> {
+                        double seconds = Math.max(0.001, (System.currentTimeMillis() - start) / 1000.0);
+                        System.out.printf(Locale.ROOT, "  %,d dibaca, %,d tersimpan, %,d ditolak (%.0f soal/detik)%n",
+                            read, imported, rejected, imported / seconds);
+                    });
+                } catch (ImportException e) {
+                    System.err.println(e.getMessage());
+                    result = e.getResult();
+                }
+                for (String error : result.getErrors()) {
+                    System.err.println("  ditolak " + error);
+                }
+                if (result.getRejected() > result.getErrors().size()) {
+                    System.err.println("  ... dan " + (result.getRejected() - result.getErrors().size()) + " record lain");
+                }
+                System.out.println("Selesai: " + result.getImported() + " soal dalam " + result.getElapsedMillis() + " ms");
+            }
+        } catch (IOException | SQLException e) {
+            System.err.println("Import gagal: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            db.closeConnection();
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package core;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import util.Constants;
+
+// Snapshot biner bank soal:
+//   header  : magic, versi, watermark created_at, jumlah partisi
+//   direktori: per partisi (kategori + level) -> id kategori, nama, level, jumlah soal, posisi tabel offset
+//   tabel offset int per soal, lalu blob soal (id, kategori, 7 string UTF-8 berawalan panjang)
+// Soal baru di-decode dari MappedByteBuffer saat benar-benar diundi.
+// Setiap export ditulis ke file baru questions-<versi>.snap, bukan menimpa file yang sedang
+// dipetakan kios lain (di Windows file yang di-map tidak bisa diganti atau dihapus);
+// openLatest memilih versi terbaru dan versi lama dibuang begitu tidak dipakai lagi.
+public class QuestionSnapshot {
+
+    private static final int MAGIC = 0x52515331;
+    private static final int VERSION = 1;
+    private static final int FIELD_COUNT = 7;
+
+    private final MappedByteBuffer buffer;
+    private final long watermark;
+    private final Map<String, Slice> byName = new HashMap<>();
+    private final Map<Integer, Slice> byCategory = new HashMap<>();
+
+    private QuestionSnapshot(MappedByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.limit() < 20 || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Format snapshot soal tidak dikenali");
+        }
+        this.watermark = buffer.getLong(8);
+        int partitionCount = buffer.getInt(16);
+
+        Map<Integer, List<int[]>> categoryOffsets = new LinkedHashMap<>();
+        int position = 20;
+        for (int p = 0; p < partitionCount; p++) {
+            int categoryId = buffer.getInt(position);
+            String categoryName = readString(position + 4);
+            position += 8 + utfLength(position + 4);
+            String difficulty = readString(position);
+            position += 4 + utfLength(position);
+            int count = buffer.getInt(position);
+            int tableStart = buffer.getInt(position + 4);
+            position += 8;
+
+            int[] offsets = new int[count];
+            for (int i = 0; i < count; i++) {
+                offsets[i] = buffer.getInt(tableStart + i * 4);
+            }
+            byName.put(key(categoryName, difficulty), new Slice(offsets));
+            categoryOffsets.computeIfAbsent(categoryId, k -> new ArrayList<>()).add(offsets);
+        }
+
+        for (Map.Entry<Integer, List<int[]>> entry : categoryOffsets.entrySet()) {
+            int total = 0;
+            for (int[] offsets : entry.getValue()) {
+                total += offsets.length;
+            }
+            int[] merged = new int[total];
+            int index = 0;
+            for (int[] offsets : entry.getValue()) {
+                System.arraycopy(offsets, 0, merged, index, offsets.length);
+                index += offsets.length;
+            }
+            byCategory.put(entry.getKey(), new Slice(merged));
+        }
+    }
+
+    public static QuestionSnapshot openLatest(File base) {
+        return open(latest(base));
+    }
+
+    // versi terbaru di folder base, atau base sendiri (snapshot lama tanpa versi)
+    public static File latest(File base) {
+        File newest = base;
+        long newestVersion = -1;
+        for (File candidate : listFiles(base)) {
+            long version = versionOf(base, candidate);
+            if (version > newestVersion) {
+                newest = candidate;
+                newestVersion = version;
+            }
+        }
+        return newest;
+    }
+
+    private static File[] listFiles(File base) {
+        File parent = base.getAbsoluteFile().getParentFile();
+        File[] files = parent != null ? parent.listFiles() : null;
+        return files != null ? files : new File[0];
+    }
+
+    private static String stem(File base) {
+        String name = base.getName();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    private static String extension(File base) {
+        String name = base.getName();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(dot) : "";
+    }
+
+    private static long versionOf(File base, File candidate) {
+        String name = candidate.getName();
+        String prefix = stem(base) + "-";
+        String extension = extension(base);
+        if (!name.startsWith(prefix) || !name.endsWith(extension) ||
+            name.length() <= prefix.length() + extension.length()) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(prefix.length(), name.length() - extension.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // file lama yang masih di-map proses lain gagal dihapus; dicoba lagi di export berikutnya
+    private static void pruneOlderThan(File base, File keep) {
+        for (File candidate : listFiles(base)) {
+            if (versionOf(base, candidate) >= 0 && !candidate.getName().equals(keep.getName())) {
+                candidate.delete();
+            }
+        }
+        if (base.exists()) {
+            base.delete();
+        }
+    }
+
+    public static QuestionSnapshot open(File file) {
+        if (!file.exists()) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new QuestionSnapshot(mapped);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Snapshot soal tidak bisa dibaca (" + file.getPath() + "): " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static String key(String categoryName, String difficulty) {
+        return categoryName + "|" + difficulty;
+    }
+
+    public Slice get(String categoryName, String dbDifficulty) {
+        return byName.get(key(categoryName, dbDifficulty));
+    }
+
+    public Slice get(int categoryId) {
+        return byCategory.get(categoryId);
+    }
+
+    public Timestamp getWatermark() {
+        return watermark > 0 ? new Timestamp(watermark) : null;
+    }
+
+    private int utfLength(int position) {
+        return buffer.getInt(position);
+    }
+
+    private String readString(int position) {
+        int length = buffer.getInt(position);
+        byte[] bytes = new byte[length];
+        buffer.get(position + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public class Slice {
+        private final int[] offsets;
+
+        Slice(int[] offsets) {
+            this.offsets = offsets;
+        }
+
+        public int size() {
+            return offsets.length;
+        }
+
+        public int idAt(int index) {
+            return buffer.getInt(offsets[index]);
+        }
+
+        public Database.Question get(int index) {
+            int position = offsets[index];
+            int questionId = buffer.getInt(position);
+            int categoryId = buffer.getInt(position + 4);
+            position += 8;
+            String[] fields = new String[FIELD_COUNT];
+            for (int i = 0; i < FIELD_COUNT; i++) {
+                fields[i] = readString(position);
+                position += 4 + utfLength(position);
+            }
+            return new Database.Question(questionId, categoryId, fields[0], fields[1], fields[2],
+                fields[3], fields[4], fields[5], fields[6]);
+        }
+    }
+
+    // menulis versi baru di samping base (lihat latest), return jumlah soal
+    public static int export(Connection conn, File base) throws SQLException, IOException {
+        String query = "SELECT q.*, c.category_name FROM questions q " +
+                       "JOIN categories c ON q.category_id = c.category_id " +
+                       "ORDER BY q.category_id, q.difficulty_level, q.question_id";
+
+        Map<String, List<byte[]>> records = new LinkedHashMap<>();
+        Map<String, String[]> partitionInfo = new LinkedHashMap<>();
+        long watermark = 0;
+        int total = 0;
+
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+            while (rs.next()) {
+                Database.Question q = QuestionBank.readQuestion(rs);
+                String categoryName = rs.getString("category_name");
+                Timestamp createdAt = rs.getTimestamp("created_at");
+                if (createdAt != null) {
+                    watermark = Math.max(watermark, createdAt.getTime());
+                }
+
+                String key = key(categoryName, q.difficulty);
+                partitionInfo.putIfAbsent(key, new String[] { String.valueOf(q.categoryId), categoryName, q.difficulty });
+
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+                DataOutputStream out = new DataOutputStream(bytes);
+                out.writeInt(q.id);
+                out.writeInt(q.categoryId);
+                for (String field : new String[] { q.questionText, q.optionA, q.optionB, q.optionC,
+                                                   q.optionD, q.correctAnswer, q.difficulty }) {
+                    writeString(out, field);
+                }
+                records.computeIfAbsent(key, k -> new ArrayList<>()).add(bytes.toByteArray());
+                total++;
+            }
+        }
+
+        // ukuran direktori dihitung dulu supaya posisi tabel offset bisa langsung ditulis
+        int directorySize = 0;
+        for (String[] info : partitionInfo.values()) {
+            directorySize += 4 + 4 + utf8(info[1]).length + 4 + utf8(info[2]).length + 8;
+        }
+        int position = 20 + directorySize;
+        Map<String, Integer> tableStarts = new HashMap<>();
+        for (Map.Entry<String, List<byte[]>> entry : records.entrySet()) {
+            tableStarts.put(entry.getKey(), position);
+            position += entry.getValue().size() * 4;
+        }
+
+        File parent = base.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        long version = Math.max(System.currentTimeMillis(), versionOf(base, latest(base)) + 1);
+        File file = new File(parent, stem(base) + "-" + version + extension(base));
+        File temp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(watermark);
+            out.writeInt(partitionInfo.size());
+            for (Map.Entry<String, String[]> entry : partitionInfo.entrySet()) {
+                String[] info = entry.getValue();
+                out.writeInt(Integer.parseInt(info[0]));
+                writeString(out, info[1]);
+                writeString(out, info[2]);
+                out.writeInt(records.get(entry.getKey()).size());
+                out.writeInt(tableStarts.get(entry.getKey()));
+            }
+
+            int blobPosition = position;
+            for (List<byte[]> partition : records.values()) {
+                for (byte[] record : partition) {
+                    out.writeInt(blobPosition);
+                    blobPosition += record.length;
+                }
+            }
+            for (List<byte[]> partition : records.values()) {
+                for (byte[] record : partition) {
+                    out.write(record);
+                }
+            }
+        }
+        // nama baru, jadi tidak ada file yang ditimpa; kios hanya melihat file yang sudah lengkap
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        pruneOlderThan(base, file);
+        return total;
+    }
+
+    private static byte[] utf8(String value) {
+        return (value != null ? value : "").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = utf8(value);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    // Membuat ulang snapshot dari database: java -cp bin:lib/* core.QuestionSnapshot [file]
+    public static void main(String[] args) {
+        File file = new File(args.length > 0 ? args[0] : Constants.QUESTION_SNAPSHOT_PATH);
+        Database db = Database.getInstance();
+        try (Connection conn = db.getConnection()) {
+            long start = System.currentTimeMillis();
+            int count = export(conn, file);
+            File written = latest(file);
+            System.out.println(count + " soal ditulis ke " + written.getPath() + " (" + written.length() + " bytes, " +
+                               (System.currentTimeMillis() - start) + " ms)");
+        } catch (SQLException | IOException e) {
+            System.err.println("Gagal membuat snapshot soal");
+            e.printStackTrace();
+        } finally {
+            db.closeConnection();
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package core;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Statistik jawaban per soal dan per kategori/level, di-rollup bertahap dari question_answers.
+// Watermark (rollup_state.last_id) menandai answer_id terakhir yang sudah dihitung, jadi setiap
+// putaran hanya membaca jawaban baru dan riwayat lama dikejar per potongan ROLLUP_CHUNK_SIZE.
+// Baris watermark dikunci FOR UPDATE supaya beberapa kiosk yang berbagi database tidak
+// menghitung jawaban yang sama dua kali. Hasilnya disalin ke map di memori untuk dibaca O(1).
+public class QuestionStats {
+
+    static final String ROLLUP_NAME = "question_answers";
+
+    private static final int ROLLUP_CHUNK_SIZE = 5000;
+    private static final long ROLLUP_DELAY_MS = 3000;
+    private static final long ROLLUP_INTERVAL_MS = 60 * 1000;
+    // answer_id dibagikan saat INSERT, bukan saat commit, jadi celah di urutan id bisa berarti
+    // jawaban yang masih di transaksi lain. Rollup berhenti di celah pertama yang umurnya belum
+    // sampai ini; celah yang lebih tua (INSERT yang di-rollback, batch yang gagal) dilewati.
+    // Umur dihitung per posisi celah sejak pertama kali terlihat, semua celah dalam satu potongan
+    // dicatat sekaligus. Jarak id normal mengikuti @@auto_increment_increment.
+    private static final long GAP_TIMEOUT_MS = 60 * 1000;
+
+    private static final String COUNTERS =
+        "answered_count, correct_count, skipped_count, timed_count, total_response_ms";
+    private static final String AGGREGATES =
+        "COUNT(*), SUM(qa.is_correct <> 0), SUM(qa.user_answer = 'SKIP'), " +
+        "COUNT(qa.response_time_ms), COALESCE(SUM(qa.response_time_ms), 0)";
+    private static final String ACCUMULATE =
+        " ON DUPLICATE KEY UPDATE " +
+        "answered_count = answered_count + VALUES(answered_count), " +
+        "correct_count = correct_count + VALUES(correct_count), " +
+        "skipped_count = skipped_count + VALUES(skipped_count), " +
+        "timed_count = timed_count + VALUES(timed_count), " +
+        "total_response_ms = total_response_ms + VALUES(total_response_ms)";
+    private static final String RANGE =
+        " FROM question_answers qa JOIN questions q ON q.question_id = qa.question_id " +
+        "WHERE qa.answer_id > ? AND qa.answer_id <= ? ";
+
+    private static final String ROLLUP_QUESTIONS =
+        "INSERT INTO question_stats (question_id, category_id, difficulty_level, " + COUNTERS + ") " +
+        "SELECT qa.question_id, q.category_id, q.difficulty_level, " + AGGREGATES + RANGE +
+        "GROUP BY qa.question_id, q.category_id, q.difficulty_level" + ACCUMULATE;
+    private static final String ROLLUP_CATEGORIES =
+        "INSERT INTO category_stats (category_id, difficulty_level, " + COUNTERS + ") " +
+        "SELECT q.category_id, COALESCE(q.difficulty_level, 'MEDIUM'), " + AGGREGATES + RANGE +
+        "GROUP BY q.category_id, COALESCE(q.difficulty_level, 'MEDIUM')" + ACCUMULATE;
+
+    private final Database database;
+    private final ConcurrentHashMap<Integer, Stat> byQuestion = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Stat> byCategory = new ConcurrentHashMap<>();
+    private final AtomicBoolean rollupPending = new AtomicBoolean(false);
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "DB-StatsRollup");
+        t.setDaemon(true);
+        return t;
+    });
+    private Timestamp lastRefresh;
+    private volatile long watermark;
+    // hanya diakses dari thread rollup: answer_id sebelum celah -> kapan celah pertama terlihat
+    private final Map<Long, Long> gapsSeenAt = new HashMap<>();
+    private long idStep;
+
+    public QuestionStats(Database database) {
+        this.database = database;
+        executor.scheduleWithFixedDelay(this::runRollup, ROLLUP_INTERVAL_MS, ROLLUP_INTERVAL_MS,
+            TimeUnit.MILLISECONDS);
+    }
+
+    // dipanggil setiap kali jawaban berhasil di-commit; beberapa panggilan berdekatan digabung
+    public void requestRollup() {
+        if (rollupPending.compareAndSet(false, true)) {
+            executor.schedule(this::runRollup, ROLLUP_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public Stat get(int questionId) {
+        Stat stat = byQuestion.get(questionId);
+        return stat != null ? stat : Stat.EMPTY;
+    }
+
+    public Stat getCategory(int categoryId, String difficultyLevel) {
+        Stat stat = byCategory.get(categoryKey(categoryId, difficultyLevel));
+        return stat != null ? stat : Stat.EMPTY;
+    }
+
+    public int size() {
+        return byQuestion.size();
+    }
+
+    public long getWatermark() {
+        return watermark;
+    }
+
+    private static String categoryKey(int categoryId, String difficultyLevel) {
+        return categoryId + ":" + (difficultyLevel != null ? difficultyLevel.toUpperCase() : "MEDIUM");
+    }
+
+    private void runRollup() {
+        rollupPending.set(false);
+        if (!database.isSchemaCurrent() || !database.isAvailable()) {
+            return;
+        }
+        DbMetrics.Sample sample = DbMetrics.getInstance().start("rollupQuestionStats");
+        try {
+            long rolled = 0;
+            int chunk;
+            while ((chunk = rollupChunk()) > 0) {
+                rolled += chunk;
+            }
+            sample.rows(rolled);
+            if (rolled > ROLLUP_CHUNK_SIZE) {
+                System.out.println("Rollup statistik soal: " + rolled + " jawaban, watermark #" + watermark);
+            }
+            refresh();
+        } catch (SQLException e) {
+            sample.fail();
+            System.err.println("Rollup statistik soal gagal: " + e.getMessage());
+        } finally {
+            sample.stop();
+        }
+    }
+
+    // satu potongan = satu transaksi: agregat dan watermark maju bersama atau tidak sama sekali
+    private int rollupChunk() throws SQLException {
+        try (Connection conn = database.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                long from;
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "SELECT last_id FROM rollup_state WHERE name = ? FOR UPDATE")) {
+                    stmt.setString(1, ROLLUP_NAME);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        if (!rs.next()) {
+                            throw new SQLException("Baris rollup_state '" + ROLLUP_NAME + "' tidak ditemukan");
+                        }
+                        from = rs.getLong(1);
+                    }
+                }
+
+                if (idStep == 0) {
+                    idStep = readIdStep(conn);
+                }
+                // berhenti di celah id muda pertama supaya id yang belum commit tidak terlewati;
+                // sisa potongan tetap dibaca untuk mencatat celah berikutnya
+                long settled = from;
+                long previous = from;
+                boolean blocked = false;
+                int count = 0;
+                long now = System.currentTimeMillis();
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "SELECT answer_id FROM question_answers WHERE answer_id > ? " +
+                        "ORDER BY answer_id LIMIT " + ROLLUP_CHUNK_SIZE)) {
+                    stmt.setLong(1, from);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            long id = rs.getLong(1);
+                            if (id != previous + idStep) {
+                                Long seenAt = gapsSeenAt.putIfAbsent(previous, now);
+                                if (seenAt == null || now - seenAt < GAP_TIMEOUT_MS) {
+                                    blocked = true;
+                                }
+                            }
+                            if (!blocked) {
+                                settled = id;
+                                count++;
+                            }
+                            previous = id;
+                        }
+                    }
+                }
+                if (settled == from) {
+                    conn.commit();
+                    watermark = from;
+                    return 0;
+                }
+
+                for (String query : new String[] { ROLLUP_QUESTIONS, ROLLUP_CATEGORIES }) {
+                    try (PreparedStatement stmt = conn.prepareStatement(query)) {
+                        stmt.setLong(1, from);
+                        stmt.setLong(2, settled);
+                        stmt.executeUpdate();
+                    }
+                }
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "UPDATE rollup_state SET last_id = ? WHERE name = ?")) {
+                    stmt.setLong(1, settled);
+                    stmt.setString(2, ROLLUP_NAME);
+                    stmt.executeUpdate();
+                }
+                conn.commit();
+                watermark = settled;
+                long committed = settled;
+                gapsSeenAt.keySet().removeIf(after -> after < committed);
+                return count;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    private static long readIdStep(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT @@auto_increment_increment")) {
+            return rs.next() ? Math.max(1, rs.getLong(1)) : 1;
+        }
+    }
+
+    // hanya baris yang berubah sejak refresh terakhir (updated_at berpresisi detik, jadi mundur 1 detik)
+    private void refresh() throws SQLException {
+        try (Connection conn = database.getConnection()) {
+            Timestamp now;
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT NOW()")) {
+                rs.next();
+                now = rs.getTimestamp(1);
+            }
+            Timestamp since = lastRefresh != null ? new Timestamp(lastRefresh.getTime() - 1000) : new Timestamp(0);
+
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT question_id, " + COUNTERS + " FROM question_stats WHERE updated_at >= ?")) {
+                stmt.setTimestamp(1, since);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        byQuestion.put(rs.getInt("question_id"), Stat.from(rs));
+                    }
+                }
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT category_id, difficulty_level, " + COUNTERS + " FROM category_stats WHERE updated_at >= ?")) {
+                stmt.setTimestamp(1, since);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        byCategory.put(categoryKey(rs.getInt("category_id"), rs.getString("difficulty_level")),
+                            Stat.from(rs));
+                    }
+                }
+            }
+            lastRefresh = now;
+        }
+    }
+
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    public static class Stat {
+        static final Stat EMPTY = new Stat(0, 0, 0, 0, 0);
+
+        private final int answered;
+        private final int correct;
+        private final int skipped;
+        private final int timed;
+        private final long totalResponseMillis;
+
+        public Stat(int answered, int correct, int skipped, int timed, long totalResponseMillis) {
+            this.answered = answered;
+            this.correct = correct;
+            this.skipped = skipped;
+            this.timed = timed;
+            this.totalResponseMillis = totalResponseMillis;
+        }
+
+        static Stat from(ResultSet rs) throws SQLException {
+            return new Stat(rs.getInt("answered_count"), rs.getInt("correct_count"),
+                rs.getInt("skipped_count"), rs.getInt("timed_count"), rs.getLong("total_response_ms"));
+        }
+
+        public int getAnswered() { return answered; }
+        public int getCorrect() { return correct; }
+        public int getSkipped() { return skipped; }
+
+        public double getCorrectRate() {
+            return answered > 0 ? (double) correct / answered : 0;
+        }
+
+        public double getSkipRate() {
+            return answered > 0 ? (double) skipped / answered : 0;
+        }
+
+        // jawaban lama (sebelum kolom response_time_ms ada) tidak ikut dirata-rata
+        public double getMeanResponseMillis() {
+            return timed > 0 ? (double) totalResponseMillis / timed : 0;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package core;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Menentukan apakah query baca boleh dilayani replika. Pemanggil mendapat null (dan harus
+// memakai primary) kalau:
+//   - circuit breaker replika terbuka atau koneksi ke replika gagal
+//   - replikasi tertinggal lebih dari maxLagMillis, berhenti, atau lag tidak bisa dibaca
+//   - server tidak melaporkan status replikasi sama sekali, kecuali allowStandalone
+//     (db.replica.allow.standalone=true, untuk dua instance terpisah saat pengujian)
+//   - query leaderboard dalam maxLagMillis setelah proses ini menulis leaderboard, supaya
+//     pemain langsung melihat skornya sendiri (read-your-writes)
+// Lag dibaca dari SHOW REPLICA STATUS / SHOW SLAVE STATUS di thread "DB-ReplicaMonitor".
+public class ReplicaRouter {
+
+    private static final long UNKNOWN_LAG = -1;
+
+    private final ConnectionPool pool;
+    private final CircuitBreaker breaker;
+    private final long maxLagMillis;
+    private final boolean allowStandalone;
+    private final DbMetrics metrics = DbMetrics.getInstance();
+    private final ScheduledExecutorService monitor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "DB-ReplicaMonitor");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private volatile long lagMillis = UNKNOWN_LAG;
+    private volatile long lastLeaderboardWriteNanos;
+    private volatile boolean statusWarned = false;
+    private final LongAdder replicaReads = new LongAdder();
+    private final LongAdder primaryReads = new LongAdder();
+
+    public ReplicaRouter(ConnectionPool pool, CircuitBreaker breaker, long maxLagMillis, long checkIntervalMillis,
+                         boolean allowStandalone) {
+        this.pool = pool;
+        this.breaker = breaker;
+        this.maxLagMillis = maxLagMillis;
+        this.allowStandalone = allowStandalone;
+        this.lastLeaderboardWriteNanos = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(maxLagMillis) - 1;
+        if (maxLagMillis > 0) {
+            monitor.scheduleWithFixedDelay(this::checkLag, 0, checkIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public Connection acquire(boolean leaderboard) {
+        if (!isFresh(leaderboard) || !breaker.allowRequest()) {
+            primaryReads.increment();
+            return null;
+        }
+        DbMetrics.Sample sample = metrics.start("pool.acquire.replica");
+        try {
+            Connection conn = pool.getConnection();
+            breaker.recordSuccess();
+            replicaReads.increment();
+            return conn;
+        } catch (SQLException e) {
+            sample.fail();
+            breaker.recordFailure();
+            primaryReads.increment();
+            return null;
+        } finally {
+            sample.stop();
+        }
+    }
+
+    private boolean isFresh(boolean leaderboard) {
+        if (maxLagMillis <= 0) {
+            return true;
+        }
+        long lag = lagMillis;
+        if (lag == UNKNOWN_LAG || lag > maxLagMillis) {
+            return false;
+        }
+        return !leaderboard ||
+               System.nanoTime() - lastLeaderboardWriteNanos > TimeUnit.MILLISECONDS.toNanos(maxLagMillis);
+    }
+
+    public void markLeaderboardWrite() {
+        lastLeaderboardWriteNanos = System.nanoTime();
+    }
+
+    private void checkLag() {
+        if (!breaker.isAvailable()) {
+            lagMillis = UNKNOWN_LAG;
+            return;
+        }
+        try (Connection conn = pool.getConnection()) {
+            lagMillis = readLag(conn);
+        } catch (SQLException e) {
+            lagMillis = UNKNOWN_LAG;
+            if (!statusWarned) {
+                statusWarned = true;
+                System.err.println("Status replika tidak bisa dibaca, baca diarahkan ke primary: " + e.getMessage());
+            }
+        }
+    }
+
+    private long readLag(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            ResultSet rs;
+            try {
+                rs = stmt.executeQuery("SHOW REPLICA STATUS");
+            } catch (SQLException e) {
+                // MySQL < 8.0.22 dan MariaDB < 10.5.1
+                rs = stmt.executeQuery("SHOW SLAVE STATUS");
+            }
+            try {
+                if (!rs.next()) {
+                    // bukan replika: salah konfigurasi atau replikasi sudah di-reset
+                    if (!statusWarned) {
+                        statusWarned = true;
+                        if (allowStandalone) {
+                            System.out.println("Server replika tidak melaporkan status replikasi, lag dianggap 0");
+                        } else {
+                            System.err.println("Server replika tidak melaporkan status replikasi, baca diarahkan ke primary");
+                        }
+                    }
+                    return allowStandalone ? 0 : UNKNOWN_LAG;
+                }
+                ResultSetMetaData meta = rs.getMetaData();
+                for (int i = 1; i <= meta.getColumnCount(); i++) {
+                    String column = meta.getColumnLabel(i);
+                    if (column.equals("Seconds_Behind_Source") || column.equals("Seconds_Behind_Master")) {
+                        long seconds = rs.getLong(i);
+                        // NULL berarti thread replikasi berhenti
+                        return rs.wasNull() ? UNKNOWN_LAG : TimeUnit.SECONDS.toMillis(seconds);
+                    }
+                }
+                return UNKNOWN_LAG;
+            } finally {
+                rs.close();
+            }
+        }
+    }
+
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    public long getReplicaReads() {
+        return replicaReads.sum();
+    }
+
+    public long getPrimaryReads() {
+        return primaryReads.sum();
+    }
+
+    public ConnectionPool.PoolStats getPoolStats() {
+        return pool.getStats();
+    }
+
+    public void close() {
+        monitor.shutdownNow();
+        if (!pool.isClosed()) {
+            pool.close();
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package core;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import util.Constants;
+
+// Lapisan di depan Database untuk mode kiosk. Selama database tidak bisa dihubungi
+// (circuit breaker terbuka atau createSession gagal) kuis tetap jalan dari bank soal
+// yang sudah di-cache, sesi dan jawaban dicatat ke OfflineJournal, lalu diputar ulang
+// ke database di thread "Offline-Replay" begitu koneksi pulih.
+public class ResilientStore implements DataStore {
+    private static ResilientStore instance;
+
+    private static final long REPLAY_INTERVAL_MS = 30 * 1000;
+
+    private final Database database;
+    private final OfflineJournal journal;
+    private boolean closed = false;
+    private final ScheduledExecutorService replayer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "Offline-Replay");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private ResilientStore() {
+        this.database = Database.getInstance();
+        this.journal = openJournal();
+        if (journal != null) {
+            database.onRecovery(() -> replayer.execute(this::replayPending));
+            replayer.scheduleWithFixedDelay(this::replayPending, REPLAY_INTERVAL_MS, REPLAY_INTERVAL_MS,
+                TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public static ResilientStore getInstance() {
+        if (instance == null) {
+            synchronized (ResilientStore.class) {
+                if (instance == null) {
+                    instance = new ResilientStore();
+                }
+            }
+        }
+        return instance;
+    }
+
+    private static OfflineJournal openJournal() {
+        try {
+            return new OfflineJournal(Constants.OFFLINE_JOURNAL_PATH);
+        } catch (IOException e) {
+            // tanpa jurnal, perilaku sama seperti Database biasa
+            System.err.println("Jurnal offline tidak bisa dibuka: " + e.getMessage());
+            return null;
+        }
+    }
+
+    public boolean isOnline() {
+        return database.isAvailable();
+    }
+
+    private static boolean isOfflineSession(int sessionId) {
+        return sessionId < -1;
+    }
+
+    @Override
+    public List<Database.Category> getAllCategories() {
+        return database.getAllCategories();
+    }
+
+    @Override
+    public Database.Category getCategoryById(int categoryId) {
+        return database.getCategoryById(categoryId);
+    }
+
+    // QuestionBank melayani partisi yang sudah di-cache (atau snapshot) tanpa koneksi
+    @Override
+    public List<Database.Question> getRandomQuestions(int categoryId, int limit) {
+        return database.getRandomQuestions(categoryId, limit);
+    }
+
+    @Override
+    public List<Database.Question> getRandomQuestions(String categoryName, String difficulty, int limit) {
+        return database.getRandomQuestions(categoryName, difficulty, limit);
+    }
+
+    @Override
+    public int countQuestions(int categoryId) {
+        return database.countQuestions(categoryId);
+    }
+
+    @Override
+    public int createPlayer(String username) {
+        return database.createPlayer(username);
+    }
+
+    @Override
+    public int createSession(String playerName, String categoryName, String difficulty) {
+        if (database.isAvailable()) {
+            int sessionId = database.createSession(playerName, categoryName, difficulty);
+            if (sessionId != -1 || journal == null) {
+                return sessionId;
+            }
+        }
+        if (journal == null) {
+            return -1;
+        }
+        try {
+            int sessionId = journal.startSession(playerName, categoryName, difficulty);
+            System.out.println("Database tidak tersedia, sesi dicatat offline (#" + sessionId + ")");
+            return sessionId;
+        } catch (IOException e) {
+            System.err.println("Gagal mencatat sesi offline: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    @Override
+    public void queueQuestionAnswer(int sessionId, int questionId, String userAnswer, boolean isCorrect,
+                                    long responseMillis) {
+        if (!isOfflineSession(sessionId)) {
+            database.queueQuestionAnswer(sessionId, questionId, userAnswer, isCorrect, responseMillis);
+            return;
+        }
+        try {
+            journal.answer(sessionId, questionId, userAnswer, isCorrect, AnswerWriter.clampMillis(responseMillis));
+        } catch (IOException e) {
+            System.err.println("Gagal mencatat jawaban offline: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> flushQuestionAnswers() {
+        return database.flushQuestionAnswers();
+    }
+
+    @Override
+    public CompletableFuture<Boolean> finishSession(int sessionId, int totalScore, int questionsAnswered,
+                                                    int correctAnswers, int wrongAnswers, int timeTaken,
+                                                    int skipUsed, int fiftyFiftyUsed, int speedBonus) {
+        if (isOfflineSession(sessionId)) {
+            return CompletableFuture.completedFuture(journalFinish(sessionId, totalScore, questionsAnswered,
+                correctAnswers, wrongAnswers, timeTaken, skipUsed, fiftyFiftyUsed, speedBonus));
+        }
+        CompletableFuture<Boolean> saved = database.finishSession(sessionId, totalScore, questionsAnswered,
+            correctAnswers, wrongAnswers, timeTaken, skipUsed, fiftyFiftyUsed, speedBonus);
+        if (journal == null || sessionId <= 0) {
+            return saved;
+        }
+        // database putus di tengah kuis: hasil disimpan ke jurnal dan diselesaikan saat replay
+        return saved.exceptionally(error -> journalFinish(sessionId, totalScore, questionsAnswered,
+            correctAnswers, wrongAnswers, timeTaken, skipUsed, fiftyFiftyUsed, speedBonus));
+    }
+
+    private boolean journalFinish(int sessionId, int totalScore, int questionsAnswered, int correctAnswers,
+                                  int wrongAnswers, int timeTaken, int skipUsed, int fiftyFiftyUsed,
+                                  int speedBonus) {
+        try {
+            journal.finish(sessionId, totalScore, questionsAnswered, correctAnswers, wrongAnswers,
+                timeTaken, skipUsed, fiftyFiftyUsed, speedBonus);
+            try {
+                replayer.execute(this::replayPending);
+            } catch (RejectedExecutionException e) {
+                // aplikasi sedang ditutup, sesi di-replay saat start berikutnya
+            }
+            return true;
+        } catch (IOException e) {
+            System.err.println("Gagal mencatat hasil sesi offline: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void replayPending() {
+        if (!journal.hasPending() || !database.isAvailable()) {
+            return;
+        }
+        int replayed = 0;
+        for (OfflineJournal.PendingSession session : journal.replayable()) {
+            try {
+                database.replayOfflineSession(session);
+                journal.markReplayed(session.sessionId);
+                replayed++;
+            } catch (SQLException e) {
+                // dicoba lagi di putaran berikutnya, urutan sesi tetap dijaga
+                System.err.println("Replay jurnal offline tertunda: " + e.getMessage());
+                break;
+            } catch (IOException e) {
+                System.err.println("Gagal memperbarui jurnal offline: " + e.getMessage());
+                break;
+            }
+        }
+        if (replayed > 0) {
+            System.out.println(replayed + " sesi offline tersimpan ke database");
+        }
+    }
+
+    @Override
+    public List<Database.LeaderboardEntry> getTopLeaderboard(int limit, String categoryName, String difficulty) {
+        return database.getTopLeaderboard(limit, categoryName, difficulty);
+    }
+
+    @Override
+    public Database.LeaderboardPage getLeaderboardPage(String categoryName, String difficulty,
+                                                       Database.LeaderboardCursor after, int pageSize) {
+        return database.getLeaderboardPage(categoryName, difficulty, after, pageSize);
+    }
+
+    @Override
+    public boolean rebuildLeaderboard() {
+        return database.rebuildLeaderboard();
+    }
+
+    @Override
+    public synchronized void closeConnection() {
+        // dipanggil GameSimulator dan lagi oleh shutdown hook DataStore
+        if (closed) {
+            return;
+        }
+        closed = true;
+        replayer.shutdownNow();
+        // database menunggu finishSession yang masih antre; fallback-nya menulis ke jurnal,
+        // jadi jurnal baru ditutup setelah itu
+        database.closeConnection();
+        if (journal != null) {
+            journal.close();
+        }
+    }
+}
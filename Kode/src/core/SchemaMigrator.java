@@ -0,0 +1,213 @@
+package core;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+// Migrasi skema berurutan. Versi yang sudah jalan dicatat di tabel schema_version,
+// setiap langkah dicek dulu ke information_schema supaya aman diulang bila
+// migrasi sebelumnya terhenti di tengah jalan (DDL MySQL tidak bisa di-rollback).
+public class SchemaMigrator {
+
+    public static final int LATEST_VERSION = 6;
+
+    private static final int BACKFILL_CHUNK_SIZE = 1000;
+    private static final String DIFFICULTY_ENUM = "ENUM('MUDAH','SEDANG','SULIT')";
+
+    private final Database database;
+    private final List<Migration> migrations = new ArrayList<>();
+
+    public SchemaMigrator(Database database) {
+        this.database = database;
+
+        migrations.add(new Migration(1, "index soal per kategori dan level", conn -> {
+            addIndex(conn, "questions", "idx_questions_cat_diff",
+                "(category_id, difficulty_level, question_id)");
+        }));
+        migrations.add(new Migration(2, "kolom difficulty ternormalisasi", conn -> {
+            addColumn(conn, "quiz_sessions", "difficulty", DIFFICULTY_ENUM + " NULL AFTER game_mode");
+            addColumn(conn, "leaderboard", "category_id", "INT(11) NULL AFTER session_id");
+            addColumn(conn, "leaderboard", "difficulty", DIFFICULTY_ENUM + " NULL AFTER category_id");
+        }));
+        migrations.add(new Migration(3, "backfill difficulty dan kategori", conn -> {
+            backfill(conn, "quiz_sessions", "session_id",
+                "UPDATE quiz_sessions SET difficulty = CASE " +
+                "WHEN UPPER(game_mode) LIKE '%SULIT%' THEN 'SULIT' " +
+                "WHEN UPPER(game_mode) LIKE '%SEDANG%' THEN 'SEDANG' " +
+                "WHEN UPPER(game_mode) LIKE '%MUDAH%' THEN 'MUDAH' END " +
+                "WHERE session_id > ? AND session_id <= ? AND difficulty IS NULL");
+            backfill(conn, "leaderboard", "leaderboard_id",
+                "UPDATE leaderboard l JOIN quiz_sessions qs ON l.session_id = qs.session_id " +
+                "SET l.category_id = qs.category_id, l.difficulty = qs.difficulty " +
+                "WHERE l.leaderboard_id > ? AND l.leaderboard_id <= ? AND l.category_id IS NULL");
+        }));
+        migrations.add(new Migration(4, "index ranking leaderboard", conn -> {
+            String ranking = "score DESC, accuracy_percentage DESC, achieved_at, leaderboard_id";
+            addIndex(conn, "leaderboard", "idx_lb_rank", "(" + ranking + ")");
+            addIndex(conn, "leaderboard", "idx_lb_cat_rank", "(category_id, " + ranking + ")");
+            addIndex(conn, "leaderboard", "idx_lb_diff_rank", "(difficulty, " + ranking + ")");
+            addIndex(conn, "leaderboard", "idx_lb_cat_diff_rank", "(category_id, difficulty, " + ranking + ")");
+            addIndex(conn, "quiz_sessions", "idx_sessions_cat_diff", "(category_id, difficulty)");
+        }));
+        migrations.add(new Migration(5, "client token untuk replay jurnal offline", conn -> {
+            addColumn(conn, "quiz_sessions", "client_token", "VARCHAR(36) NULL AFTER difficulty");
+            addIndex(conn, "quiz_sessions", "uk_sessions_client_token", "UNIQUE INDEX", "(client_token)");
+        }));
+        migrations.add(new Migration(6, "statistik jawaban per soal", conn -> {
+            addColumn(conn, "question_answers", "response_time_ms", "INT(11) NULL AFTER time_taken_seconds");
+            String counters =
+                "answered_count INT(11) NOT NULL DEFAULT 0, " +
+                "correct_count INT(11) NOT NULL DEFAULT 0, " +
+                "skipped_count INT(11) NOT NULL DEFAULT 0, " +
+                "timed_count INT(11) NOT NULL DEFAULT 0, " +
+                "total_response_ms BIGINT(20) NOT NULL DEFAULT 0, " +
+                "updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP, ";
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate(
+                    "CREATE TABLE IF NOT EXISTS question_stats (" +
+                    "question_id INT(11) NOT NULL PRIMARY KEY, " +
+                    "category_id INT(11) NOT NULL, " +
+                    "difficulty_level ENUM('EASY','MEDIUM','HARD') NULL, " +
+                    counters +
+                    "KEY idx_question_stats_updated (updated_at)" +
+                    ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci");
+                stmt.executeUpdate(
+                    "CREATE TABLE IF NOT EXISTS category_stats (" +
+                    "category_id INT(11) NOT NULL, " +
+                    "difficulty_level ENUM('EASY','MEDIUM','HARD') NOT NULL, " +
+                    counters +
+                    "PRIMARY KEY (category_id, difficulty_level)" +
+                    ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci");
+                stmt.executeUpdate(
+                    "CREATE TABLE IF NOT EXISTS rollup_state (" +
+                    "name VARCHAR(64) NOT NULL PRIMARY KEY, " +
+                    "last_id BIGINT(20) NOT NULL DEFAULT 0, " +
+                    "updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP" +
+                    ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci");
+                stmt.executeUpdate("INSERT IGNORE INTO rollup_state (name, last_id) VALUES ('" +
+                                   QuestionStats.ROLLUP_NAME + "', 0)");
+            }
+        }));
+    }
+
+    public int migrate() throws SQLException {
+        try (Connection conn = database.getConnection()) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate(
+                    "CREATE TABLE IF NOT EXISTS schema_version (" +
+                    "version INT(11) NOT NULL PRIMARY KEY, " +
+                    "description VARCHAR(200) NOT NULL, " +
+                    "applied_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP" +
+                    ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci");
+            }
+
+            int current = currentVersion(conn);
+            for (Migration migration : migrations) {
+                if (migration.version <= current) {
+                    continue;
+                }
+                long start = System.currentTimeMillis();
+                migration.step.apply(conn);
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "INSERT INTO schema_version (version, description) VALUES (?, ?)")) {
+                    stmt.setInt(1, migration.version);
+                    stmt.setString(2, migration.description);
+                    stmt.executeUpdate();
+                }
+                current = migration.version;
+                System.out.println("Migrasi skema v" + migration.version + " (" + migration.description + ") selesai dalam " +
+                                   (System.currentTimeMillis() - start) + " ms");
+            }
+            return current;
+        }
+    }
+
+    private int currentVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static void addColumn(Connection conn, String table, String column, String definition) throws SQLException {
+        if (exists(conn, "SELECT 1 FROM information_schema.COLUMNS " +
+                         "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = ?", table, column)) {
+            return;
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
+        }
+    }
+
+    private static void addIndex(Connection conn, String table, String index, String columns) throws SQLException {
+        addIndex(conn, table, index, "INDEX", columns);
+    }
+
+    private static void addIndex(Connection conn, String table, String index, String kind, String columns) throws SQLException {
+        if (exists(conn, "SELECT 1 FROM information_schema.STATISTICS " +
+                         "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND INDEX_NAME = ?", table, index)) {
+            return;
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("ALTER TABLE " + table + " ADD " + kind + " " + index + " " + columns);
+        }
+    }
+
+    private static boolean exists(Connection conn, String query, String table, String name) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setString(1, table);
+            stmt.setString(2, name);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    // update per rentang primary key supaya lock dan undo log tetap kecil
+    private static void backfill(Connection conn, String table, String key, String update) throws SQLException {
+        long maxId;
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(" + key + "), 0) FROM " + table)) {
+            maxId = rs.next() ? rs.getLong(1) : 0;
+        }
+
+        conn.setAutoCommit(false);
+        try (PreparedStatement stmt = conn.prepareStatement(update)) {
+            long updated = 0;
+            for (long from = 0; from < maxId; from += BACKFILL_CHUNK_SIZE) {
+                stmt.setLong(1, from);
+                stmt.setLong(2, from + BACKFILL_CHUNK_SIZE);
+                updated += stmt.executeUpdate();
+                conn.commit();
+            }
+            if (updated > 0) {
+                System.out.println("Backfill " + table + ": " + updated + " baris");
+            }
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    private interface Step {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    private static class Migration {
+        private final int version;
+        private final String description;
+        private final Step step;
+
+        Migration(int version, String description, Step step) {
+            this.version = version;
+            this.description = description;
+            this.step = step;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+// Membaca baris-baris INSERT dari file dump phpMyAdmin (database/rapidq_db.sql)
+class SqlDumpReader {
+
+    private final String sql;
+
+    SqlDumpReader(File dumpFile) throws IOException {
+        this.sql = new String(Files.readAllBytes(dumpFile.toPath()), StandardCharsets.UTF_8);
+    }
+
+    List<String[]> rows(String table) {
+        List<String[]> rows = new ArrayList<>();
+        String marker = "INSERT INTO `" + table + "`";
+        int from = 0;
+        while ((from = sql.indexOf(marker, from)) >= 0) {
+            int values = sql.indexOf("VALUES", from);
+            if (values < 0) {
+                break;
+            }
+            from = parseTuples(values + "VALUES".length(), rows);
+        }
+        return rows;
+    }
+
+    private int parseTuples(int pos, List<String[]> rows) {
+        int length = sql.length();
+        while (pos < length) {
+            char c = sql.charAt(pos);
+            if (c == ';') {
+                return pos + 1;
+            }
+            if (c != '(') {
+                pos++;
+                continue;
+            }
+            pos++;
+            List<String> values = new ArrayList<>();
+            while (pos < length && sql.charAt(pos) != ')') {
+                char v = sql.charAt(pos);
+                if (v == ',' || Character.isWhitespace(v)) {
+                    pos++;
+                } else if (v == '\'') {
+                    StringBuilder value = new StringBuilder();
+                    pos++;
+                    while (pos < length) {
+                        char q = sql.charAt(pos);
+                        if (q == '\\' && pos + 1 < length) {
+                            value.append(unescape(sql.charAt(pos + 1)));
+                            pos += 2;
+                        } else if (q == '\'' && pos + 1 < length && sql.charAt(pos + 1) == '\'') {
+                            value.append('\'');
+                            pos += 2;
+                        } else if (q == '\'') {
+                            pos++;
+                            break;
+                        } else {
+                            value.append(q);
+                            pos++;
+                        }
+                    }
+                    values.add(value.toString());
+                } else {
+                    int start = pos;
+                    while (pos < length && sql.charAt(pos) != ',' && sql.charAt(pos) != ')') {
+                        pos++;
+                    }
+                    String raw = sql.substring(start, pos).trim();
+                    values.add(raw.equalsIgnoreCase("NULL") ? null : raw);
+                }
+            }
+            pos++;
+            rows.add(values.toArray(new String[0]));
+        }
+        return pos;
+    }
+
+    private static char unescape(char c) {
+        switch (c) {
+            case 'n': return '\n';
+            case 'r': return '\r';
+            case 't': return '\t';
+            case '0': return '\0';
+            default: return c;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+public class AppConfig {
+
+    public static final String CONFIG_PATH = "config/rapidq.properties";
+    private static final String SYSTEM_PREFIX = "rapidq.";
+
+    public static final String STORAGE_BACKEND = "storage.backend";
+    public static final String BACKEND_MYSQL = "mysql";
+    public static final String BACKEND_LOCAL = "local";
+
+    private static AppConfig instance;
+    private final Properties properties = new Properties();
+
+    private AppConfig() {
+        File file = new File(System.getProperty(SYSTEM_PREFIX + "config", CONFIG_PATH));
+        if (file.exists()) {
+            try (InputStream in = new FileInputStream(file)) {
+                properties.load(in);
+            } catch (IOException e) {
+                System.err.println("Config tidak bisa dibaca: " + file.getPath());
+                e.printStackTrace();
+            }
+        }
+    }
+
+    public static synchronized AppConfig getInstance() {
+        if (instance == null) {
+            instance = new AppConfig();
+        }
+        return instance;
+    }
+
+    // -Drapidq.<key>=... menimpa nilai dari file config
+    public String get(String key, String defaultValue) {
+        String value = System.getProperty(SYSTEM_PREFIX + key);
+        if (value == null) {
+            value = properties.getProperty(key);
+        }
+        return value != null ? value.trim() : defaultValue;
+    }
+
+    public int getInt(String key, int defaultValue) {
+        String value = get(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            System.err.println("Nilai config tidak valid untuk " + key + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    public long getLong(String key, long defaultValue) {
+        String value = get(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            System.err.println("Nilai config tidak valid untuk " + key + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    public double getDouble(String key, double defaultValue) {
+        String value = get(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            System.err.println("Nilai config tidak valid untuk " + key + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        String value = get(key, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+
+    public String getStorageBackend() {
+        return get(STORAGE_BACKEND, BACKEND_MYSQL).toLowerCase();
+    }
+}
@@ -77,6 +77,13 @@ public class Constants {
     
     public static final String DB_NAME = "rapidq.db";
     public static final String DB_PATH = "data/" + DB_NAME;
+    public static final String QUESTION_SNAPSHOT_PATH = "data/questions.snap";
+    public static final String SEED_SQL_PATH = "database/rapidq_db.sql";
+    public static final String ANSWER_SPILL_PATH = "data/answers_spill.log";
+    public static final String ANSWER_DEAD_LETTER_PATH = "data/answers_dead_letter.log";
+    public static final String DB_METRICS_PATH = "data/db_metrics.log";
+    public static final String OFFLINE_JOURNAL_PATH = "data/offline_journal";
+    public static final String CALIBRATION_REPORT_PATH = "data/calibration_report.csv";
     
     public static final int MAX_SKIP_LIFELINE = -1; 
     public static final int MAX_FIFTY_FIFTY_LIFELINE = 1;
@@ -0,0 +1,145 @@
+package util;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+// Jam permainan berbasis System.nanoTime. Sisa waktu selalu dihitung dari waktu
+// monoton, tick hanya pemicu tampilan, jadi tidak ada drift yang menumpuk.
+public class GameClock {
+
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "GameClock");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final long durationNanos;
+    private final long tickNanos;
+    private final Runnable onTick;
+    private final Runnable onExpire;
+
+    private long startedAt;
+    private long elapsedBeforePause;
+    private boolean running = false;
+    private boolean expired = false;
+    private ScheduledFuture<?> tickTask;
+    private ScheduledFuture<?> expireTask;
+
+    public GameClock(long durationMillis, long tickMillis, Runnable onTick, Runnable onExpire) {
+        this.durationNanos = TimeUnit.MILLISECONDS.toNanos(durationMillis);
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.onTick = onTick;
+        this.onExpire = onExpire;
+    }
+
+    public synchronized void start() {
+        cancelTasks();
+        elapsedBeforePause = 0;
+        expired = false;
+        resumeInternal();
+    }
+
+    public synchronized void pause() {
+        if (!running) {
+            return;
+        }
+        elapsedBeforePause += System.nanoTime() - startedAt;
+        running = false;
+        cancelTasks();
+    }
+
+    public synchronized void resume() {
+        if (running || expired) {
+            return;
+        }
+        resumeInternal();
+    }
+
+    public synchronized void stop() {
+        running = false;
+        expired = true;
+        cancelTasks();
+    }
+
+    private void resumeInternal() {
+        running = true;
+        startedAt = System.nanoTime();
+        long remaining = durationNanos - elapsedBeforePause;
+
+        // tick pertama diselaraskan ke batas tick berikutnya dari sisa waktu
+        long firstTick = remaining % tickNanos;
+        if (firstTick == 0) {
+            firstTick = tickNanos;
+        }
+        tickTask = SCHEDULER.scheduleAtFixedRate(this::tick, firstTick, tickNanos, TimeUnit.NANOSECONDS);
+        expireTask = SCHEDULER.schedule(this::expire, Math.max(0, remaining), TimeUnit.NANOSECONDS);
+    }
+
+    private void cancelTasks() {
+        if (tickTask != null) {
+            tickTask.cancel(false);
+            tickTask = null;
+        }
+        if (expireTask != null) {
+            expireTask.cancel(false);
+            expireTask = null;
+        }
+    }
+
+    private void tick() {
+        synchronized (this) {
+            if (!running || remainingNanos() <= 0) {
+                return;
+            }
+        }
+        onTick.run();
+    }
+
+    private void expire() {
+        synchronized (this) {
+            if (!running) {
+                return;
+            }
+            elapsedBeforePause = durationNanos;
+            running = false;
+            expired = true;
+            cancelTasks();
+        }
+        onExpire.run();
+    }
+
+    private long elapsedNanos() {
+        long elapsed = elapsedBeforePause;
+        if (running) {
+            elapsed += System.nanoTime() - startedAt;
+        }
+        return Math.min(elapsed, durationNanos);
+    }
+
+    private long remainingNanos() {
+        return durationNanos - elapsedNanos();
+    }
+
+    public synchronized long elapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos());
+    }
+
+    public synchronized long remainingMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(remainingNanos());
+    }
+
+    // dibulatkan ke atas supaya tampilan baru menunjukkan 0 saat waktu benar-benar habis
+    public synchronized int remainingSeconds() {
+        return (int) ((remainingNanos() + 999_999_999L) / 1_000_000_000L);
+    }
+
+    public synchronized boolean isRunning() {
+        return running;
+    }
+
+    public synchronized boolean isPaused() {
+        return !running && !expired && elapsedBeforePause > 0;
+    }
+}
@@ -0,0 +1,115 @@
+package view;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.RadialGradientPaint;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import util.Constants;
+
+// Latar gradient radial + 16 sinar yang dipakai semua view kartun. Digambar sekali per
+// ukuran/tema ke VolatileImage (atau BufferedImage kalau komponen belum punya
+// GraphicsConfiguration), setelah itu setiap repaint cukup satu drawImage.
+// Semua view berukuran sama dengan frame, jadi satu cache dipakai bersama.
+// Hanya dipanggil dari EDT.
+public final class BackgroundRenderer {
+
+    private static final int RAY_COUNT = 16;
+    private static final Color RAY_COLOR = new Color(255, 255, 255, 30);
+    private static final BasicStroke RAY_STROKE = new BasicStroke(3);
+    private static final float[] GRADIENT_STOPS = {0.0f, 0.5f, 1.0f};
+
+    private static VolatileImage volatileImage;
+    private static BufferedImage bufferedImage;
+    private static GraphicsConfiguration cachedConfig;
+    private static int cachedWidth;
+    private static int cachedHeight;
+    private static boolean cachedDarkMode;
+
+    private BackgroundRenderer() {
+    }
+
+    public static void paint(Component component, Graphics g) {
+        int width = component.getWidth();
+        int height = component.getHeight();
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        boolean darkMode = Constants.isDarkMode();
+        boolean stale = width != cachedWidth || height != cachedHeight || darkMode != cachedDarkMode;
+        cachedWidth = width;
+        cachedHeight = height;
+        cachedDarkMode = darkMode;
+
+        GraphicsConfiguration gc = component.getGraphicsConfiguration();
+        if (gc == null) {
+            if (stale || bufferedImage == null) {
+                if (volatileImage != null) {
+                    volatileImage.flush();
+                    volatileImage = null;
+                }
+                bufferedImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+                render(bufferedImage, width, height);
+            }
+            g.drawImage(bufferedImage, 0, 0, null);
+            return;
+        }
+
+        if (stale || gc != cachedConfig || volatileImage == null) {
+            createVolatile(gc, width, height);
+        }
+        // isi VolatileImage bisa hilang (ganti mode layar, device reset), gambar ulang bila perlu
+        do {
+            int status = volatileImage.validate(gc);
+            if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+                createVolatile(gc, width, height);
+            } else if (status == VolatileImage.IMAGE_RESTORED) {
+                render(volatileImage, width, height);
+            }
+            g.drawImage(volatileImage, 0, 0, null);
+        } while (volatileImage.contentsLost());
+    }
+
+    private static void createVolatile(GraphicsConfiguration gc, int width, int height) {
+        if (volatileImage != null) {
+            volatileImage.flush();
+        }
+        volatileImage = gc.createCompatibleVolatileImage(width, height, Transparency.OPAQUE);
+        cachedConfig = gc;
+        bufferedImage = null;
+        render(volatileImage, width, height);
+    }
+
+    private static void render(Image image, int width, int height) {
+        Graphics2D g2d = (Graphics2D) image.getGraphics();
+        try {
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+            int centerX = width / 2;
+            int centerY = height / 2;
+            float radius = Math.max(width, height);
+
+            Color[] colors = {Constants.CARTOON_RADIAL_CENTER, Constants.CARTOON_BG_START, Constants.CARTOON_BG_END};
+            g2d.setPaint(new RadialGradientPaint(centerX, centerY, radius, GRADIENT_STOPS, colors));
+            g2d.fillRect(0, 0, width, height);
+
+            g2d.setColor(RAY_COLOR);
+            g2d.setStroke(RAY_STROKE);
+            for (int i = 0; i < RAY_COUNT; i++) {
+                double angle = (Math.PI * 2 / RAY_COUNT) * i;
+                int x2 = centerX + (int) (Math.cos(angle) * radius);
+                int y2 = centerY + (int) (Math.sin(angle) * radius);
+                g2d.drawLine(centerX, centerY, x2, y2);
+            }
+        } finally {
+            g2d.dispose();
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package view;
+
+import java.awt.AlphaComposite;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Cursor;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.GradientPaint;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.swing.AbstractButton;
+import javax.swing.JButton;
+import javax.swing.JComponent;
+import javax.swing.plaf.basic.BasicButtonUI;
+import util.Constants;
+
+// UI delegate bersama untuk tombol kartun semua view (bayangan, gradient, highlight, garis
+// tepi putih). Badan tombol digambar sekali per (warna, tinggi, gaya, state normal/hover/
+// pressed) ke gambar selebar 2 sudut + 1 kolom, lalu ditempel sebagai nine-slice: kolom
+// tengah direntangkan selebar tombol. Gradient-nya vertikal, jadi tinggi ikut jadi kunci
+// cache dan hanya lebar yang di-slice. Disabled dan fade 50:50 tidak punya gambar sendiri,
+// alpha-nya dipasang sebagai AlphaComposite saat gambar ditempel. Teks tetap digambar
+// setiap paint karena bisa berubah (opsi jawaban).
+public class CartoonButtonUI extends BasicButtonUI {
+
+    public static final String HOVERED = "isHovered";
+    public static final String FADE_ALPHA = "fadeAlpha";
+    public static final String HIGHLIGHTED = "isHighlighted";
+    private static final String COLOR = "cartoonColor";
+
+    public enum Style {
+        // tombol menu biasa, hover tetap muncul walaupun disabled
+        REGULAR(Constants.SHADOW_OFFSET, Constants.BORDER_RADIUS, Constants.BORDER_THICKNESS, 5, 0, 100, false, 1.0f),
+        // tombol kecil di pengaturan
+        SMALL(4, 20, 3, 3, 1, 100, false, 1.0f),
+        // lifeline kuis: disabled digambar 40%
+        LIFELINE(Constants.SHADOW_OFFSET, Constants.BORDER_RADIUS, Constants.BORDER_THICKNESS, 5, 0, 100, true, 0.4f),
+        // opsi jawaban: alpha dari client property fadeAlpha, disabled 30%, bayangan setengah
+        OPTION(Constants.SHADOW_OFFSET, Constants.BORDER_RADIUS, Constants.BORDER_THICKNESS, 5, 0, 50, true, 0.3f);
+
+        private final int shadowOffset;
+        private final int radius;
+        private final int stroke;
+        private final int highlightInset;
+        private final int outlineInset;
+        private final int shadowAlpha;
+        private final boolean disabledAware;
+        private final float disabledAlpha;
+        // lebar satu sisi nine-slice, harus mencakup sudut bayangan, badan dan garis tepi
+        private final int edge;
+
+        Style(int shadowOffset, int radius, int stroke, int highlightInset, int outlineInset,
+              int shadowAlpha, boolean disabledAware, float disabledAlpha) {
+            this.shadowOffset = shadowOffset;
+            this.radius = radius;
+            this.stroke = stroke;
+            this.highlightInset = highlightInset;
+            this.outlineInset = outlineInset;
+            this.shadowAlpha = shadowAlpha;
+            this.disabledAware = disabledAware;
+            this.disabledAlpha = disabledAlpha;
+            this.edge = radius + shadowOffset + stroke + 2;
+        }
+    }
+
+    private static final int STATE_NORMAL = 0;
+    private static final int STATE_HOVER = 1;
+    private static final int STATE_PRESSED = 2;
+
+    private static final int MAX_CACHED_IMAGES = 256;
+    private static final Color GOLD = new Color(255, 215, 0);
+    private static final Color TEXT_COLOR = Color.WHITE;
+    private static final Color TEXT_DIM_COLOR = new Color(255, 255, 255, 180);
+    private static final Color TEXT_SHADOW_COLOR = new Color(0, 0, 0, 100);
+    private static final Color TEXT_SHADOW_PRESSED_COLOR = new Color(0, 0, 0, 50);
+
+    private static final CartoonButtonUI[] INSTANCES = new CartoonButtonUI[Style.values().length];
+
+    // akses hanya dari EDT
+    private static final Map<Long, BufferedImage> cache = new LinkedHashMap<Long, BufferedImage>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, BufferedImage> eldest) {
+            return size() > MAX_CACHED_IMAGES;
+        }
+    };
+
+    private final Style style;
+    private final MouseAdapter hoverListener = new MouseAdapter() {
+        @Override
+        public void mouseEntered(MouseEvent e) {
+            AbstractButton button = (AbstractButton) e.getSource();
+            if (!style.disabledAware || button.isEnabled()) {
+                button.putClientProperty(HOVERED, true);
+                button.repaint();
+            }
+        }
+
+        @Override
+        public void mouseExited(MouseEvent e) {
+            AbstractButton button = (AbstractButton) e.getSource();
+            button.putClientProperty(HOVERED, false);
+            button.repaint();
+        }
+    };
+
+    private CartoonButtonUI(Style style) {
+        this.style = style;
+    }
+
+    public static synchronized CartoonButtonUI getInstance(Style style) {
+        CartoonButtonUI ui = INSTANCES[style.ordinal()];
+        if (ui == null) {
+            ui = new CartoonButtonUI(style);
+            INSTANCES[style.ordinal()] = ui;
+        }
+        return ui;
+    }
+
+    public static JButton createButton(String text, Color color, Font font, Style style) {
+        JButton button = new JButton(text);
+        button.putClientProperty(COLOR, color);
+        button.setUI(getInstance(style));
+        button.setFont(font);
+        button.setForeground(Color.WHITE);
+        button.setFocusPainted(false);
+        button.setBorderPainted(false);
+        button.setContentAreaFilled(false);
+        button.setCursor(new Cursor(Cursor.HAND_CURSOR));
+        return button;
+    }
+
+    @Override
+    protected void installListeners(AbstractButton b) {
+        super.installListeners(b);
+        b.addMouseListener(hoverListener);
+    }
+
+    @Override
+    protected void uninstallListeners(AbstractButton b) {
+        b.removeMouseListener(hoverListener);
+        super.uninstallListeners(b);
+    }
+
+    @Override
+    public void paint(Graphics g, JComponent c) {
+        AbstractButton button = (AbstractButton) c;
+        int width = button.getWidth();
+        int height = button.getHeight();
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        boolean pressed = button.getModel().isPressed();
+        boolean enabled = button.isEnabled();
+        boolean hovered = Boolean.TRUE.equals(button.getClientProperty(HOVERED)) && (enabled || !style.disabledAware);
+        boolean highlighted = Boolean.TRUE.equals(button.getClientProperty(HIGHLIGHTED));
+        int state = pressed ? STATE_PRESSED : hovered ? STATE_HOVER : STATE_NORMAL;
+
+        float alpha = 1.0f;
+        if (style == Style.OPTION) {
+            Object fade = button.getClientProperty(FADE_ALPHA);
+            alpha = fade instanceof Float ? (Float) fade : 1.0f;
+            if (!enabled || alpha < 0.1f) alpha = style.disabledAlpha;
+        } else if (style.disabledAware && !enabled) {
+            alpha = style.disabledAlpha;
+        }
+
+        Color color = (Color) button.getClientProperty(COLOR);
+        if (color == null) color = Constants.NEO_PINK;
+        if (highlighted) color = Constants.NEO_ORANGE;
+
+        Graphics2D g2d = (Graphics2D) g.create();
+        try {
+            if (alpha < 1.0f) {
+                g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha));
+            }
+            int sliceWidth = style.edge * 2 + 1;
+            if (width < sliceWidth) {
+                // terlalu sempit untuk di-slice, gambar langsung
+                renderBody(g2d, width, height, color, state, highlighted);
+            } else {
+                BufferedImage body = getBody(button.getGraphicsConfiguration(), height, color, state, highlighted);
+                int edge = style.edge;
+                g2d.drawImage(body, 0, 0, edge, height, 0, 0, edge, height, null);
+                g2d.drawImage(body, edge, 0, width - edge, height, edge, 0, edge + 1, height, null);
+                g2d.drawImage(body, width - edge, 0, width, height, edge + 1, 0, sliceWidth, height, null);
+            }
+            paintText(g2d, button, width, height, pressed, enabled);
+        } finally {
+            g2d.dispose();
+        }
+    }
+
+    private BufferedImage getBody(GraphicsConfiguration gc, int height, Color color, int state, boolean highlighted) {
+        long key = ((long) (color.getRGB() & 0xFFFFFF) << 24) | ((long) (height & 0xFFFF) << 8) |
+                   (style.ordinal() << 3) | (state << 1) | (highlighted ? 1 : 0);
+        BufferedImage body = cache.get(key);
+        if (body == null) {
+            int sliceWidth = style.edge * 2 + 1;
+            body = gc != null ? gc.createCompatibleImage(sliceWidth, height, Transparency.TRANSLUCENT)
+                              : new BufferedImage(sliceWidth, height, BufferedImage.TYPE_INT_ARGB_PRE);
+            Graphics2D g2d = body.createGraphics();
+            try {
+                renderBody(g2d, sliceWidth, height, color, state, highlighted);
+            } finally {
+                g2d.dispose();
+            }
+            cache.put(key, body);
+        }
+        return body;
+    }
+
+    private void renderBody(Graphics2D g2d, int width, int height, Color color, int state, boolean highlighted) {
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        int shadow = style.shadowOffset;
+        int radius = style.radius;
+        boolean pressed = state == STATE_PRESSED;
+
+        g2d.setColor(new Color(0, 0, 0, style.shadowAlpha));
+        g2d.fillRoundRect(shadow, shadow, width - shadow, height - shadow, radius, radius);
+
+        Color lightColor = color.brighter();
+        Color darkColor = color;
+        if (state == STATE_HOVER) {
+            lightColor = new Color(
+                Math.min(255, lightColor.getRed() + 30),
+                Math.min(255, lightColor.getGreen() + 30),
+                Math.min(255, lightColor.getBlue() + 30)
+            );
+            darkColor = color.brighter();
+        }
+        if (pressed) {
+            lightColor = new Color(lightColor.getRed(), lightColor.getGreen(), lightColor.getBlue(), 150);
+            darkColor = new Color(darkColor.getRed(), darkColor.getGreen(), darkColor.getBlue(), 150);
+        }
+        g2d.setPaint(new GradientPaint(0, 0, lightColor, 0, height - shadow, darkColor));
+        g2d.fillRoundRect(0, 0, width - shadow, height - shadow, radius, radius);
+
+        int inset = style.highlightInset;
+        g2d.setColor(new Color(255, 255, 255, pressed ? 40 : 80));
+        g2d.fillRoundRect(inset, inset, width - shadow - inset * 2, (height - shadow) / 2 - inset,
+            radius - 5, radius - 5);
+
+        int outlineAlpha = pressed ? 150 : 255;
+        int outline = style.outlineInset;
+        if (highlighted) {
+            g2d.setColor(new Color(GOLD.getRed(), GOLD.getGreen(), GOLD.getBlue(), outlineAlpha));
+            g2d.setStroke(new BasicStroke(style.stroke + 2));
+        } else {
+            g2d.setColor(new Color(255, 255, 255, outlineAlpha));
+            g2d.setStroke(new BasicStroke(style.stroke));
+        }
+        g2d.drawRoundRect(outline, outline, width - shadow - outline * 2, height - shadow - outline * 2,
+            radius, radius);
+    }
+
+    private void paintText(Graphics2D g2d, AbstractButton button, int width, int height,
+                           boolean pressed, boolean enabled) {
+        String text = button.getText();
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g2d.setFont(button.getFont());
+        FontMetrics fm = g2d.getFontMetrics();
+        int shadow = style.shadowOffset;
+        int x = (width - shadow - fm.stringWidth(text)) / 2;
+        int y = ((height - shadow - fm.getHeight()) / 2) + fm.getAscent();
+
+        g2d.setColor(pressed ? TEXT_SHADOW_PRESSED_COLOR : TEXT_SHADOW_COLOR);
+        g2d.drawString(text, x + 2, y + 2);
+        boolean dim = pressed || (style == Style.LIFELINE && !enabled);
+        g2d.setColor(dim ? TEXT_DIM_COLOR : TEXT_COLOR);
+        g2d.drawString(text, x, y);
+    }
+}
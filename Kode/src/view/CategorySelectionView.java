@@ -1,8 +1,6 @@
 package view;
 
 import java.awt.*;
-import java.awt.event.MouseAdapter;
-import java.awt.event.MouseEvent;
 import javax.swing.*;
 import util.AudioManager;
 import util.Constants;
@@ -56,26 +54,7 @@ public class CategorySelectionView extends JPanel {
         Graphics2D g2d = (Graphics2D) g;
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
         
-        int centerX = getWidth() / 2;
-        int centerY = getHeight() / 2;
-        float radius = Math.max(getWidth(), getHeight());
-        
-        float[] dist = {0.0f, 0.5f, 1.0f};
-        Color[] colors = {Constants.CARTOON_RADIAL_CENTER, Constants.CARTOON_BG_START, Constants.CARTOON_BG_END};
-        RadialGradientPaint gradient = new RadialGradientPaint(
-            centerX, centerY, radius, dist, colors
-        );
-        g2d.setPaint(gradient);
-        g2d.fillRect(0, 0, getWidth(), getHeight());
-        
-        g2d.setColor(new Color(255, 255, 255, 30));
-        g2d.setStroke(new BasicStroke(3));
-        for (int i = 0; i < 16; i++) {
-            double angle = (Math.PI * 2 / 16) * i;
-            int x2 = centerX + (int)(Math.cos(angle) * radius);
-            int y2 = centerY + (int)(Math.sin(angle) * radius);
-            g2d.drawLine(centerX, centerY, x2, y2);
-        }
+        BackgroundRenderer.paint(this, g2d);
     }
     
     private void createComponents() {
@@ -164,216 +143,11 @@ public class CategorySelectionView extends JPanel {
     }
     
     private JButton createCategoryButton(String text, Color bgColor) {
-        JButton button = new JButton(text) {
-            @Override
-            protected void paintComponent(Graphics g) {
-                Graphics2D g2d = (Graphics2D) g.create();
-                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-                g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
-                
-                boolean pressed = getModel().isPressed();
-                Boolean isHoveredObj = (Boolean) getClientProperty("isHovered");
-                boolean isHovered = isHoveredObj != null && isHoveredObj;
-                
-                g2d.setColor(new Color(0, 0, 0, 100));
-                g2d.fillRoundRect(Constants.SHADOW_OFFSET, Constants.SHADOW_OFFSET,
-                    getWidth() - Constants.SHADOW_OFFSET, getHeight() - Constants.SHADOW_OFFSET,
-                    Constants.BORDER_RADIUS, Constants.BORDER_RADIUS);
-                
-                Color lightColor = bgColor.brighter();
-                Color darkColor = bgColor;
-                
-                if (isHovered && !pressed) {
-                    lightColor = new Color(
-                        Math.min(255, lightColor.getRed() + 30),
-                        Math.min(255, lightColor.getGreen() + 30),
-                        Math.min(255, lightColor.getBlue() + 30)
-                    );
-                    darkColor = bgColor.brighter();
-                }
-                
-                if (pressed) {
-                    lightColor = new Color(
-                        lightColor.getRed(),
-                        lightColor.getGreen(),
-                        lightColor.getBlue(),
-                        150
-                    );
-                    darkColor = new Color(
-                        darkColor.getRed(),
-                        darkColor.getGreen(),
-                        darkColor.getBlue(),
-                        150
-                    );
-                }
-                
-                GradientPaint gradient = new GradientPaint(
-                    0, 0, lightColor,
-                    0, getHeight() - Constants.SHADOW_OFFSET, darkColor
-                );
-                g2d.setPaint(gradient);
-                g2d.fillRoundRect(0, 0,
-                    getWidth() - Constants.SHADOW_OFFSET, getHeight() - Constants.SHADOW_OFFSET,
-                    Constants.BORDER_RADIUS, Constants.BORDER_RADIUS);
-                
-                int highlightAlpha = pressed ? 40 : 80;
-                g2d.setColor(new Color(255, 255, 255, highlightAlpha));
-                g2d.fillRoundRect(5, 5,
-                    getWidth() - Constants.SHADOW_OFFSET - 10, (getHeight() - Constants.SHADOW_OFFSET) / 2 - 5,
-                    Constants.BORDER_RADIUS - 5, Constants.BORDER_RADIUS - 5);
-                
-                int outlineAlpha = pressed ? 150 : 255;
-                g2d.setColor(new Color(255, 255, 255, outlineAlpha));
-                g2d.setStroke(new BasicStroke(Constants.BORDER_THICKNESS));
-                g2d.drawRoundRect(0, 0,
-                    getWidth() - Constants.SHADOW_OFFSET, getHeight() - Constants.SHADOW_OFFSET,
-                    Constants.BORDER_RADIUS, Constants.BORDER_RADIUS);
-                
-                g2d.setFont(getFont());
-                FontMetrics fm = g2d.getFontMetrics();
-                int x = (getWidth() - Constants.SHADOW_OFFSET - fm.stringWidth(getText())) / 2;
-                int y = ((getHeight() - Constants.SHADOW_OFFSET - fm.getHeight()) / 2) + fm.getAscent();
-                
-                int textShadowAlpha = pressed ? 50 : 100;
-                g2d.setColor(new Color(0, 0, 0, textShadowAlpha));
-                g2d.drawString(getText(), x + 2, y + 2);
-                
-                int textAlpha = pressed ? 180 : 255;
-                g2d.setColor(new Color(255, 255, 255, textAlpha));
-                g2d.drawString(getText(), x, y);
-                
-                g2d.dispose();
-            }
-        };
-        
-        button.setFont(new Font("Arial Black", Font.BOLD, 20));
-        button.setForeground(Color.WHITE);
-        button.setFocusPainted(false);
-        button.setBorderPainted(false);
-        button.setContentAreaFilled(false);
-        button.setCursor(new Cursor(Cursor.HAND_CURSOR));
-        
-        button.addMouseListener(new MouseAdapter() {
-            @Override
-            public void mouseEntered(MouseEvent e) {
-                button.putClientProperty("isHovered", true);
-                button.repaint();
-            }
-            
-            @Override
-            public void mouseExited(MouseEvent e) {
-                button.putClientProperty("isHovered", false);
-                button.repaint();
-            }
-        });
-        
-        return button;
+        return CartoonButtonUI.createButton(text, bgColor, new Font("Arial Black", Font.BOLD, 20),
+            CartoonButtonUI.Style.REGULAR);
     }
     
     private JButton createCartoonButton(String text, Color bgColor) {
-        JButton button = new JButton(text) {
-            @Override
-            protected void paintComponent(Graphics g) {
-                Graphics2D g2d = (Graphics2D) g.create();
-                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-                g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
-                
-                boolean pressed = getModel().isPressed();
-                Boolean isHoveredObj = (Boolean) getClientProperty("isHovered");
-                boolean isHovered = isHoveredObj != null && isHoveredObj;
-                
-                g2d.setColor(new Color(0, 0, 0, 100));
-                g2d.fillRoundRect(Constants.SHADOW_OFFSET, Constants.SHADOW_OFFSET,
-                    getWidth() - Constants.SHADOW_OFFSET, getHeight() - Constants.SHADOW_OFFSET,
-                    Constants.BORDER_RADIUS, Constants.BORDER_RADIUS);
-                
-                Color lightColor = bgColor.brighter();
-                Color darkColor = bgColor;
-                
-                if (isHovered && !pressed) {
-                    lightColor = new Color(
-                        Math.min(255, lightColor.getRed() + 30),
-                        Math.min(255, lightColor.getGreen() + 30),
-                        Math.min(255, lightColor.getBlue() + 30)
-                    );
-                    darkColor = bgColor.brighter();
-                }
-                
-                if (pressed) {
-                    lightColor = new Color(
-                        lightColor.getRed(),
-                        lightColor.getGreen(),
-                        lightColor.getBlue(),
-                        150
-                    );
-                    darkColor = new Color(
-                        darkColor.getRed(),
-                        darkColor.getGreen(),
-                        darkColor.getBlue(),
-                        150
-                    );
-                }
-                
-                GradientPaint gradient = new GradientPaint(
-                    0, 0, lightColor,
-                    0, getHeight() - Constants.SHADOW_OFFSET, darkColor
-                );
-                g2d.setPaint(gradient);
-                g2d.fillRoundRect(0, 0,
-                    getWidth() - Constants.SHADOW_OFFSET, getHeight() - Constants.SHADOW_OFFSET,
-                    Constants.BORDER_RADIUS, Constants.BORDER_RADIUS);
-                
-                int highlightAlpha = pressed ? 40 : 80;
-                g2d.setColor(new Color(255, 255, 255, highlightAlpha));
-                g2d.fillRoundRect(5, 5,
-                    getWidth() - Constants.SHADOW_OFFSET - 10, (getHeight() - Constants.SHADOW_OFFSET) / 2 - 5,
-                    Constants.BORDER_RADIUS - 5, Constants.BORDER_RADIUS - 5);
-                
-                int outlineAlpha = pressed ? 150 : 255;
-                g2d.setColor(new Color(255, 255, 255, outlineAlpha));
-                g2d.setStroke(new BasicStroke(Constants.BORDER_THICKNESS));
-                g2d.drawRoundRect(0, 0,
-                    getWidth() - Constants.SHADOW_OFFSET, getHeight() - Constants.SHADOW_OFFSET,
-                    Constants.BORDER_RADIUS, Constants.BORDER_RADIUS);
-                
-                g2d.setFont(getFont());
-                FontMetrics fm = g2d.getFontMetrics();
-                int x = (getWidth() - Constants.SHADOW_OFFSET - fm.stringWidth(getText())) / 2;
-                int y = ((getHeight() - Constants.SHADOW_OFFSET - fm.getHeight()) / 2) + fm.getAscent();
-                
-                int textShadowAlpha = pressed ? 50 : 100;
-                g2d.setColor(new Color(0, 0, 0, textShadowAlpha));
-                g2d.drawString(getText(), x + 2, y + 2);
-                
-                int textAlpha = pressed ? 180 : 255;
-                g2d.setColor(new Color(255, 255, 255, textAlpha));
-                g2d.drawString(getText(), x, y);
-                
-                g2d.dispose();
-            }
-        };
-        
-        button.setFont(Constants.BUTTON_FONT);
-        button.setForeground(Color.WHITE);
-        button.setFocusPainted(false);
-        button.setBorderPainted(false);
-        button.setContentAreaFilled(false);
-        button.setCursor(new Cursor(Cursor.HAND_CURSOR));
-        
-        button.addMouseListener(new MouseAdapter() {
-            @Override
-            public void mouseEntered(MouseEvent e) {
-                button.putClientProperty("isHovered", true);
-                button.repaint();
-            }
-            
-            @Override
-            public void mouseExited(MouseEvent e) {
-                button.putClientProperty("isHovered", false);
-                button.repaint();
-            }
-        });
-        
-        return button;
+        return CartoonButtonUI.createButton(text, bgColor, Constants.BUTTON_FONT, CartoonButtonUI.Style.REGULAR);
     }
 }
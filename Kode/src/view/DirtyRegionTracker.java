@@ -0,0 +1,132 @@
+package view;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import javax.swing.JComponent;
+import util.AppConfig;
+
+// Mengumpulkan area yang berubah dalam satu tick animasi (posisi lama + posisi baru setiap
+// elemen) lalu hanya area itu yang di-repaint, bukan seluruh panel beserta gradient-nya.
+// Area yang bersinggungan digabung. RepaintManager menyatukan semua repaint() satu komponen
+// jadi satu kotak, jadi kalau area-area kecil tersebar jauh lebih hemat dicat satu per satu
+// dengan paintImmediately. Dipanggil dari EDT (timer Swing).
+//
+// -Drapidq.ui.debug.repaint=true menggambar garis tepi area yang dicat di setiap paint,
+// warnanya berganti tiap frame supaya terlihat bagian mana yang ikut dicat ulang.
+public class DirtyRegionTracker {
+
+    public static final String DEBUG_REPAINT = "ui.debug.repaint";
+
+    private static final boolean DEBUG = AppConfig.getInstance().getBoolean(DEBUG_REPAINT, false);
+    private static final Color[] DEBUG_COLORS = {
+        new Color(255, 0, 0, 180), new Color(0, 255, 0, 180), new Color(0, 128, 255, 180),
+        new Color(255, 0, 255, 180), new Color(255, 255, 0, 180), new Color(0, 255, 255, 180)
+    };
+    private static final Rectangle debugClip = new Rectangle();
+    private static int debugFrame;
+
+    // kalau luas semua area lebih dari ini dibanding kotak gabungannya, cat gabungannya sekaligus
+    private static final double UNION_COVERAGE = 0.6;
+
+    private final Rectangle[] regions;
+    private final Rectangle union = new Rectangle();
+    private int count;
+
+    public DirtyRegionTracker(int maxRegions) {
+        regions = new Rectangle[maxRegions];
+        for (int i = 0; i < maxRegions; i++) {
+            regions[i] = new Rectangle();
+        }
+    }
+
+    public void add(int x, int y, int width, int height) {
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        if (count == 0) {
+            union.setBounds(x, y, width, height);
+        } else {
+            union.add(x, y);
+            union.add(x + width, y + height);
+        }
+
+        for (int i = 0; i < count; i++) {
+            Rectangle region = regions[i];
+            if (region.intersects(x, y, width, height)) {
+                region.add(x, y);
+                region.add(x + width, y + height);
+                mergeOverlaps(i);
+                return;
+            }
+        }
+        if (count == regions.length) {
+            // penuh, elemen berikutnya ikut kotak gabungan
+            count = 1;
+            regions[0].setBounds(union);
+            return;
+        }
+        regions[count++].setBounds(x, y, width, height);
+    }
+
+    public void add(Rectangle bounds) {
+        add(bounds.x, bounds.y, bounds.width, bounds.height);
+    }
+
+    // area yang membesar setelah digabung bisa menyentuh area lain
+    private void mergeOverlaps(int index) {
+        boolean merged = true;
+        while (merged) {
+            merged = false;
+            for (int i = 0; i < count; i++) {
+                if (i != index && regions[index].intersects(regions[i])) {
+                    regions[index].add(regions[i]);
+                    regions[i].setBounds(regions[count - 1]);
+                    count--;
+                    if (index == count) {
+                        index = i;
+                    }
+                    merged = true;
+                    break;
+                }
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public void flush(JComponent component) {
+        if (count == 0) {
+            return;
+        }
+        if (count == 1 || !component.isShowing() || coverage() > UNION_COVERAGE) {
+            component.repaint(union.x, union.y, union.width, union.height);
+        } else {
+            for (int i = 0; i < count; i++) {
+                Rectangle region = regions[i];
+                component.paintImmediately(region.x, region.y, region.width, region.height);
+            }
+        }
+        count = 0;
+    }
+
+    private double coverage() {
+        long area = 0;
+        for (int i = 0; i < count; i++) {
+            area += (long) regions[i].width * regions[i].height;
+        }
+        return area / Math.max(1.0, (double) union.width * union.height);
+    }
+
+    // dipanggil di akhir paintComponent
+    public static void paintDebugOverlay(Graphics g) {
+        if (!DEBUG) {
+            return;
+        }
+        g.getClipBounds(debugClip);
+        g.setColor(DEBUG_COLORS[debugFrame++ % DEBUG_COLORS.length]);
+        g.drawRect(debugClip.x, debugClip.y, debugClip.width - 1, debugClip.height - 1);
+    }
+}
@@ -0,0 +1,210 @@
+package view;
+
+import java.awt.Frame;
+import java.awt.Window;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.HierarchyListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import util.AppConfig;
+
+// Satu javax.swing.Timer untuk semua animasi view. Animasi milik view yang kartunya tidak
+// sedang ditampilkan CardLayout (isShowing() false) atau yang jendelanya di-minimize tidak
+// dipanggil, dan timer berhenti total kalau tidak ada animasi yang aktif; HierarchyListener
+// dan WindowListener membangunkannya lagi. Semua pemanggilan dari EDT.
+//   - ui.fps.cap          : batas frame per detik (default 60)
+//   - ui.debug.frames=true: ringkasan frame budget dicetak setiap 10 detik
+public class FrameScheduler {
+
+    public static final String FPS_CAP = "ui.fps.cap";
+    public static final String DEBUG_FRAMES = "ui.debug.frames";
+
+    private static final int DEFAULT_FPS_CAP = 60;
+    private static final long DEBUG_REPORT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+    // setelah jeda (view disembunyikan, jendela di-minimize) animasi tidak boleh melompat jauh
+    private static final int MAX_CATCH_UP_FRAMES = 4;
+
+    public interface Animation {
+        // false kalau animasi sudah selesai dan boleh dilepas
+        boolean onFrame(long deltaNanos);
+    }
+
+    private static FrameScheduler instance;
+
+    private final Timer timer;
+    private final long frameNanos;
+    private final boolean debug;
+    private final List<Registration> registrations = new ArrayList<>();
+    private final List<Window> watchedWindows = new ArrayList<>();
+    private final HierarchyListener showingListener = e -> {
+        if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0 && e.getComponent().isShowing()) {
+            wake();
+        }
+    };
+    private final WindowAdapter windowListener = new WindowAdapter() {
+        @Override
+        public void windowDeiconified(WindowEvent e) {
+            wake();
+        }
+    };
+
+    private long lastTickNanos;
+    private long lastReportNanos = System.nanoTime();
+    private long frames;
+    private long overBudgetFrames;
+    private long droppedFrames;
+    private long totalWorkNanos;
+    private long maxWorkNanos;
+
+    private FrameScheduler(int fpsCap) {
+        frameNanos = TimeUnit.SECONDS.toNanos(1) / fpsCap;
+        debug = AppConfig.getInstance().getBoolean(DEBUG_FRAMES, false);
+        timer = new Timer((int) Math.max(1, TimeUnit.NANOSECONDS.toMillis(frameNanos)), e -> tick());
+        timer.setCoalesce(true);
+    }
+
+    public static synchronized FrameScheduler getInstance() {
+        if (instance == null) {
+            int fpsCap = AppConfig.getInstance().getInt(FPS_CAP, DEFAULT_FPS_CAP);
+            instance = new FrameScheduler(Math.max(1, Math.min(fpsCap, 240)));
+        }
+        return instance;
+    }
+
+    // animasi hanya berjalan selama owner terlihat
+    public Registration register(JComponent owner, Animation animation) {
+        Registration registration = new Registration(owner, animation);
+        registrations.add(registration);
+        owner.addHierarchyListener(showingListener);
+        wake();
+        return registration;
+    }
+
+    private void wake() {
+        if (!timer.isRunning() && hasRunnable()) {
+            lastTickNanos = System.nanoTime();
+            timer.start();
+        }
+    }
+
+    private boolean hasRunnable() {
+        for (int i = 0; i < registrations.size(); i++) {
+            if (isRunnable(registrations.get(i).owner)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isRunnable(JComponent owner) {
+        if (!owner.isShowing()) {
+            return false;
+        }
+        Window window = SwingUtilities.getWindowAncestor(owner);
+        if (window == null) {
+            return false;
+        }
+        if (!watchedWindows.contains(window)) {
+            watchedWindows.add(window);
+            window.addWindowListener(windowListener);
+        }
+        return !(window instanceof Frame) || (((Frame) window).getExtendedState() & Frame.ICONIFIED) == 0;
+    }
+
+    private void tick() {
+        long start = System.nanoTime();
+        long interval = start - lastTickNanos;
+        lastTickNanos = start;
+        if (interval > frameNanos * 3 / 2) {
+            droppedFrames += Math.min(interval / frameNanos, MAX_CATCH_UP_FRAMES) - 1;
+        }
+
+        boolean anyRunning = false;
+        for (int i = registrations.size() - 1; i >= 0; i--) {
+            Registration registration = registrations.get(i);
+            if (!isRunnable(registration.owner)) {
+                registration.lastFrameNanos = 0;
+                continue;
+            }
+            long delta = registration.lastFrameNanos == 0 ? frameNanos
+                : Math.min(start - registration.lastFrameNanos, frameNanos * MAX_CATCH_UP_FRAMES);
+            registration.lastFrameNanos = start;
+            boolean keep;
+            try {
+                keep = registration.animation.onFrame(delta);
+            } catch (RuntimeException e) {
+                System.err.println("Animasi dihentikan karena error: " + e.getMessage());
+                e.printStackTrace();
+                keep = false;
+            }
+            if (keep) {
+                anyRunning = true;
+            } else {
+                remove(registration);
+            }
+        }
+
+        long work = System.nanoTime() - start;
+        frames++;
+        totalWorkNanos += work;
+        maxWorkNanos = Math.max(maxWorkNanos, work);
+        if (work > frameNanos) {
+            overBudgetFrames++;
+        }
+        if (debug && start - lastReportNanos >= DEBUG_REPORT_INTERVAL_NANOS) {
+            lastReportNanos = start;
+            System.out.print(report());
+        }
+        if (!anyRunning) {
+            timer.stop();
+        }
+    }
+
+    private void remove(Registration registration) {
+        registrations.remove(registration);
+        for (int i = 0; i < registrations.size(); i++) {
+            if (registrations.get(i).owner == registration.owner) {
+                return;
+            }
+        }
+        registration.owner.removeHierarchyListener(showingListener);
+    }
+
+    // waktu kerja yang dihitung hanya onFrame; paint terjadi setelahnya lewat RepaintManager
+    public String report() {
+        return String.format(Locale.ROOT,
+            "frames %d (budget %.2f ms): rata-rata %.3f ms, max %.3f ms, lewat budget %d, terlewat %d, animasi %d%n",
+            frames, frameNanos / 1e6, frames > 0 ? totalWorkNanos / 1e6 / frames : 0.0, maxWorkNanos / 1e6,
+            overBudgetFrames, droppedFrames, registrations.size());
+    }
+
+    public long getFrameBudgetNanos() { return frameNanos; }
+    public long getFrames() { return frames; }
+    public long getOverBudgetFrames() { return overBudgetFrames; }
+    public long getDroppedFrames() { return droppedFrames; }
+    public boolean isRunning() { return timer.isRunning(); }
+
+    public class Registration {
+        private final JComponent owner;
+        private final Animation animation;
+        private long lastFrameNanos;
+
+        private Registration(JComponent owner, Animation animation) {
+            this.owner = owner;
+            this.animation = animation;
+        }
+
+        public void cancel() {
+            if (registrations.contains(this)) {
+                remove(this);
+            }
+        }
+    }
+}
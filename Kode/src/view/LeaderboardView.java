@@ -1,9 +1,8 @@
 package view;
 
+import core.AsyncDatabase;
 import core.Database;
 import java.awt.*;
-import java.awt.event.MouseAdapter;
-import java.awt.event.MouseEvent;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.text.SimpleDateFormat;
@@ -21,9 +20,13 @@ public class LeaderboardView extends JPanel {
     private JLabel titleLabel;
     private JPanel leaderboardPanel;
     private JScrollPane scrollPane;
-    private Database database;
+    private int loadGeneration = 0;
+    private Database.LeaderboardCursor nextCursor;
+    private boolean loadingMore = false;
     private BufferedImage emptyLeaderboardImage;
-    private static final int TOP_LIMIT = 10;
+    private static final int PLACEHOLDER_ROWS = 10;
+    private static final int PAGE_SIZE = 20;
+    private static final int LOAD_MORE_THRESHOLD = 200;
     private static final double EMPTY_IMAGE_VERTICAL_RATIO = 0.08;
     
     private JComboBox<String> categoryComboBox;
@@ -34,7 +37,6 @@ public class LeaderboardView extends JPanel {
     public LeaderboardView(ScreenManager screenManager) {
         this.screenManager = screenManager;
         this.audioManager = AudioManager.getInstance();
-        this.database = Database.getInstance();
         loadEmptyLeaderboardImage();
         setLayout(null);
         setOpaque(false);
@@ -58,26 +60,7 @@ public class LeaderboardView extends JPanel {
         Graphics2D g2d = (Graphics2D) g;
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
         
-        int centerX = getWidth() / 2;
-        int centerY = getHeight() / 2;
-        float radius = Math.max(getWidth(), getHeight());
-        
-        float[] dist = {0.0f, 0.5f, 1.0f};
-        Color[] colors = {Constants.CARTOON_RADIAL_CENTER, Constants.CARTOON_BG_START, Constants.CARTOON_BG_END};
-        RadialGradientPaint gradient = new RadialGradientPaint(
-            centerX, centerY, radius, dist, colors
-        );
-        g2d.setPaint(gradient);
-        g2d.fillRect(0, 0, getWidth(), getHeight());
-        
-        g2d.setColor(new Color(255, 255, 255, 30));
-        g2d.setStroke(new BasicStroke(3));
-        for (int i = 0; i < 16; i++) {
-            double angle = (Math.PI * 2 / 16) * i;
-            int x2 = centerX + (int)(Math.cos(angle) * radius);
-            int y2 = centerY + (int)(Math.sin(angle) * radius);
-            g2d.drawLine(centerX, centerY, x2, y2);
-        }
+        BackgroundRenderer.paint(this, g2d);
     }
     
     private void loadEmptyLeaderboardImage() {
@@ -111,6 +94,14 @@ public class LeaderboardView extends JPanel {
         scrollPane.setBorder(BorderFactory.createEmptyBorder());
         scrollPane.getVerticalScrollBar().setUnitIncrement(16);
         scrollPane.setHorizontalScrollBarPolicy(JScrollPane.HORIZONTAL_SCROLLBAR_NEVER);
+        
+        // halaman berikutnya diambil saat scroll mendekati bagian bawah
+        scrollPane.getVerticalScrollBar().addAdjustmentListener(e -> {
+            JScrollBar bar = scrollPane.getVerticalScrollBar();
+            if (bar.getValue() + bar.getVisibleAmount() >= bar.getMaximum() - LOAD_MORE_THRESHOLD) {
+                loadMore();
+            }
+        });
     }
     
     private void createFilterPanel() {
@@ -214,11 +205,65 @@ public class LeaderboardView extends JPanel {
         String selectedCategory = (String) categoryComboBox.getSelectedItem();
         String selectedDifficulty = (String) difficultyComboBox.getSelectedItem();
         
+        // hanya hasil permintaan terakhir yang ditampilkan
+        final int generation = ++loadGeneration;
+        nextCursor = null;
+        loadingMore = false;
+        AsyncDatabase.onEdt(
+            AsyncDatabase.getInstance().getLeaderboardPage(selectedCategory, selectedDifficulty, null, PAGE_SIZE),
+            (page, error) -> {
+                if (generation == loadGeneration) {
+                    showLeaderboard(page, error);
+                }
+            });
+    }
+    
+    private void loadMore() {
+        if (loadingMore || nextCursor == null) {
+            return;
+        }
+        String selectedCategory = (String) categoryComboBox.getSelectedItem();
+        String selectedDifficulty = (String) difficultyComboBox.getSelectedItem();
+        
+        final int generation = loadGeneration;
+        loadingMore = true;
+        AsyncDatabase.onEdt(
+            AsyncDatabase.getInstance().getLeaderboardPage(selectedCategory, selectedDifficulty, nextCursor, PAGE_SIZE),
+            (page, error) -> {
+                if (generation != loadGeneration) {
+                    return;
+                }
+                loadingMore = false;
+                if (error != null) {
+                    // cursor dibiarkan, scroll berikutnya akan mencoba lagi
+                    System.err.println("Error loading leaderboard page: " + error.getMessage());
+                    return;
+                }
+                appendEntries(page.getEntries());
+                nextCursor = page.getNext();
+                leaderboardPanel.revalidate();
+                leaderboardPanel.repaint();
+            });
+    }
+    
+    private void appendEntries(List<Database.LeaderboardEntry> entries) {
+        for (Database.LeaderboardEntry entry : entries) {
+            JPanel entryPanel = createLeaderboardEntry(entry);
+            leaderboardPanel.add(entryPanel);
+            leaderboardPanel.add(Box.createRigidArea(new Dimension(0, 15)));
+        }
+    }
+    
+    private void showLeaderboard(Database.LeaderboardPage page, Throwable error) {
         leaderboardPanel.removeAll();
+        scrollPane.getVerticalScrollBar().setValue(0);
         
         try {
-            List<Database.LeaderboardEntry> entries = database.getTopLeaderboard(
-                TOP_LIMIT, selectedCategory, selectedDifficulty);
+            if (error != null) {
+                throw new Exception(error.getMessage(), error);
+            }
+            
+            List<Database.LeaderboardEntry> entries = page.getEntries();
             
             if (entries.isEmpty()) {
                 JPanel placeholderContainer = new JPanel();
@@ -227,10 +272,10 @@ public class LeaderboardView extends JPanel {
                 placeholderContainer.setAlignmentX(Component.CENTER_ALIGNMENT);
                 placeholderContainer.setAlignmentY(Component.CENTER_ALIGNMENT);
                 
-                for (int i = 1; i <= TOP_LIMIT; i++) {
+                for (int i = 1; i <= PLACEHOLDER_ROWS; i++) {
                     JPanel entryPanel = createEmptyLeaderboardEntry(i);
                     placeholderContainer.add(entryPanel);
-                    if (i < TOP_LIMIT) {
+                    if (i < PLACEHOLDER_ROWS) {
                         placeholderContainer.add(Box.createRigidArea(new Dimension(0, 15)));
                     }
                 }
@@ -258,11 +303,8 @@ public class LeaderboardView extends JPanel {
                 leaderboardPanel.add(layeredContainer);
                 leaderboardPanel.add(Box.createRigidArea(new Dimension(0, 15)));
             } else {
-                for (Database.LeaderboardEntry entry : entries) {
-                    JPanel entryPanel = createLeaderboardEntry(entry);
-                    leaderboardPanel.add(entryPanel);
-                    leaderboardPanel.add(Box.createRigidArea(new Dimension(0, 15)));
-                }
+                appendEntries(entries);
+                nextCursor = page.getNext();
             }
             
         } catch (Exception e) {
@@ -597,110 +639,7 @@ public class LeaderboardView extends JPanel {
     }
 
     private JButton createCartoonButton(String text, Color bgColor) {
-        JButton button = new JButton(text) {
-            @Override
-            protected void paintComponent(Graphics g) {
-                Graphics2D g2d = (Graphics2D) g.create();
-                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-                g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
-                
-                boolean pressed = getModel().isPressed();
-                Boolean isHoveredObj = (Boolean) getClientProperty("isHovered");
-                boolean isHovered = isHoveredObj != null && isHoveredObj;
-                
-                g2d.setColor(new Color(0, 0, 0, 100));
-                g2d.fillRoundRect(Constants.SHADOW_OFFSET, Constants.SHADOW_OFFSET, 
-                    getWidth() - Constants.SHADOW_OFFSET, getHeight() - Constants.SHADOW_OFFSET, 
-                    Constants.BORDER_RADIUS, Constants.BORDER_RADIUS);
-                
-                Color lightColor = bgColor.brighter();
-                Color darkColor = bgColor;
-                
-                if (isHovered && !pressed) {
-                    lightColor = new Color(
-                        Math.min(255, lightColor.getRed() + 30),
-                        Math.min(255, lightColor.getGreen() + 30),
-                        Math.min(255, lightColor.getBlue() + 30)
-                    );
-                    darkColor = bgColor.brighter();
-                }
-                
-                if (pressed) {
-                    lightColor = new Color(
-                        lightColor.getRed(), 
-                        lightColor.getGreen(), 
-                        lightColor.getBlue(), 
-                        150
-                    );
-                    darkColor = new Color(
-                        darkColor.getRed(), 
-                        darkColor.getGreen(), 
-                        darkColor.getBlue(), 
-                        150
-                    );
-                }
-                
-                GradientPaint gradient = new GradientPaint(
-                    0, 0, lightColor,
-                    0, getHeight() - Constants.SHADOW_OFFSET, darkColor
-                );
-                g2d.setPaint(gradient);
-                g2d.fillRoundRect(0, 0, 
-                    getWidth() - Constants.SHADOW_OFFSET, getHeight() - Constants.SHADOW_OFFSET,
-                    Constants.BORDER_RADIUS, Constants.BORDER_RADIUS);
-                
-                int highlightAlpha = pressed ? 40 : 80;
-                g2d.setColor(new Color(255, 255, 255, highlightAlpha));
-                g2d.fillRoundRect(5, 5, 
-                    getWidth() - Constants.SHADOW_OFFSET - 10, (getHeight() - Constants.SHADOW_OFFSET) / 2 - 5,
-                    Constants.BORDER_RADIUS - 5, Constants.BORDER_RADIUS - 5);
-                
-                int outlineAlpha = pressed ? 150 : 255;
-                g2d.setColor(new Color(255, 255, 255, outlineAlpha));
-                g2d.setStroke(new BasicStroke(Constants.BORDER_THICKNESS));
-                g2d.drawRoundRect(0, 0, 
-                    getWidth() - Constants.SHADOW_OFFSET, getHeight() - Constants.SHADOW_OFFSET,
-                    Constants.BORDER_RADIUS, Constants.BORDER_RADIUS);
-                
-                g2d.setFont(getFont());
-                FontMetrics fm = g2d.getFontMetrics();
-                int x = (getWidth() - Constants.SHADOW_OFFSET - fm.stringWidth(getText())) / 2;
-                int y = ((getHeight() - Constants.SHADOW_OFFSET - fm.getHeight()) / 2) + fm.getAscent();
-                
-                int textShadowAlpha = pressed ? 50 : 100;
-                g2d.setColor(new Color(0, 0, 0, textShadowAlpha));
-                g2d.drawString(getText(), x + 2, y + 2);
-                
-                int textAlpha = pressed ? 180 : 255;
-                g2d.setColor(new Color(255, 255, 255, textAlpha));
-                g2d.drawString(getText(), x, y);
-                
-                g2d.dispose();
-            }
-        };
-        
-        button.setFont(Constants.BUTTON_FONT);
-        button.setForeground(Color.WHITE);
-        button.setFocusPainted(false);
-        button.setBorderPainted(false);
-        button.setContentAreaFilled(false);
-        button.setCursor(new Cursor(Cursor.HAND_CURSOR));
-        
-        button.addMouseListener(new MouseAdapter() {
-            @Override
-            public void mouseEntered(MouseEvent e) {
-                button.putClientProperty("isHovered", true);
-                button.repaint();
-            }
-            
-            @Override
-            public void mouseExited(MouseEvent e) {
-                button.putClientProperty("isHovered", false);
-                button.repaint();
-            }
-        });
-        
-        return button;
+        return CartoonButtonUI.createButton(text, bgColor, Constants.BUTTON_FONT, CartoonButtonUI.Style.REGULAR);
     }
     
     public void refreshLeaderboard() {
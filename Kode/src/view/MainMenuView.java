@@ -27,7 +27,10 @@ public class MainMenuView extends JPanel {
     private JLabel headerLabel;
     private JLabel versionLabel;
     private List<FloatingShape> floatingShapes;
-    private Timer animationTimer;
+    private BufferedImage shapeAtlas;
+    private final DirtyRegionTracker dirtyRegions = new DirtyRegionTracker(16);
+    private static final float SHAPE_FRAME_NANOS = 1_000_000_000f / 60;
+    private FrameScheduler.Registration animation;
     private BufferedImage headerImage;
     private BufferedImage settingsImage;
     private JPanel exitOverlay;
@@ -82,16 +85,24 @@ public class MainMenuView extends JPanel {
             
             floatingShapes.add(new FloatingShape(x, y, size, speedX, speedY, color, isCircle));
         }
+        shapeAtlas = createShapeAtlas(floatingShapes);
     }
     
+    // FrameScheduler menghentikan animasi selama menu utama tidak ditampilkan
     private void startAnimation() {
-        animationTimer = new Timer(16, e -> {
-            for (FloatingShape shape : floatingShapes) {
-                shape.update(getWidth(), getHeight());
+        animation = FrameScheduler.getInstance().register(this, deltaNanos -> {
+            // kecepatan bentuk dinyatakan per frame 60 fps
+            float step = deltaNanos / SHAPE_FRAME_NANOS;
+            // hanya posisi lama dan baru setiap bentuk yang dicat ulang
+            for (int i = 0; i < floatingShapes.size(); i++) {
+                FloatingShape shape = floatingShapes.get(i);
+                shape.addDirtyBounds(dirtyRegions);
+                shape.update(getWidth(), getHeight(), step);
+                shape.addDirtyBounds(dirtyRegions);
             }
-            repaint();
+            dirtyRegions.flush(this);
+            return true;
         });
-        animationTimer.start();
     }
 
     @Override
@@ -100,30 +111,13 @@ public class MainMenuView extends JPanel {
         Graphics2D g2d = (Graphics2D) g;
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
         
-        int centerX = getWidth() / 2;
-        int centerY = getHeight() / 2;
-        float radius = Math.max(getWidth(), getHeight());
+        BackgroundRenderer.paint(this, g2d);
         
-        float[] dist = {0.0f, 0.5f, 1.0f};
-        Color[] colors = {Constants.CARTOON_RADIAL_CENTER, Constants.CARTOON_BG_START, Constants.CARTOON_BG_END};
-        RadialGradientPaint gradient = new RadialGradientPaint(
-            centerX, centerY, radius, dist, colors
-        );
-        g2d.setPaint(gradient);
-        g2d.fillRect(0, 0, getWidth(), getHeight());
-        
-        g2d.setColor(new Color(255, 255, 255, 30));
-        g2d.setStroke(new BasicStroke(3));
-        for (int i = 0; i < 16; i++) {
-            double angle = (Math.PI * 2 / 16) * i;
-            int x2 = centerX + (int)(Math.cos(angle) * radius);
-            int y2 = centerY + (int)(Math.sin(angle) * radius);
-            g2d.drawLine(centerX, centerY, x2, y2);
-        }
-        
-        for (FloatingShape shape : floatingShapes) {
-            shape.draw(g2d);
+        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        for (int i = 0; i < floatingShapes.size(); i++) {
+            floatingShapes.get(i).draw(g2d, shapeAtlas);
         }
+        DirtyRegionTracker.paintDebugOverlay(g2d);
     }
     
     private void createComponents() {
@@ -219,110 +213,7 @@ public class MainMenuView extends JPanel {
     }
     
     private JButton createCartoonButton(String text, Color bgColor) {
-        JButton button = new JButton(text) {
-            @Override
-            protected void paintComponent(Graphics g) {
-                Graphics2D g2d = (Graphics2D) g.create();
-                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-                g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
-                
-                boolean pressed = getModel().isPressed();
-                Boolean isHoveredObj = (Boolean) getClientProperty("isHovered");
-                boolean isHovered = isHoveredObj != null && isHoveredObj;
-                
-                g2d.setColor(new Color(0, 0, 0, 100));
-                g2d.fillRoundRect(Constants.SHADOW_OFFSET, Constants.SHADOW_OFFSET, 
-                    getWidth() - Constants.SHADOW_OFFSET, getHeight() - Constants.SHADOW_OFFSET, 
-                    Constants.BORDER_RADIUS, Constants.BORDER_RADIUS);
-                
-                Color lightColor = bgColor.brighter();
-                Color darkColor = bgColor;
-                
-                if (isHovered && !pressed) {
-                    lightColor = new Color(
-                        Math.min(255, lightColor.getRed() + 30),
-                        Math.min(255, lightColor.getGreen() + 30),
-                        Math.min(255, lightColor.getBlue() + 30)
-                    );
-                    darkColor = bgColor.brighter();
-                }
-                
-                if (pressed) {
-                    lightColor = new Color(
-                        lightColor.getRed(), 
-                        lightColor.getGreen(), 
-                        lightColor.getBlue(), 
-                        150
-                    );
-                    darkColor = new Color(
-                        darkColor.getRed(), 
-                        darkColor.getGreen(), 
-                        darkColor.getBlue(), 
-                        150
-                    );
-                }
-                
-                GradientPaint gradient = new GradientPaint(
-                    0, 0, lightColor,
-                    0, getHeight() - Constants.SHADOW_OFFSET, darkColor
-                );
-                g2d.setPaint(gradient);
-                g2d.fillRoundRect(0, 0, 
-                    getWidth() - Constants.SHADOW_OFFSET, getHeight() - Constants.SHADOW_OFFSET,
-                    Constants.BORDER_RADIUS, Constants.BORDER_RADIUS);
-                
-                int highlightAlpha = pressed ? 40 : 80;
-                g2d.setColor(new Color(255, 255, 255, highlightAlpha));
-                g2d.fillRoundRect(5, 5, 
-                    getWidth() - Constants.SHADOW_OFFSET - 10, (getHeight() - Constants.SHADOW_OFFSET) / 2 - 5,
-                    Constants.BORDER_RADIUS - 5, Constants.BORDER_RADIUS - 5);
-                
-                int outlineAlpha = pressed ? 150 : 255;
-                g2d.setColor(new Color(255, 255, 255, outlineAlpha));
-                g2d.setStroke(new BasicStroke(Constants.BORDER_THICKNESS));
-                g2d.drawRoundRect(0, 0, 
-                    getWidth() - Constants.SHADOW_OFFSET, getHeight() - Constants.SHADOW_OFFSET,
-                    Constants.BORDER_RADIUS, Constants.BORDER_RADIUS);
-                
-                g2d.setFont(getFont());
-                FontMetrics fm = g2d.getFontMetrics();
-                int x = (getWidth() - Constants.SHADOW_OFFSET - fm.stringWidth(getText())) / 2;
-                int y = ((getHeight() - Constants.SHADOW_OFFSET - fm.getHeight()) / 2) + fm.getAscent();
-                
-                int textShadowAlpha = pressed ? 50 : 100;
-                g2d.setColor(new Color(0, 0, 0, textShadowAlpha));
-                g2d.drawString(getText(), x + 2, y + 2);
-                
-                int textAlpha = pressed ? 180 : 255;
-                g2d.setColor(new Color(255, 255, 255, textAlpha));
-                g2d.drawString(getText(), x, y);
-                
-                g2d.dispose();
-            }
-        };
-        
-        button.setFont(Constants.BUTTON_FONT);
-        button.setForeground(Color.WHITE);
-        button.setFocusPainted(false);
-        button.setBorderPainted(false);
-        button.setContentAreaFilled(false);
-        button.setCursor(new Cursor(Cursor.HAND_CURSOR));
-        
-        button.addMouseListener(new MouseAdapter() {
-            @Override
-            public void mouseEntered(MouseEvent e) {
-                ((JButton)e.getSource()).putClientProperty("isHovered", true);
-                button.repaint();
-            }
-            
-            @Override
-            public void mouseExited(MouseEvent e) {
-                ((JButton)e.getSource()).putClientProperty("isHovered", false);
-                button.repaint();
-            }
-        });
-        
-        return button;
+        return CartoonButtonUI.createButton(text, bgColor, Constants.BUTTON_FONT, CartoonButtonUI.Style.REGULAR);
     }
     
     private JButton createIconButton(BufferedImage icon, Color bgColor) {
@@ -661,13 +552,48 @@ public class MainMenuView extends JPanel {
         });
     }
     
+    // Setiap bentuk digambar sekali ke atlas sprite (bayangan, gradient, garis tepi, highlight);
+    // frame animasi hanya menempelkan potongan atlas yang diputar, tanpa alokasi objek.
+    private static BufferedImage createShapeAtlas(List<FloatingShape> shapes) {
+        int width = 0;
+        int height = 1;
+        for (FloatingShape shape : shapes) {
+            width += shape.cellSize() * 2;
+            height = Math.max(height, shape.cellSize());
+        }
+        BufferedImage atlas = new BufferedImage(Math.max(1, width), height, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g2d = atlas.createGraphics();
+        try {
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2d.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+            int offset = 0;
+            for (FloatingShape shape : shapes) {
+                offset = shape.renderSprites(g2d, offset);
+            }
+        } finally {
+            g2d.dispose();
+        }
+        return atlas;
+    }
+
     private static class FloatingShape {
+        // ruang di sekeliling bentuk untuk garis tepi 3px dan antialiasing
+        private static final int PADDING = 4;
+        private static final int SHADOW_OFFSET = 4;
+        private static final Color SHADOW_COLOR = new Color(0, 0, 0, 40);
+        private static final Color OUTLINE_COLOR = new Color(255, 255, 255, 150);
+        private static final Color HIGHLIGHT_COLOR = new Color(255, 255, 255, 60);
+        private static final BasicStroke OUTLINE_STROKE = new BasicStroke(3);
+
         private float x, y;
         private final int size;
         private float speedX, speedY;
         private final Color color;
         private final boolean isCircle;
         private float rotation = 0;
+        // posisi x sprite badan dan bayangan di atlas
+        private int bodySpriteX;
+        private int shadowSpriteX;
         
         public FloatingShape(int x, int y, int size, float speedX, float speedY, Color color, boolean isCircle) {
             this.x = x;
@@ -679,10 +605,10 @@ public class MainMenuView extends JPanel {
             this.isCircle = isCircle;
         }
         
-        public void update(int maxWidth, int maxHeight) {
-            x += speedX;
-            y += speedY;
-            rotation += 0.02f;
+        public void update(int maxWidth, int maxHeight, float step) {
+            x += speedX * step;
+            y += speedY * step;
+            rotation += 0.02f * step;
             
             if (x < -size || x > maxWidth) {
                 speedX = -speedX;
@@ -691,59 +617,84 @@ public class MainMenuView extends JPanel {
                 speedY = -speedY;
             }
         }
-        
-        public void draw(Graphics2D g2d) {
-            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-            
-            g2d.setColor(new Color(0, 0, 0, 40));
+
+        int cellSize() {
+            return size + PADDING * 2;
+        }
+
+        // menggambar sprite badan lalu bayangan mulai dari offset, mengembalikan offset berikutnya
+        int renderSprites(Graphics2D g2d, int offset) {
+            int cell = cellSize();
+            bodySpriteX = offset;
+            shadowSpriteX = offset + cell;
+
+            int bx = bodySpriteX + PADDING;
+            g2d.setPaint(new GradientPaint(bx, PADDING, color.brighter(), bx, PADDING + size, color));
             if (isCircle) {
-                g2d.fillOval((int)x + 4, (int)y + 4, size, size);
+                g2d.fillOval(bx, PADDING, size, size);
             } else {
-                Graphics2D g2dRotated = (Graphics2D) g2d.create();
-                g2dRotated.rotate(rotation, x + size/2 + 4, y + size/2 + 4);
-                g2dRotated.fillRect((int)x + 4, (int)y + 4, size, size);
-                g2dRotated.dispose();
+                g2d.fillRect(bx, PADDING, size, size);
             }
-            
-            Color lightColor = color.brighter();
-            GradientPaint gradient = new GradientPaint(
-                x, y, lightColor,
-                x, y + size, color
-            );
-            g2d.setPaint(gradient);
-            
+
+            g2d.setColor(OUTLINE_COLOR);
+            g2d.setStroke(OUTLINE_STROKE);
             if (isCircle) {
-                g2d.fillOval((int)x, (int)y, size, size);
+                g2d.drawOval(bx, PADDING, size, size);
             } else {
-                Graphics2D g2dRotated = (Graphics2D) g2d.create();
-                g2dRotated.rotate(rotation, x + size/2, y + size/2);
-                g2dRotated.setPaint(gradient);
-                g2dRotated.fillRect((int)x, (int)y, size, size);
-                g2dRotated.dispose();
+                g2d.drawRect(bx, PADDING, size, size);
             }
-            
-            g2d.setColor(new Color(255, 255, 255, 150));
-            g2d.setStroke(new BasicStroke(3));
+
+            g2d.setColor(HIGHLIGHT_COLOR);
             if (isCircle) {
-                g2d.drawOval((int)x, (int)y, size, size);
+                g2d.fillOval(bx + size/4, PADDING + size/6, size/3, size/4);
             } else {
-                Graphics2D g2dRotated = (Graphics2D) g2d.create();
-                g2dRotated.rotate(rotation, x + size/2, y + size/2);
-                g2dRotated.setColor(new Color(255, 255, 255, 150));
-                g2dRotated.setStroke(new BasicStroke(3));
-                g2dRotated.drawRect((int)x, (int)y, size, size);
-                g2dRotated.dispose();
+                g2d.fillRect(bx + size/4, PADDING + size/6, size/3, size/4);
             }
-            
-            g2d.setColor(new Color(255, 255, 255, 60));
+
+            int sx = shadowSpriteX + PADDING;
+            g2d.setColor(SHADOW_COLOR);
             if (isCircle) {
-                g2d.fillOval((int)x + size/4, (int)y + size/6, size/3, size/4);
+                g2d.fillOval(sx, PADDING, size, size);
             } else {
-                Graphics2D g2dRotated = (Graphics2D) g2d.create();
-                g2dRotated.rotate(rotation, x + size/2, y + size/2);
-                g2dRotated.setColor(new Color(255, 255, 255, 60));
-                g2dRotated.fillRect((int)x + size/4, (int)y + size/6, size/3, size/4);
-                g2dRotated.dispose();
+                g2d.fillRect(sx, PADDING, size, size);
+            }
+            return offset + cell * 2;
+        }
+        
+        // kotak yang diputar bisa keluar dari sel sprite-nya, pakai lingkaran luarnya (+1px
+        // untuk interpolasi bilinear)
+        void addDirtyBounds(DirtyRegionTracker tracker) {
+            int reach = isCircle ? cellSize() / 2 + 1 : (int) Math.ceil(cellSize() * Math.sqrt(0.5)) + 1;
+            int centerX = (int) x + size / 2;
+            int centerY = (int) y + size / 2;
+            int extent = reach * 2 + SHADOW_OFFSET + 1;
+            tracker.add(centerX - reach, centerY - reach, extent, extent);
+        }
+        
+        public void draw(Graphics2D g2d, BufferedImage atlas) {
+            int left = (int) x;
+            int top = (int) y;
+            int reach = cellSize();
+            if (!g2d.hitClip(left - reach, top - reach, reach * 3, reach * 3)) {
+                return;
+            }
+            blit(g2d, atlas, shadowSpriteX, left + SHADOW_OFFSET, top + SHADOW_OFFSET);
+            blit(g2d, atlas, bodySpriteX, left, top);
+        }
+
+        // kotak diputar pada pusatnya sendiri; rotate balik dipakai alih-alih getTransform()
+        // supaya tidak ada salinan AffineTransform per frame
+        private void blit(Graphics2D g2d, BufferedImage atlas, int spriteX, int left, int top) {
+            int cell = cellSize();
+            int dx = left - PADDING;
+            int dy = top - PADDING;
+            double center = size / 2.0;
+            if (!isCircle) {
+                g2d.rotate(rotation, left + center, top + center);
+            }
+            g2d.drawImage(atlas, dx, dy, dx + cell, dy + cell, spriteX, 0, spriteX + cell, cell, null);
+            if (!isCircle) {
+                g2d.rotate(-rotation, left + center, top + center);
             }
         }
     }
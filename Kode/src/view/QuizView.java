@@ -1,19 +1,19 @@
 package view;
 
 import java.awt.*;
-import java.awt.event.MouseAdapter;
-import java.awt.event.MouseEvent;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import javax.swing.*;
+import core.AsyncDatabase;
+import core.DataStore;
 import core.Database;
+import core.GameEngine;
 import util.AudioManager;
 import util.Constants;
+import util.GameClock;
 
 public class QuizView extends JPanel {
     
-    private static final int MAX_QUESTIONS_PER_SESSION = 30;
-    
     private final ScreenManager screenManager;
     private final AudioManager audioManager;
     
@@ -30,25 +30,14 @@ public class QuizView extends JPanel {
     private JPanel questionPanel;
     private JLabel hintLabel;
     
-    // Data & Logic
-    private List<Database.Question> questions;
-    private int totalQuestionsInSession = 0;
-    private boolean[] questionUsed;
-    private int currentQuestionIndex = 0;
-    private int score = 0;
-    private int correctAnswers = 0;
-    private int incorrectAnswers = 0;
-    private int timeRemaining = 60;
+    // Data & Logic: aturan permainan ada di GameEngine, view ini hanya menampilkan event-nya
+    private final GameEngine engine;
+    private List<Database.Question> loadedQuestions;
     private boolean quizActive = false;
-    private Database.Question nextQuestion = null;
-    
-    private boolean fiftyFiftyUsed = false;
-    private boolean hintUsed = false;
     
     // Threads
-    private Thread timerThread;
-    private Thread animationThread;
-    private Thread preloadThread;
+    private GameClock gameClock;
+    private FrameScheduler.Registration fadeAnimation;
     
     // Animation States
     private boolean animatingFiftyFifty = false;
@@ -56,19 +45,19 @@ public class QuizView extends JPanel {
     private float fadeAlpha = 1.0f;
     
     private boolean showingCountdown = false;
+    private final DirtyRegionTracker dirtyRegions = new DirtyRegionTracker(4);
     private int countdownNumber = 3;
     private JPanel countdownOverlay;
     
     private int quizSessionId = -1;
-    
-    // Speed Bonus Logic
-    private static final int MAX_TIME_PER_QUESTION = 10;
-    private int questionStartTime = 0;
-    private int totalSpeedBonus = 0;
+    private int loadGeneration = 0;
     
     public QuizView(ScreenManager screenManager) {
         this.screenManager = screenManager;
         this.audioManager = AudioManager.getInstance();
+        this.engine = new GameEngine(Constants.QUIZ_TIME_SECONDS * 1000L,
+            () -> gameClock != null ? gameClock.elapsedMillis() : 0);
+        engine.addListener(new EngineListener());
         setLayout(null);
         setOpaque(false);
         setPreferredSize(Constants.WINDOW_SIZE);
@@ -85,6 +74,16 @@ public class QuizView extends JPanel {
                 layoutComponents();
             }
         });
+        
+        // waktu kuis berhenti selama jendela di-minimize
+        screenManager.getFrame().addWindowStateListener(e -> {
+            if (gameClock == null || !quizActive) return;
+            if ((e.getNewState() & java.awt.Frame.ICONIFIED) != 0) {
+                gameClock.pause();
+            } else {
+                gameClock.resume();
+            }
+        });
     }
     
     @Override
@@ -93,38 +92,18 @@ public class QuizView extends JPanel {
         Graphics2D g2d = (Graphics2D) g;
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
         
-        // 1. Background Radial
-        int centerX = getWidth() / 2;
-        int centerY = getHeight() / 2;
-        float radius = Math.max(getWidth(), getHeight());
-        
-        float[] dist = {0.0f, 0.5f, 1.0f};
-        Color[] colors = {Constants.CARTOON_RADIAL_CENTER, Constants.CARTOON_BG_START, Constants.CARTOON_BG_END};
-        RadialGradientPaint gradient = new RadialGradientPaint(
-            centerX, centerY, radius, dist, colors
-        );
-        g2d.setPaint(gradient);
-        g2d.fillRect(0, 0, getWidth(), getHeight());
-        
-        // 2. Garis-garis Background
-        g2d.setColor(new Color(255, 255, 255, 30));
-        g2d.setStroke(new BasicStroke(3));
-        for (int i = 0; i < 16; i++) {
-            double angle = (Math.PI * 2 / 16) * i;
-            int x2 = centerX + (int)(Math.cos(angle) * radius);
-            int y2 = centerY + (int)(Math.sin(angle) * radius);
-            g2d.drawLine(centerX, centerY, x2, y2);
-        }
+        // 1. Background radial + garis (di-cache BackgroundRenderer)
+        BackgroundRenderer.paint(this, g2d);
 
-        // 3. VISUALISASI SPEED BONUS BAR (GOLD BAR)
+        // 2. VISUALISASI SPEED BONUS BAR (GOLD BAR)
         // Ditambahkan !showingCountdown agar bar tidak muncul saat hitungan mundur
-        if (quizActive && !showingCountdown && questionPanel != null) {
-            int timeSpent = questionStartTime - timeRemaining;
+        if (engine.isActive() && !showingCountdown && questionPanel != null) {
+            long timeSpent = engine.questionElapsedMillis();
             
             // Cek apakah masih dalam periode bonus (10 detik pertama)
-            if (timeSpent >= 0 && timeSpent < MAX_TIME_PER_QUESTION) {
-                int bonusMaxTime = MAX_TIME_PER_QUESTION; 
-                int timeLeftInBonus = bonusMaxTime - timeSpent;
+            if (timeSpent >= 0 && timeSpent < GameEngine.SPEED_BONUS_WINDOW_MS) {
+                long bonusMaxTime = GameEngine.SPEED_BONUS_WINDOW_MS;
+                long timeLeftInBonus = bonusMaxTime - timeSpent;
                 
                 int barWidth = questionPanel.getWidth(); 
                 int barHeight = 10;
@@ -154,6 +133,7 @@ public class QuizView extends JPanel {
                 g2d.fillRoundRect(barX, barY, currentBarWidth, barHeight/2, 10, 10);
             }
         }
+        DirtyRegionTracker.paintDebugOverlay(g2d);
     }
     
     private void createComponents() {
@@ -374,16 +354,10 @@ public class QuizView extends JPanel {
     }
 
     public void startQuiz() {
-        currentQuestionIndex = 0;
-        score = 0;
-        correctAnswers = 0;
-        incorrectAnswers = 0;
-        timeRemaining = 60;
-        fiftyFiftyUsed = false;
-        hintUsed = false;
-        quizActive = true;
-        totalSpeedBonus = 0;
-        questionStartTime = 0;
+        engine.abandon();
+        quizActive = false;
+        if (gameClock != null) gameClock.stop();
+        quizSessionId = -1;
         
         timerLabel.setText("60");
         timerLabel.setForeground(Constants.NEO_GREEN);
@@ -394,33 +368,50 @@ public class QuizView extends JPanel {
         scoreLabel.setText("Score: 0");
         progressLabel.setText("");
         
+        for (JButton btn : optionButtons) btn.setEnabled(false);
+        skipButton.setEnabled(false);
+        fiftyFiftyButton.setEnabled(false);
+        hintButton.setEnabled(false);
+        
         String category = screenManager.getSelectedCategory();
         String difficulty = screenManager.getSelectedDifficulty();
+        String playerName = screenManager.getPlayerName();
         
-        Database db = Database.getInstance();
-        questions = db.getRandomQuestions(category, difficulty, MAX_QUESTIONS_PER_SESSION);
-        totalQuestionsInSession = questions != null ? Math.min(MAX_QUESTIONS_PER_SESSION, questions.size()) : 0;
-        questionUsed = totalQuestionsInSession > 0 ? new boolean[totalQuestionsInSession] : new boolean[0];
-        
-        if (questions == null || questions.isEmpty()) {
+        // soal dan sesi dimuat di luar EDT, hasil dari percobaan lama diabaikan
+        final int generation = ++loadGeneration;
+        AsyncDatabase async = AsyncDatabase.getInstance();
+        CompletableFuture<List<Database.Question>> loadedQuestions =
+            async.getRandomQuestions(category, difficulty, GameEngine.MAX_QUESTIONS_PER_SESSION);
+        CompletableFuture<Integer> sessionId = loadedQuestions.thenCompose(loaded ->
+            loaded == null || loaded.isEmpty()
+                ? CompletableFuture.completedFuture(-1)
+                : async.createSession(playerName, category, difficulty));
+        
+        AsyncDatabase.onEdt(sessionId, (id, error) -> {
+            if (generation != loadGeneration) return;
+            if (error != null) {
+                System.err.println("Gagal memuat kuis: " + error.getMessage());
+            }
+            onQuizLoaded(error == null ? loadedQuestions.join() : null, error == null ? id : -1);
+        });
+    }
+    
+    private void onQuizLoaded(List<Database.Question> loaded, int sessionId) {
+        if (loaded == null || loaded.isEmpty()) {
             JOptionPane.showMessageDialog(this, "Tidak ada soal tersedia!", "Error", JOptionPane.ERROR_MESSAGE);
             screenManager.showMainMenu();
             return;
         }
         
-        if (questions.size() > totalQuestionsInSession) {
-            questions = new ArrayList<>(questions.subList(0, totalQuestionsInSession));
-        }
-        
-        String playerName = screenManager.getPlayerName();
-        quizSessionId = db.createSession(playerName, category, difficulty);
+        quizSessionId = sessionId;
         if (quizSessionId == -1) {
-            quizActive = false;
             JOptionPane.showMessageDialog(this, "Gagal koneksi database!", "Error", JOptionPane.ERROR_MESSAGE);
             screenManager.showMainMenu();
             return;
         }
         
+        loadedQuestions = loaded;
+        quizActive = true;
         startCountdown();
     }
     
@@ -448,16 +439,12 @@ public class QuizView extends JPanel {
                 }
                 
                 SwingUtilities.invokeLater(() -> {
+                    if (!quizActive) return;
                     showingCountdown = false;
                     countdownOverlay.setVisible(false);
-                    for (JButton btn : optionButtons) btn.setEnabled(true);
-                    skipButton.setEnabled(true);
-                    fiftyFiftyButton.setEnabled(!fiftyFiftyUsed);
-                    hintButton.setEnabled(!hintUsed);
                     
                     startTimerThread();
-                    startPreloadThread();
-                    displayQuestion();
+                    engine.start(loadedQuestions);
                 });
             } catch (InterruptedException e) {
             }
@@ -466,59 +453,33 @@ public class QuizView extends JPanel {
     }
     
     private void startTimerThread() {
-        if (timerThread != null && timerThread.isAlive()) {
-            timerThread.interrupt();
+        if (gameClock != null) {
+            gameClock.stop();
         }
         
-        timerThread = new Thread(() -> {
-            try {
-                while (quizActive && timeRemaining > 0) {
-                    Thread.sleep(1000);
-                    
-                    if (quizActive) {
-                        timeRemaining--;
-                        SwingUtilities.invokeLater(() -> {
-                            updateTimerDisplay();
-                            updateSpeedBonusDisplay();
-                            repaint();
-                        });
-                    }
-                }
-                
-                if (quizActive) {
-                    SwingUtilities.invokeLater(() -> endQuiz());
-                }
-            } catch (InterruptedException e) {
-            }
-        });
-        timerThread.start();
+        gameClock = new GameClock(Constants.QUIZ_TIME_SECONDS * 1000L, 1000,
+            () -> SwingUtilities.invokeLater(engine::tick),
+            () -> SwingUtilities.invokeLater(() -> {
+                if (!engine.isActive()) return;
+                updateTimerDisplay(0);
+                engine.end();
+            }));
+        gameClock.start();
     }
     
     private void updateSpeedBonusDisplay() {
-        if (questions == null || questions.isEmpty() || currentQuestionIndex >= questions.size()) return;
+        if (engine.getCurrentQuestion() == null) return;
 
-        int timeSpent = questionStartTime - timeRemaining;
-        int bonusTimeLeft = Math.max(0, MAX_TIME_PER_QUESTION - timeSpent);
-        
-        Database.Question q = questions.get(currentQuestionIndex);
-        int basePoints = 10;
-        String diff = q.difficulty.toUpperCase();
-        if (diff.contains("MEDIUM") || diff.contains("SEDANG")) basePoints = 15;
-        if (diff.contains("HARD") || diff.contains("SULIT")) basePoints = 25;
-
-        int currentPotentialBonus = 0;
-        if (bonusTimeLeft > 0) {
-            double multiplier = (double) bonusTimeLeft / MAX_TIME_PER_QUESTION;
-            currentPotentialBonus = (int) (basePoints * multiplier);
-        }
+        long bonusTimeLeft = Math.max(0, GameEngine.SPEED_BONUS_WINDOW_MS - engine.questionElapsedMillis());
+        int currentPotentialBonus = engine.potentialSpeedBonus();
 
         if (currentPotentialBonus > 0) {
             speedBonusLabel.setText("+" + currentPotentialBonus); 
             speedBonusLabel.setVisible(true);
             
-            if (bonusTimeLeft > 6) {
+            if (bonusTimeLeft > 6000) {
                 speedBonusLabel.setForeground(Color.GREEN);
-            } else if (bonusTimeLeft > 3) {
+            } else if (bonusTimeLeft > 3000) {
                 speedBonusLabel.setForeground(Constants.NEO_YELLOW);
             } else {
                 speedBonusLabel.setForeground(Constants.NEO_RED);
@@ -528,42 +489,15 @@ public class QuizView extends JPanel {
         }
     }
     
-    private void startPreloadThread() {
-        if (preloadThread != null && preloadThread.isAlive()) {
-            preloadThread.interrupt();
-        }
-        
-        preloadThread = new Thread(() -> {
-            try {
-                while (quizActive && currentQuestionIndex < questions.size() - 1) {
-                    int nextIndex = currentQuestionIndex + 1;
-                    if (nextIndex < questions.size()) {
-                        nextQuestion = questions.get(nextIndex);
-                    }
-                    Thread.sleep(500);
-                }
-            } catch (InterruptedException e) {
-            }
-        });
-        preloadThread.start();
-    }
-    
-    private void updateTimerDisplay() {
+    private void updateTimerDisplay(int timeRemaining) {
         timerLabel.setText(String.valueOf(timeRemaining));
         if (timeRemaining <= 10) timerLabel.setForeground(Constants.NEO_RED);
         else if (timeRemaining <= 30) timerLabel.setForeground(Constants.NEO_YELLOW);
         else timerLabel.setForeground(Constants.NEO_GREEN);
     }
     
-    private void displayQuestion() {
-        if (currentQuestionIndex >= questions.size()) {
-            endQuiz();
-            return;
-        }
-        
-        Database.Question question = questions.get(currentQuestionIndex);
-        int total = Math.max(totalQuestionsInSession, questions.size());
-        progressLabel.setText("Soal " + (currentQuestionIndex + 1) + " / " + total);
+    private void displayQuestion(Database.Question question, int number, int total) {
+        progressLabel.setText("Soal " + number + " / " + total);
         questionLabel.setText("<html><center>" + question.questionText + "</center></html>");
         
         optionButtons[0].setText("A. " + question.optionA);
@@ -573,313 +507,148 @@ public class QuizView extends JPanel {
         
         for (JButton button : optionButtons) {
             button.setEnabled(true);
-            button.putClientProperty("fadeAlpha", 1.0f);
-            button.putClientProperty("isHighlighted", false);
+            button.putClientProperty(CartoonButtonUI.FADE_ALPHA, 1.0f);
+            button.putClientProperty(CartoonButtonUI.HIGHLIGHTED, false);
         }
         
         hintLabel.setVisible(false);
         hintLabel.setText("");
         
         skipButton.setEnabled(true);
-        fiftyFiftyButton.setEnabled(!fiftyFiftyUsed);
-        hintButton.setEnabled(!hintUsed);
+        fiftyFiftyButton.setEnabled(!engine.isFiftyFiftyUsed());
+        hintButton.setEnabled(!engine.isHintUsed());
         
-        questionStartTime = timeRemaining;
         updateSpeedBonusDisplay();
         
         repaint();
     }
     
-    private void markQuestionAsUsed(int index) {
-        if (questionUsed != null && index >= 0 && index < questionUsed.length) {
-            questionUsed[index] = true;
-        }
-    }
-    
-    private void advanceToNextQuestion() {
-        currentQuestionIndex++;
-        while (questionUsed != null && currentQuestionIndex < totalQuestionsInSession && questionUsed[currentQuestionIndex]) {
-            currentQuestionIndex++;
-        }
-        if (currentQuestionIndex < questions.size()) {
-            displayQuestion();
-        } else {
-            endQuiz();
-        }
-    }
-    
     private void handleAnswerSelection(int optionIndex) {
-        if (!quizActive || animatingFiftyFifty) return;
-        
+        if (!engine.isActive() || animatingFiftyFifty) return;
         audioManager.playSFX("assets/click.wav");
-        
-        Database.Question question = questions.get(currentQuestionIndex);
-        String selectedAnswer = String.valueOf((char)('A' + optionIndex));
-        boolean isCorrect = selectedAnswer.equals(question.correctAnswer);
-        
-        if (isCorrect) {
-            correctAnswers++;
-            
-            int basePoints = 10;
-            String diff = question.difficulty.toUpperCase();
-            if (diff.contains("MEDIUM") || diff.contains("SEDANG")) basePoints = 15;
-            else if (diff.contains("HARD") || diff.contains("SULIT")) basePoints = 25;
-            
-            int timeSpent = questionStartTime - timeRemaining;
-            int timeLeft = Math.max(0, MAX_TIME_PER_QUESTION - timeSpent);
-            double speedMultiplier = timeLeft / (double) MAX_TIME_PER_QUESTION;
-            int speedBonus = (int) (basePoints * speedMultiplier);
-            totalSpeedBonus += speedBonus;
-            
-            score += (basePoints + speedBonus);
-            scoreLabel.setText("Score: " + score);
-        } else {
-            incorrectAnswers++;
-        }
-        
-        saveAnswerAsync(question.id, selectedAnswer, isCorrect);
-        markQuestionAsUsed(currentQuestionIndex);
-        advanceToNextQuestion();
+        engine.answer(optionIndex);
     }
     
     private void handleSkip() {
-        if (!quizActive || animatingFiftyFifty) return;
+        if (!engine.isActive() || animatingFiftyFifty) return;
         audioManager.playSFX("assets/click.wav");
-        Database.Question question = questions.get(currentQuestionIndex);
-        saveAnswerAsync(question.id, "SKIP", false);
-        incorrectAnswers++;
-        markQuestionAsUsed(currentQuestionIndex);
-        advanceToNextQuestion();
+        engine.skip();
     }
     
     private void handleFiftyFifty() {
-        if (!quizActive || fiftyFiftyUsed || animatingFiftyFifty) return;
+        if (!engine.isActive() || engine.isFiftyFiftyUsed() || animatingFiftyFifty) return;
         audioManager.playSFX("assets/click.wav");
-        fiftyFiftyUsed = true;
-        fiftyFiftyButton.setEnabled(false);
-        
-        Database.Question question = questions.get(currentQuestionIndex);
-        int correctIndex = question.correctAnswer.charAt(0) - 'A';
-        List<Integer> incorrectIndices = new ArrayList<>();
-        for (int i = 0; i < 4; i++) {
-            if (i != correctIndex) incorrectIndices.add(i);
-        }
-        fadingOptions = new int[]{incorrectIndices.get(0), incorrectIndices.get(1)};
-        startFiftyFiftyAnimation();
+        engine.fiftyFifty();
     }
     
     private void handleHint() {
-        if (!quizActive || hintUsed || animatingFiftyFifty) return;
+        if (!engine.isActive() || engine.isHintUsed() || animatingFiftyFifty) return;
         audioManager.playSFX("assets/click.wav");
-        hintUsed = true;
-        hintButton.setEnabled(false);
-        Database.Question question = questions.get(currentQuestionIndex);
-        int correctIndex = question.correctAnswer.charAt(0) - 'A';
-        optionButtons[correctIndex].putClientProperty("isHighlighted", true);
-        optionButtons[correctIndex].repaint();
+        engine.hint();
+    }
+    
+    private class EngineListener implements GameEngine.Listener {
+        @Override
+        public void onQuestion(Database.Question question, int number, int total) {
+            displayQuestion(question, number, total);
+        }
+        
+        @Override
+        public void onAnswer(Database.Question question, String userAnswer, boolean correct,
+                             int points, int speedBonus, long responseMillis) {
+            if (correct) {
+                scoreLabel.setText("Score: " + engine.getScore());
+            }
+            saveAnswerAsync(question.id, userAnswer, correct, responseMillis);
+        }
+        
+        @Override
+        public void onSkip(Database.Question question, long responseMillis) {
+            saveAnswerAsync(question.id, "SKIP", false, responseMillis);
+        }
+        
+        @Override
+        public void onLifeline(GameEngine.Lifeline lifeline, Database.Question question, int[] options) {
+            if (lifeline == GameEngine.Lifeline.FIFTY_FIFTY) {
+                fiftyFiftyButton.setEnabled(false);
+                fadingOptions = options;
+                startFiftyFiftyAnimation();
+            } else {
+                hintButton.setEnabled(false);
+                optionButtons[options[0]].putClientProperty(CartoonButtonUI.HIGHLIGHTED, true);
+                optionButtons[options[0]].repaint();
+            }
+        }
+        
+        @Override
+        public void onTick(int remainingSeconds) {
+            // label timer dan speed bonus sudah repaint sendiri lewat setText, panel cukup
+            // mengecat ulang area speed bonus bar
+            updateTimerDisplay(remainingSeconds);
+            updateSpeedBonusDisplay();
+            dirtyRegions.add(questionPanel.getX(), questionPanel.getY() - 20, questionPanel.getWidth(), 10);
+            dirtyRegions.flush(QuizView.this);
+        }
+        
+        @Override
+        public void onEnd(GameEngine.Result result) {
+            endQuiz(result);
+        }
     }
     
+    // opsi yang dihapus 50:50 memudar dalam 1 detik lewat FrameScheduler
     private void startFiftyFiftyAnimation() {
         animatingFiftyFifty = true;
         fadeAlpha = 1.0f;
         
-        if (animationThread != null && animationThread.isAlive()) animationThread.interrupt();
+        if (fadeAnimation != null) fadeAnimation.cancel();
         
-        animationThread = new Thread(() -> {
-            try {
-                while (fadeAlpha > 0) {
-                    Thread.sleep(50);
-                    fadeAlpha -= 0.05f;
-                    SwingUtilities.invokeLater(() -> {
-                        for (int index : fadingOptions) {
-                            optionButtons[index].putClientProperty("fadeAlpha", Math.max(0, fadeAlpha));
-                            optionButtons[index].repaint();
-                        }
-                    });
-                }
-                SwingUtilities.invokeLater(() -> {
-                    for (int index : fadingOptions) optionButtons[index].setEnabled(false);
-                    animatingFiftyFifty = false;
-                });
-            } catch (InterruptedException e) {}
+        fadeAnimation = FrameScheduler.getInstance().register(this, deltaNanos -> {
+            fadeAlpha = Math.max(0, fadeAlpha - deltaNanos / 1_000_000_000f);
+            for (int index : fadingOptions) {
+                optionButtons[index].putClientProperty(CartoonButtonUI.FADE_ALPHA, fadeAlpha);
+                optionButtons[index].repaint();
+            }
+            if (fadeAlpha > 0) return true;
+            for (int index : fadingOptions) optionButtons[index].setEnabled(false);
+            animatingFiftyFifty = false;
+            return false;
         });
-        animationThread.start();
     }
     
-    private void saveAnswerAsync(int questionId, String userAnswer, boolean isCorrect) {
-        SwingWorker<Void, Void> worker = new SwingWorker<Void, Void>() {
-            @Override
-            protected Void doInBackground() throws Exception {
-                Database.getInstance().saveQuestionAnswer(quizSessionId, questionId, userAnswer, isCorrect);
-                return null;
-            }
-        };
-        worker.execute();
+    private void saveAnswerAsync(int questionId, String userAnswer, boolean isCorrect, long responseMillis) {
+        DataStore.getInstance().queueQuestionAnswer(quizSessionId, questionId, userAnswer, isCorrect,
+            responseMillis);
     }
     
-    private void endQuiz() {
+    private void endQuiz(GameEngine.Result result) {
         quizActive = false;
-        if (timerThread != null) timerThread.interrupt();
-        if (preloadThread != null) preloadThread.interrupt();
-        if (animationThread != null) animationThread.interrupt();
+        if (gameClock != null) gameClock.stop();
+        if (fadeAnimation != null) {
+            fadeAnimation.cancel();
+            animatingFiftyFifty = false;
+        }
         
-        Database db = Database.getInstance();
-        db.updateSession(quizSessionId, score, correctAnswers, incorrectAnswers);
-        String playerName = screenManager.getPlayerName();
-        int totalQuestions = correctAnswers + incorrectAnswers;
-        double accuracy = totalQuestions > 0 ? (correctAnswers * 100.0 / totalQuestions) : 0;
-        db.addLeaderboard(playerName, quizSessionId, score, totalQuestions, accuracy, totalSpeedBonus);
+        int sessionId = quizSessionId;
+        CompletableFuture<Boolean> saved = AsyncDatabase.getInstance().store().thenCompose(store -> {
+            store.flushQuestionAnswers();
+            return store.finishSession(sessionId, result.getScore(), result.getQuestionsAnswered(),
+                result.getCorrectAnswers(), result.getIncorrectAnswers(), result.getTimeTakenSeconds(),
+                result.getSkipCount(), result.isFiftyFiftyUsed() ? 1 : 0, result.getSpeedBonus());
+        });
+        screenManager.setPendingSessionSave(saved);
         
-        screenManager.showResult(score, correctAnswers, incorrectAnswers, totalSpeedBonus);
+        screenManager.showResult(result.getScore(), result.getCorrectAnswers(), result.getIncorrectAnswers(),
+            result.getSpeedBonus());
     }
     
     private JButton createOptionButton(String label) {
-        JButton button = new JButton() {
-            @Override
-            protected void paintComponent(Graphics g) {
-                Graphics2D g2d = (Graphics2D) g.create();
-                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-                g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
-                
-                boolean pressed = getModel().isPressed();
-                boolean enabled = isEnabled();
-                Boolean isHoveredObj = (Boolean) getClientProperty("isHovered");
-                boolean isHovered = isHoveredObj != null && isHoveredObj;
-                Float fadeAlphaObj = (Float) getClientProperty("fadeAlpha");
-                float alpha = fadeAlphaObj != null ? fadeAlphaObj : 1.0f;
-                Boolean isHighlighted = (Boolean) getClientProperty("isHighlighted");
-                boolean highlighted = isHighlighted != null && isHighlighted;
-                
-                if (!enabled || alpha < 0.1f) alpha = 0.3f;
-                g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha * 0.5f));
-                g2d.setColor(new Color(0, 0, 0, 100));
-                g2d.fillRoundRect(Constants.SHADOW_OFFSET, Constants.SHADOW_OFFSET, getWidth() - Constants.SHADOW_OFFSET, getHeight() - Constants.SHADOW_OFFSET, Constants.BORDER_RADIUS, Constants.BORDER_RADIUS);
-                g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha));
-                
-                Color bgColor = highlighted ? Constants.NEO_ORANGE : Constants.NEO_PINK;
-                Color lightColor = bgColor.brighter();
-                Color darkColor = bgColor;
-                
-                if (isHovered && !pressed && enabled) {
-                    lightColor = new Color(Math.min(255, lightColor.getRed() + 30), Math.min(255, lightColor.getGreen() + 30), Math.min(255, lightColor.getBlue() + 30));
-                    darkColor = bgColor.brighter();
-                }
-                if (pressed) {
-                    lightColor = new Color(lightColor.getRed(), lightColor.getGreen(), lightColor.getBlue(), 150);
-                    darkColor = new Color(darkColor.getRed(), darkColor.getGreen(), darkColor.getBlue(), 150);
-                }
-                
-                GradientPaint gradient = new GradientPaint(0, 0, lightColor, 0, getHeight() - Constants.SHADOW_OFFSET, darkColor);
-                g2d.setPaint(gradient);
-                g2d.fillRoundRect(0, 0, getWidth() - Constants.SHADOW_OFFSET, getHeight() - Constants.SHADOW_OFFSET, Constants.BORDER_RADIUS, Constants.BORDER_RADIUS);
-                
-                int highlightAlpha = pressed ? 40 : 80;
-                g2d.setColor(new Color(255, 255, 255, highlightAlpha));
-                g2d.fillRoundRect(5, 5, getWidth() - Constants.SHADOW_OFFSET - 10, (getHeight() - Constants.SHADOW_OFFSET) / 2 - 5, Constants.BORDER_RADIUS - 5, Constants.BORDER_RADIUS - 5);
-                
-                int outlineAlpha = pressed ? 150 : 255;
-                if (highlighted) {
-                    g2d.setColor(new Color(255, 215, 0, outlineAlpha));
-                    g2d.setStroke(new BasicStroke(Constants.BORDER_THICKNESS + 2));
-                } else {
-                    g2d.setColor(new Color(255, 255, 255, outlineAlpha));
-                    g2d.setStroke(new BasicStroke(Constants.BORDER_THICKNESS));
-                }
-                g2d.drawRoundRect(0, 0, getWidth() - Constants.SHADOW_OFFSET, getHeight() - Constants.SHADOW_OFFSET, Constants.BORDER_RADIUS, Constants.BORDER_RADIUS);
-                
-                g2d.setFont(getFont());
-                FontMetrics fm = g2d.getFontMetrics();
-                int x = (getWidth() - Constants.SHADOW_OFFSET - fm.stringWidth(getText())) / 2;
-                int y = ((getHeight() - Constants.SHADOW_OFFSET - fm.getHeight()) / 2) + fm.getAscent();
-                
-                int textShadowAlpha = pressed ? 50 : 100;
-                g2d.setColor(new Color(0, 0, 0, textShadowAlpha));
-                g2d.drawString(getText(), x + 2, y + 2);
-                int textAlpha = pressed ? 180 : 255;
-                g2d.setColor(new Color(255, 255, 255, textAlpha));
-                g2d.drawString(getText(), x, y);
-                g2d.dispose();
-            }
-        };
-        button.setFont(new Font("Arial", Font.BOLD, 18));
-        button.setForeground(Color.WHITE);
-        button.setFocusPainted(false);
-        button.setBorderPainted(false);
-        button.setContentAreaFilled(false);
-        button.setCursor(new Cursor(Cursor.HAND_CURSOR));
-        button.addMouseListener(new MouseAdapter() {
-            @Override
-            public void mouseEntered(MouseEvent e) { if (button.isEnabled()) { button.putClientProperty("isHovered", true); button.repaint(); } }
-            @Override
-            public void mouseExited(MouseEvent e) { button.putClientProperty("isHovered", false); button.repaint(); }
-        });
-        
-        return button;
+        return CartoonButtonUI.createButton("", Constants.NEO_PINK, new Font("Arial", Font.BOLD, 18),
+            CartoonButtonUI.Style.OPTION);
     }
     
     private JButton createLifelineButton(String text, Color bgColor) {
-        JButton button = new JButton(text) {
-            @Override
-            protected void paintComponent(Graphics g) {
-                Graphics2D g2d = (Graphics2D) g.create();
-                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-                g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
-
-                boolean pressed = getModel().isPressed();
-                boolean enabled = isEnabled();
-                Boolean isHoveredObj = (Boolean) getClientProperty("isHovered");
-                boolean isHovered = isHoveredObj != null && isHoveredObj;
-
-                float alpha = enabled ? 1.0f : 0.4f;
-                g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha));
-                
-                g2d.setColor(new Color(0, 0, 0, 100));
-                g2d.fillRoundRect(Constants.SHADOW_OFFSET, Constants.SHADOW_OFFSET, getWidth() - Constants.SHADOW_OFFSET, getHeight() - Constants.SHADOW_OFFSET, Constants.BORDER_RADIUS, Constants.BORDER_RADIUS);
-                Color lightColor = bgColor.brighter();
-                Color darkColor = bgColor;
-                if (isHovered && !pressed && enabled) { lightColor = new Color(Math.min(255, lightColor.getRed() + 30), Math.min(255, lightColor.getGreen() + 30), Math.min(255, lightColor.getBlue() + 30)); darkColor = bgColor.brighter(); }
-                if (pressed) { lightColor = new Color(lightColor.getRed(), lightColor.getGreen(), lightColor.getBlue(), 150); darkColor = new Color(darkColor.getRed(), darkColor.getGreen(), darkColor.getBlue(), 150); }
-                GradientPaint gradient = new GradientPaint(0, 0, lightColor, 0, getHeight() - Constants.SHADOW_OFFSET, darkColor);
-                g2d.setPaint(gradient);
-                g2d.fillRoundRect(0, 0, getWidth() - Constants.SHADOW_OFFSET, getHeight() - Constants.SHADOW_OFFSET, Constants.BORDER_RADIUS, Constants.BORDER_RADIUS);
-                int highlightAlpha = pressed ? 40 : 80;
-                g2d.setColor(new Color(255, 255, 255, highlightAlpha));
-                g2d.fillRoundRect(5, 5, getWidth() - Constants.SHADOW_OFFSET - 10, (getHeight() - Constants.SHADOW_OFFSET) / 2 - 5, Constants.BORDER_RADIUS - 5, Constants.BORDER_RADIUS - 5);
-                int outlineAlpha = pressed ? 150 : 255;
-                g2d.setColor(new Color(255, 255, 255, outlineAlpha));
-                g2d.setStroke(new BasicStroke(Constants.BORDER_THICKNESS));
-                g2d.drawRoundRect(0, 0, getWidth() - Constants.SHADOW_OFFSET, getHeight() - Constants.SHADOW_OFFSET, Constants.BORDER_RADIUS, Constants.BORDER_RADIUS);
-                g2d.setFont(getFont());
-                FontMetrics fm = g2d.getFontMetrics();
-                int x = (getWidth() - Constants.SHADOW_OFFSET - fm.stringWidth(getText())) / 2;
-                int y = ((getHeight() - Constants.SHADOW_OFFSET - fm.getHeight()) / 2) + fm.getAscent();
-
-                int textShadowAlpha = pressed ? 50 : 100;
-                g2d.setColor(new Color(0, 0, 0, textShadowAlpha));
-                g2d.drawString(getText(), x + 2, y + 2);
-
-                int textAlpha = enabled ? (pressed ? 180 : 255) : 180;
-                g2d.setColor(new Color(255, 255, 255, textAlpha));
-                g2d.drawString(getText(), x, y);
-
-                g2d.dispose();
-            }
-        };
-
-        button.setFont(new Font("Arial Black", Font.BOLD, 15));
-        button.setForeground(Color.WHITE);
-        button.setFocusPainted(false);
-        button.setBorderPainted(false);
-        button.setContentAreaFilled(false);
-        button.setCursor(new Cursor(Cursor.HAND_CURSOR));
-
-        button.addMouseListener(new MouseAdapter() {
-            @Override
-            public void mouseEntered(MouseEvent e) { if (button.isEnabled()) { button.putClientProperty("isHovered", true); button.repaint(); } }
-            @Override
-            public void mouseExited(MouseEvent e) { button.putClientProperty("isHovered", false); button.repaint(); }
-        });
-
-        return button;
+        return CartoonButtonUI.createButton(text, bgColor, new Font("Arial Black", Font.BOLD, 15),
+            CartoonButtonUI.Style.LIFELINE);
     }
 }
\ No newline at end of file
@@ -1,8 +1,10 @@
 package view;
 
 import java.awt.CardLayout;
+import java.util.concurrent.CompletableFuture;
 import javax.swing.JFrame;
 import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
 
 public class ScreenManager {
     public static final String MAIN_MENU = "MAIN_MENU";
@@ -29,6 +31,7 @@ public class ScreenManager {
     private String playerName;
     private String selectedCategory;
     private String selectedDifficulty;
+    private CompletableFuture<Boolean> pendingSessionSave;
 
     public ScreenManager(JFrame frame) {
         this.frame = frame;
@@ -78,6 +81,10 @@ public class ScreenManager {
     }
 
     public void showLeaderboard() {
+        if (pendingSessionSave != null && !pendingSessionSave.isDone()) {
+            pendingSessionSave.whenComplete((saved, error) ->
+                SwingUtilities.invokeLater(leaderboardView::refreshLeaderboard));
+        }
         leaderboardView.refreshLeaderboard();
         cardLayout.show(rootPanel, LEADERBOARD);
         leaderboardView.requestFocusInWindow();
@@ -130,6 +137,10 @@ public class ScreenManager {
         quizView.requestFocusInWindow();
     }
     
+    public void setPendingSessionSave(CompletableFuture<Boolean> pendingSessionSave) {
+        this.pendingSessionSave = pendingSessionSave;
+    }
+    
     public void showResult(int score, int correctAnswers, int incorrectAnswers, int speedBonus) {
         resultView.updateResult(score, correctAnswers, incorrectAnswers, speedBonus);
         cardLayout.show(rootPanel, RESULT);